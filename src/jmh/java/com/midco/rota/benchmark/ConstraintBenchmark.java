@@ -0,0 +1,124 @@
+package com.midco.rota.benchmark;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.optaplanner.core.api.score.buildin.hardsoftlong.HardSoftLongScore;
+import org.optaplanner.core.api.solver.SolverFactory;
+import org.optaplanner.core.config.score.director.ScoreDirectorFactoryConfig;
+import org.optaplanner.core.config.solver.SolverConfig;
+import org.optaplanner.core.impl.score.director.InnerScoreDirector;
+import org.optaplanner.core.impl.solver.DefaultSolverFactory;
+
+import com.midco.rota.model.Employee;
+import com.midco.rota.model.Rota;
+import com.midco.rota.model.ShiftAssignment;
+import com.midco.rota.opt.SingleConstraintProvider;
+
+/**
+ * Incremental score calculation speed of RotaConstraintProvider.
+ *
+ * One operation = one change move (reassign a random non-pinned assignment to a
+ * random employee, or to nobody) followed by calculateScore(), which is what
+ * local search does per evaluated move. The reported ops/s is therefore the
+ * score calculation count per second, per constraint and for ALL of them.
+ *
+ * Run everything:
+ *   mvn -Pbenchmark test-compile exec:exec
+ * Narrow it down:
+ *   mvn -Pbenchmark test-compile exec:exec -Djmh.args="ConstraintBenchmark -p employeeCount=200 -p weekCount=4 -p 'constraint=ALL,No incompatible back-to-back shifts'"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = { "-Xms2g", "-Xmx4g" })
+public class ConstraintBenchmark {
+
+	private static final int MOVE_COUNT = 1 << 14;
+
+	@Param({ "50", "200", "1000" })
+	public int employeeCount;
+
+	@Param({ "4", "8", "13" })
+	public int weekCount;
+
+	// Must match the asConstraint(...) names in RotaConstraintProvider
+	@Param({ SingleConstraintProvider.ALL, "Unassigned shift", "Duplicate assignment of employee to same shift",
+			"No invalid same-day shift combinations", "Gender mismatch", "Restricted day of week",
+			"Restricted Shift Type", "Restricted Service", "Max weekly hours exceeded", "Too many employees for shift",
+			"Max hours per shift type per day", "Weekly limit per shift type", "No incompatible back-to-back shifts",
+			"Max hours per week (SOFT 10K)", "Min 2 days per location per week (SOFT)", "Assigned shift",
+			"Min weekly hours not met", "Prefer working on preferred days", "Prefer working on preferred shift",
+			"Prioritized allocation", "Prioritize high-priority location assignments",
+			"Allow zero-hours employee assignments", "Encourage balanced hours around midpoint",
+			"Penalize overloading individual employees", "Max 5 days per location per week",
+			"Location preferences (reward only)" })
+	public String constraint;
+
+	private InnerScoreDirector<Rota, HardSoftLongScore> scoreDirector;
+	private ShiftAssignment[] moveEntities;
+	private Employee[] moveValues;
+	private int moveIndex;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		Rota rota = SyntheticRotaFactory.build(employeeCount, weekCount, 42L);
+
+		// Same solverConfig.xml as production so the constraint stream implementation matches
+		SolverConfig solverConfig = SolverConfig.createFromXmlResource("solverConfig.xml");
+		ScoreDirectorFactoryConfig scoreConfig = solverConfig.getScoreDirectorFactoryConfig();
+		scoreConfig.setConstraintProviderClass(SingleConstraintProvider.class);
+		scoreConfig.setConstraintProviderCustomProperties(Map.of("constraintName", constraint));
+		DefaultSolverFactory<Rota> solverFactory = (DefaultSolverFactory<Rota>) SolverFactory.<Rota>create(solverConfig);
+		scoreDirector = solverFactory.<HardSoftLongScore>getScoreDirectorFactory().buildScoreDirector(false, false);
+		scoreDirector.setWorkingSolution(rota);
+		scoreDirector.calculateScore();
+
+		// Pre-generate the moves so the RNG stays out of the measurement
+		List<ShiftAssignment> movable = rota.getShiftAssignmentList().stream().filter(sa -> !sa.isPinned()).toList();
+		List<Employee> employees = rota.getEmployeeList();
+		Random random = new Random(7L);
+		moveEntities = new ShiftAssignment[MOVE_COUNT];
+		moveValues = new Employee[MOVE_COUNT];
+		for (int i = 0; i < MOVE_COUNT; i++) {
+			moveEntities[i] = movable.get(random.nextInt(movable.size()));
+			// ~5% of moves unassign, mirroring the nullable planning variable
+			moveValues[i] = random.nextInt(20) == 0 ? null : employees.get(random.nextInt(employees.size()));
+		}
+		moveIndex = 0;
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		scoreDirector.close();
+	}
+
+	@Benchmark
+	public HardSoftLongScore changeMoveAndScore() {
+		int i = moveIndex;
+		moveIndex = (i + 1) & (MOVE_COUNT - 1);
+
+		ShiftAssignment sa = moveEntities[i];
+		scoreDirector.beforeVariableChanged(sa, "employee");
+		sa.setEmployee(moveValues[i]);
+		scoreDirector.afterVariableChanged(sa, "employee");
+		return scoreDirector.calculateScore();
+	}
+}
@@ -0,0 +1,47 @@
+package com.midco.rota.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.Comparator;
+
+import org.optaplanner.persistence.common.api.domain.solution.SolutionFileIO;
+
+import com.midco.rota.model.Rota;
+import com.midco.rota.util.RotaDataset;
+
+/**
+ * Reads the RotaDataset JSON files exported by
+ * GET /api/benchmark/dataset/{requestId} as benchmark input problems.
+ */
+public class RotaDatasetFileIO implements SolutionFileIO<Rota> {
+
+	@Override
+	public String getInputFileExtension() {
+		return "json";
+	}
+
+	@Override
+	public Rota read(File inputSolutionFile) {
+		try {
+			return RotaDataset.read(inputSolutionFile.toPath()).toRota();
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not read dataset " + inputSolutionFile, e);
+		}
+	}
+
+	@Override
+	public void write(Rota solution, File outputSolutionFile) {
+		LocalDate startDate = solution.getShiftAssignmentList().stream().map(sa -> sa.getShift().getShiftStart())
+				.min(Comparator.naturalOrder()).orElse(null);
+		LocalDate endDate = solution.getShiftAssignmentList().stream().map(sa -> sa.getShift().getShiftStart())
+				.max(Comparator.naturalOrder()).orElse(null);
+		try {
+			RotaDataset.record(outputSolutionFile.getName(), startDate, endDate, solution)
+					.write(outputSolutionFile.toPath());
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not write dataset " + outputSolutionFile, e);
+		}
+	}
+}
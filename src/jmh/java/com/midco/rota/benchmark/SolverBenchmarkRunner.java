@@ -0,0 +1,141 @@
+package com.midco.rota.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.optaplanner.benchmark.api.PlannerBenchmarkFactory;
+import org.optaplanner.benchmark.config.PlannerBenchmarkConfig;
+import org.optaplanner.benchmark.config.ProblemBenchmarksConfig;
+import org.optaplanner.benchmark.config.SolverBenchmarkConfig;
+import org.optaplanner.benchmark.config.statistic.ProblemStatisticType;
+import org.optaplanner.core.config.constructionheuristic.ConstructionHeuristicPhaseConfig;
+import org.optaplanner.core.config.heuristic.selector.move.generic.ChangeMoveSelectorConfig;
+import org.optaplanner.core.config.localsearch.LocalSearchPhaseConfig;
+import org.optaplanner.core.config.localsearch.decider.acceptor.LocalSearchAcceptorConfig;
+import org.optaplanner.core.config.phase.PhaseConfig;
+import org.optaplanner.core.config.solver.EnvironmentMode;
+import org.optaplanner.core.config.solver.SolverConfig;
+import org.optaplanner.core.config.solver.termination.TerminationConfig;
+
+/**
+ * Compares solver configurations on recorded problems and writes the
+ * optaplanner-benchmark HTML report.
+ *
+ * Inputs are the anonymised RotaDataset files from
+ * GET /api/benchmark/dataset/{requestId}, one *.json per problem. Every
+ * variant starts from the production solverConfig.xml and changes one thing:
+ * entity tabu size, late acceptance size, move selectors or moveThreadCount.
+ * All run REPRODUCIBLE (production's FAST_ASSERT would mostly measure the
+ * assertions) with the production termination unless a time limit is given.
+ *
+ * Run:
+ *   mvn -Pbenchmark test-compile exec:exec -Dbenchmark.main=com.midco.rota.benchmark.SolverBenchmarkRunner -Dbenchmark.args="local/data local/benchmarkReport 300"
+ * Arguments (all optional): dataset directory, report directory, seconds per solve.
+ */
+public final class SolverBenchmarkRunner {
+
+	private static final String SOLVER_CONFIG = "solverConfig.xml";
+
+	// Late acceptance size the solver uses when no acceptor is configured
+	private static final int DEFAULT_LATE_ACCEPTANCE_SIZE = 400;
+
+	private SolverBenchmarkRunner() {
+	}
+
+	public static void main(String[] args) throws IOException {
+		Path datasetDir = Path.of(args.length > 0 ? args[0] : "local/data");
+		File reportDir = new File(args.length > 1 ? args[1] : "local/benchmarkReport");
+		Long secondsSpentLimit = args.length > 2 ? Long.valueOf(args[2]) : null;
+
+		List<File> inputFiles;
+		try (Stream<Path> files = Files.list(datasetDir)) {
+			inputFiles = files.filter(p -> p.toString().endsWith(".json")).sorted().map(Path::toFile).toList();
+		}
+		if (inputFiles.isEmpty()) {
+			throw new IllegalArgumentException("No *.json datasets in " + datasetDir.toAbsolutePath());
+		}
+
+		ProblemBenchmarksConfig problems = new ProblemBenchmarksConfig()
+				.withSolutionFileIOClass(RotaDatasetFileIO.class)
+				.withInputSolutionFileList(inputFiles)
+				.withProblemStatisticTypes(ProblemStatisticType.BEST_SCORE, ProblemStatisticType.SCORE_CALCULATION_SPEED,
+						ProblemStatisticType.MOVE_COUNT_PER_STEP);
+
+		List<SolverBenchmarkConfig> solverBenchmarks = new ArrayList<>();
+		solverBenchmarks.add(variant("Production", productionConfig(), secondsSpentLimit, solver -> {
+		}));
+		for (int tabuSize : new int[] { 7, 15 }) {
+			solverBenchmarks.add(variant("Entity tabu " + tabuSize, productionConfig(), secondsSpentLimit,
+					solver -> acceptor(solver).setEntityTabuSize(tabuSize)));
+		}
+		for (int lateAcceptanceSize : new int[] { 100, 1000 }) {
+			solverBenchmarks.add(variant("Late acceptance " + lateAcceptanceSize, productionConfig(), secondsSpentLimit,
+					solver -> acceptor(solver).setLateAcceptanceSize(lateAcceptanceSize)));
+		}
+		solverBenchmarks.add(variant("Change moves only", productionConfig(), secondsSpentLimit,
+				solver -> localSearch(solver).setMoveSelectorConfig(new ChangeMoveSelectorConfig())));
+		for (String moveThreadCount : new String[] { SolverConfig.MOVE_THREAD_COUNT_NONE, "2", "4" }) {
+			solverBenchmarks.add(variant("Move threads " + moveThreadCount, productionConfig(), secondsSpentLimit,
+					solver -> solver.setMoveThreadCount(moveThreadCount)));
+		}
+
+		PlannerBenchmarkConfig benchmarkConfig = new PlannerBenchmarkConfig()
+				.withName("Rota solver configurations")
+				.withBenchmarkDirectory(reportDir)
+				.withInheritedSolverBenchmarkConfig(new SolverBenchmarkConfig().withProblemBenchmarksConfig(problems))
+				.withSolverBenchmarkConfigList(solverBenchmarks);
+
+		// One timestamped sub-directory per run, index.html inside
+		File reportRoot = PlannerBenchmarkFactory.create(benchmarkConfig).buildPlannerBenchmark().benchmark();
+		System.out.println("Benchmark report written under " + reportRoot.getAbsolutePath());
+	}
+
+	private static SolverBenchmarkConfig variant(String name, SolverConfig solver, Long secondsSpentLimit,
+			Consumer<SolverConfig> change) {
+		solver.setEnvironmentMode(EnvironmentMode.REPRODUCIBLE);
+		// The benchmarker collects its own statistics and refuses Micrometer monitoring
+		solver.setMonitoringConfig(null);
+		if (secondsSpentLimit != null) {
+			solver.setTerminationConfig(new TerminationConfig().withSecondsSpentLimit(secondsSpentLimit));
+		}
+		change.accept(solver);
+		return new SolverBenchmarkConfig().withName(name).withSolverConfig(solver);
+	}
+
+	private static SolverConfig productionConfig() {
+		return SolverConfig.createFromXmlResource(SOLVER_CONFIG);
+	}
+
+	/**
+	 * The local search phase to vary. solverConfig.xml wraps its phases in
+	 * <phase> elements, which the config parser skips, so production runs the
+	 * solver's default phases; those are made explicit here (construction
+	 * heuristic, then late acceptance over change and swap moves).
+	 */
+	private static LocalSearchPhaseConfig localSearch(SolverConfig solver) {
+		if (solver.getPhaseConfigList() == null || solver.getPhaseConfigList().isEmpty()) {
+			solver.setPhaseConfigList(List.of(new ConstructionHeuristicPhaseConfig(), new LocalSearchPhaseConfig()));
+		}
+		for (PhaseConfig<?> phase : solver.getPhaseConfigList()) {
+			if (phase instanceof LocalSearchPhaseConfig localSearch) {
+				return localSearch;
+			}
+		}
+		throw new IllegalStateException(SOLVER_CONFIG + " has no local search phase");
+	}
+
+	private static LocalSearchAcceptorConfig acceptor(SolverConfig solver) {
+		LocalSearchPhaseConfig localSearch = localSearch(solver);
+		if (localSearch.getAcceptorConfig() == null) {
+			localSearch.setAcceptorConfig(
+					new LocalSearchAcceptorConfig().withLateAcceptanceSize(DEFAULT_LATE_ACCEPTANCE_SIZE));
+		}
+		return localSearch.getAcceptorConfig();
+	}
+}
@@ -0,0 +1,155 @@
+package com.midco.rota.benchmark;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.midco.rota.model.Employee;
+import com.midco.rota.model.Rota;
+import com.midco.rota.model.Shift;
+import com.midco.rota.model.ShiftAssignment;
+import com.midco.rota.model.ShiftTemplate;
+import com.midco.rota.util.ContractType;
+import com.midco.rota.util.Gender;
+import com.midco.rota.util.ShiftType;
+
+/**
+ * Builds reproducible in-memory Rota problems for the score calculation
+ * benchmarks. No database or Spring context is needed.
+ *
+ * Shape roughly follows a real region: one location per 8 employees, each
+ * location running DAY, LONG_DAY and WAKING_NIGHT every day plus a FLOATING
+ * shift on weekdays. ~90% of assignments start with an employee so the
+ * groupBy/join nodes are populated the way they are mid local search.
+ */
+public final class SyntheticRotaFactory {
+
+	// Monday, so week boundaries line up with ISO weeks
+	public static final LocalDate START_DATE = LocalDate.of(2025, 1, 6);
+
+	private static final double INITIALLY_ASSIGNED_RATIO = 0.9;
+
+	private SyntheticRotaFactory() {
+	}
+
+	public static Rota build(int employeeCount, int weekCount, long seed) {
+		Random random = new Random(seed);
+
+		int locationCount = Math.max(3, employeeCount / 8);
+		List<String> locations = new ArrayList<>(locationCount);
+		for (int i = 0; i < locationCount; i++) {
+			locations.add("LOCATION_" + i);
+		}
+
+		List<Employee> employees = new ArrayList<>(employeeCount);
+		for (int i = 0; i < employeeCount; i++) {
+			employees.add(buildEmployee(i + 1, locations, random));
+		}
+
+		List<ShiftTemplate> templates = new ArrayList<>();
+		int templateId = 1;
+		for (String location : locations) {
+			int priority = 1 + random.nextInt(5);
+			for (DayOfWeek day : DayOfWeek.values()) {
+				templates.add(buildTemplate(templateId++, location, day, ShiftType.DAY, LocalTime.of(8, 0),
+						LocalTime.of(15, 0), priority, random));
+				templates.add(buildTemplate(templateId++, location, day, ShiftType.LONG_DAY, LocalTime.of(8, 0),
+						LocalTime.of(20, 0), priority, random));
+				templates.add(buildTemplate(templateId++, location, day, ShiftType.WAKING_NIGHT, LocalTime.of(20, 0),
+						LocalTime.of(8, 0), priority, random));
+				if (day.getValue() <= 5) {
+					templates.add(buildTemplate(templateId++, location, day, ShiftType.FLOATING, LocalTime.of(9, 0),
+							LocalTime.of(13, 0), priority, random));
+				}
+			}
+		}
+
+		List<ShiftAssignment> assignments = new ArrayList<>();
+		long shiftId = 1;
+		long assignmentId = 1;
+		for (int dayIndex = 0; dayIndex < weekCount * 7; dayIndex++) {
+			LocalDate date = START_DATE.plusDays(dayIndex);
+			int absoluteWeek = dayIndex / 7 + 1;
+			for (ShiftTemplate template : templates) {
+				if (template.getDayOfWeek() != date.getDayOfWeek()) {
+					continue;
+				}
+				Shift shift = new Shift(date, template, absoluteWeek);
+				shift.setId(shiftId++);
+				for (int slot = 0; slot < template.getEmpCount(); slot++) {
+					ShiftAssignment sa = new ShiftAssignment(shift);
+					sa.setId(assignmentId++);
+					if (random.nextDouble() < INITIALLY_ASSIGNED_RATIO) {
+						sa.setEmployee(employees.get(random.nextInt(employees.size())));
+					}
+					assignments.add(sa);
+				}
+			}
+		}
+
+		Rota rota = new Rota(employees, assignments);
+		rota.setId(seed);
+		rota.setPlanningId(seed);
+		return rota;
+	}
+
+	private static Employee buildEmployee(int id, List<String> locations, Random random) {
+		Employee emp = new Employee();
+		emp.setId(id);
+		emp.setFirstName("First" + id);
+		emp.setLastName("Last" + id);
+		emp.setGender(random.nextBoolean() ? Gender.MALE : Gender.FEMALE);
+		emp.setContractType(random.nextInt(5) == 0 ? ContractType.ZERO_HOURS : ContractType.PERMANENT);
+		emp.setMinHrs(BigDecimal.valueOf(emp.getContractType() == ContractType.ZERO_HOURS ? 0 : 20 + random.nextInt(11)));
+		emp.setMaxHrs(BigDecimal.valueOf(40 + random.nextInt(9)));
+		emp.setPreferredRegion("BENCHMARK");
+		emp.setActive(true);
+
+		String primary = locations.get(random.nextInt(locations.size()));
+		String secondary = locations.get(random.nextInt(locations.size()));
+		emp.setPreferredService(primary.equals(secondary) ? List.of(primary + ":100")
+				: List.of(primary + ":70", secondary + ":30"));
+		if (random.nextInt(10) == 0) {
+			emp.setRestrictedService(List.of(locations.get(random.nextInt(locations.size()))));
+		}
+
+		DayOfWeek[] days = DayOfWeek.values();
+		emp.setPreferredDays(List.of(days[random.nextInt(7)], days[random.nextInt(7)]));
+		if (random.nextInt(4) == 0) {
+			emp.setRestrictedDays(List.of(days[random.nextInt(7)]));
+		}
+
+		ShiftType[] shiftTypes = { ShiftType.DAY, ShiftType.LONG_DAY, ShiftType.WAKING_NIGHT, ShiftType.FLOATING };
+		emp.setPreferredShifts(List.of(shiftTypes[random.nextInt(shiftTypes.length)]));
+		if (random.nextInt(5) == 0) {
+			emp.setRestrictedShifts(List.of(ShiftType.WAKING_NIGHT));
+		}
+
+		emp.setDaysOn(20);
+		emp.setDaysOff(8);
+		if (random.nextInt(3) == 0) {
+			emp.setWeekOn(1 + random.nextInt(2));
+			emp.setWeekOff(1);
+			emp.setInvertPattern(random.nextBoolean());
+		}
+		return emp;
+	}
+
+	private static ShiftTemplate buildTemplate(int id, String location, DayOfWeek day, ShiftType shiftType,
+			LocalTime start, LocalTime end, int priority, Random random) {
+		Gender gender = random.nextInt(10) == 0 ? (random.nextBoolean() ? Gender.MALE : Gender.FEMALE) : Gender.ANY;
+		ShiftTemplate template = new ShiftTemplate(location, "BENCHMARK", day, start, end, gender, List.of(), 1,
+				priority);
+		template.setId(id);
+		template.setShiftType(shiftType);
+		if (shiftType == ShiftType.LONG_DAY) {
+			template.setBreakStart(LocalTime.of(13, 0));
+			template.setBreakEnd(LocalTime.of(13, 30));
+		}
+		return template;
+	}
+}
@@ -0,0 +1,16 @@
+package com.midco.rota;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.midco.rota.service.SolverMetrics;
+
+@Configuration
+public class MetricsConfig {
+
+	// ✅ Picked up by the actuator before the registry hands out meters, so solver meters get a region tag
+	@Bean
+	public SolverMetrics.RegionTagFilter solverRegionTagFilter() {
+		return new SolverMetrics.RegionTagFilter();
+	}
+}
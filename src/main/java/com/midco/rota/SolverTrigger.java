@@ -1,17 +1,25 @@
 package com.midco.rota;
 
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.optaplanner.core.api.solver.SolverStatus;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
@@ -19,15 +27,23 @@ import com.midco.rota.model.DeferredSolveRequest;
 import com.midco.rota.model.Employee;
 import com.midco.rota.model.PinnedTemplateAssignment;
 import com.midco.rota.model.Rota;
+import com.midco.rota.model.ScheduleVersion;
 import com.midco.rota.model.Shift;
 import com.midco.rota.model.ShiftAssignment;
+import com.midco.rota.model.ShiftAssignmentVersion;
 import com.midco.rota.model.ShiftTemplate;
 import com.midco.rota.repository.DeferredSolveRequestRepository;
 import com.midco.rota.repository.EmployeeRepository;
 import com.midco.rota.repository.PinnedTemplateAssignmentRepository;
+import com.midco.rota.repository.ScheduleVersionRepository;
+import com.midco.rota.repository.ShiftAssignmentRepository;
+import com.midco.rota.repository.ShiftRepository;
 import com.midco.rota.repository.ShiftTemplateRepository;
 import com.midco.rota.service.PeriodService;
+import com.midco.rota.service.ScheduleVersionStore;
+import com.midco.rota.service.SolverMetrics;
 import com.midco.rota.service.SolverService;
+import com.midco.rota.util.AvailabilityIndex;
 import com.midco.rota.util.ShiftType;
 
 @Component
@@ -42,34 +58,126 @@ public class SolverTrigger {
 	private final ShiftTemplateRepository shiftTemplateRepository;
 	private final PeriodService periodService;
 	private final PinnedTemplateAssignmentRepository pinnedTemplateAssignmentRepository;
+	private final AsyncTaskExecutor taskExecutor;
+	private final ScheduleVersionRepository scheduleVersionRepository;
+	private final ScheduleVersionStore scheduleVersionStore;
+	private final ShiftRepository shiftRepository;
+	private final ShiftAssignmentRepository shiftAssignmentRepository;
+	private final SolverMetrics solverMetrics;
+
+	// Request ids with a solve in flight on this instance
+	private final Set<Long> runningRequestIds = ConcurrentHashMap.newKeySet();
+
+	// 0 = derive from available cores
+	@Value("${rota.solver.max-concurrent-solves:0}")
+	private int maxConcurrentSolves;
+
+	// Seed from the previous period's rota instead of solving from empty
+	@Value("${rota.solver.warm-start:false}")
+	private boolean warmStart;
 
 	public SolverTrigger(SolverService solverService, DeferredSolveRequestRepository deferredSolveRequestRepository,
 			EmployeeRepository employeeRepository, ShiftTemplateRepository shiftTemplateRepository,
-			PeriodService periodService, PinnedTemplateAssignmentRepository pinnedTemplateAssignmentRepository) {
+			PeriodService periodService, PinnedTemplateAssignmentRepository pinnedTemplateAssignmentRepository,
+			@Qualifier("applicationTaskExecutor") AsyncTaskExecutor taskExecutor,
+			ScheduleVersionRepository scheduleVersionRepository,
+			ScheduleVersionStore scheduleVersionStore, ShiftRepository shiftRepository,
+			ShiftAssignmentRepository shiftAssignmentRepository, SolverMetrics solverMetrics) {
 		this.solverService = solverService;
 		this.deferredSolveRequestRepository = deferredSolveRequestRepository;
 		this.employeeRepository = employeeRepository;
 		this.shiftTemplateRepository = shiftTemplateRepository;
 		this.periodService = periodService;
 		this.pinnedTemplateAssignmentRepository = pinnedTemplateAssignmentRepository;
+		this.taskExecutor = taskExecutor;
+		this.scheduleVersionRepository = scheduleVersionRepository;
+		this.scheduleVersionStore = scheduleVersionStore;
+		this.shiftRepository = shiftRepository;
+		this.shiftAssignmentRepository = shiftAssignmentRepository;
+		this.solverMetrics = solverMetrics;
 	}
 
+	// ✅ Fallback poll only - enqueue/reenqueue call wakeUp() so requests start straight away
 	@Scheduled(cron = "0 */2 * * * *") // Every 2 Mins
 
 	public void triggerSolver() {
-		deferredSolveRequestRepository.findFirstByCompletedFalse().ifPresentOrElse(deferredSolveRequest -> {
-			if (solverService.getSolverStatus(deferredSolveRequest.getId()) == SolverStatus.NOT_SOLVING) {
+		dispatch();
+	}
+
+	/**
+	 * Schedule a dispatch off the caller's thread (HTTP request or solver
+	 * thread), so loading the problem never delays the response.
+	 */
+	public void wakeUp() {
+		taskExecutor.execute(this::dispatch);
+	}
+
+	/**
+	 * Start pending requests, earliest period first, until
+	 * {@link #getMaxConcurrentSolves()} are running. Requests already running
+	 * are skipped. Each finished solve frees its slot and dispatches again.
+	 */
+	public synchronized void dispatch() {
+		List<DeferredSolveRequest> pending = deferredSolveRequestRepository
+				.findByCompletedFalseOrderByStartDateAscCreatedAtAsc();
+		solverMetrics.pendingRequests(pending);
+		if (pending.isEmpty()) {
+			logger.info("No solver request available to process");
+			return;
+		}
+
+		int maxConcurrentSolves = getMaxConcurrentSolves();
+		for (DeferredSolveRequest deferredSolveRequest : pending) {
+			if (runningRequestIds.size() >= maxConcurrentSolves) {
+				logger.info("{} solves running (max {}), {} request(s) waiting", runningRequestIds.size(),
+						maxConcurrentSolves, pending.size() - runningRequestIds.size());
+				return;
+			}
 
+			Long requestId = deferredSolveRequest.getId();
+			if (runningRequestIds.contains(requestId)
+					|| solverService.getSolverStatus(requestId) != SolverStatus.NOT_SOLVING) {
+				continue;
+			}
+
+			runningRequestIds.add(requestId);
+			try {
 				Rota problem = loadData(deferredSolveRequest);
-				problem.setPlanningId(deferredSolveRequest.getId());
-				logger.info("triggerSolver=== ");
-				solverService.solveAsync(problem, deferredSolveRequest.getId(), deferredSolveRequest);
-			} else {
-				logger.info("Solving in progress for reqeust " + deferredSolveRequest.getId());
+				problem.setPlanningId(requestId);
+				logger.info("triggerSolver=== request {} ({} {} - {})", requestId, deferredSolveRequest.getRegion(),
+						deferredSolveRequest.getStartDate(), deferredSolveRequest.getEndDate());
+				solverService.solveAsync(problem, requestId, deferredSolveRequest, succeeded -> {
+					runningRequestIds.remove(requestId);
+					// A failed request stays pending; leave the retry to the cron poll instead of spinning on it
+					if (succeeded) {
+						wakeUp();
+					}
+				});
+			} catch (RuntimeException e) {
+				runningRequestIds.remove(requestId);
+				logger.error("Failed to start solve for request {}", requestId, e);
 			}
-		}, () -> {
-			logger.info("No solver request available to process");
-		});
+		}
+	}
+
+	/**
+	 * Configured cap, or when unset: cores / threads used per solve. A solve
+	 * uses one solver thread plus moveThreadCount=AUTO move threads, which
+	 * OptaPlanner resolves to min(cores - 2, 4), or none when that is 1 or
+	 * less.
+	 */
+	public int getMaxConcurrentSolves() {
+		if (maxConcurrentSolves > 0) {
+			return maxConcurrentSolves;
+		}
+		int cores = Runtime.getRuntime().availableProcessors();
+		int moveThreads = Math.min(cores - 2, 4);
+		int threadsPerSolve = 1 + (moveThreads > 1 ? moveThreads : 0);
+		return Math.max(1, cores / threadsPerSolve);
+	}
+
+	public Set<Long> getRunningRequestIds() {
+		return Set.copyOf(runningRequestIds);
 	}
 
 	public Rota loadData(DeferredSolveRequest deferredSolveRequest) {
@@ -83,11 +191,119 @@ public class SolverTrigger {
 				deferredSolveRequest.getEndDate(), shiftTemplates);
 
 		applyTemplateBasedPinning(shiftAssignments, employees);
+		AvailabilityIndex availabilityIndex = AvailabilityIndex.build(employees, shiftAssignments, periodService);
+		if (warmStart) {
+			applyWarmStart(deferredSolveRequest, shiftAssignments, employees, availabilityIndex);
+		}
 		Rota problem = new Rota(employees, shiftAssignments);
+		problem.setAvailabilityIndex(availabilityIndex);
 
 		return problem;
 	}
 
+	/**
+	 * Seed employee values from the previous period's published rota for the
+	 * same region (current ScheduleVersion, else the solved rota itself),
+	 * matched by shift template and day offset from the period start.
+	 *
+	 * Seeded assignments are left unpinned: construction heuristics only fill
+	 * the ones still null and local search refines the rest. Seeds that are
+	 * plainly invalid now (employee gone/inactive, restricted, pattern says
+	 * unavailable, already working that day) are not applied.
+	 */
+	private void applyWarmStart(DeferredSolveRequest deferredSolveRequest, List<ShiftAssignment> shiftAssignments,
+			List<Employee> employees, AvailabilityIndex availabilityIndex) {
+		Optional<DeferredSolveRequest> previousOpt = deferredSolveRequestRepository
+				.findFirstByRegionAndCompletedTrueAndRotaIdNotNullAndStartDateBeforeOrderByStartDateDesc(
+						deferredSolveRequest.getRegion(), deferredSolveRequest.getStartDate());
+		if (previousOpt.isEmpty()) {
+			logger.info("Warm start: no previous rota for region {}", deferredSolveRequest.getRegion());
+			return;
+		}
+		DeferredSolveRequest previous = previousOpt.get();
+		LocalDate previousStart = previous.getStartDate();
+
+		// "templateId:dayOffset" -> employee ids, one per filled slot
+		Map<String, Deque<Integer>> previousEmployees = new HashMap<>();
+		Optional<ScheduleVersion> currentVersion = scheduleVersionRepository
+				.findCurrentVersionByRotaId(previous.getRotaId());
+		if (currentVersion.isPresent()) {
+			List<ShiftAssignmentVersion> versionAssignments = scheduleVersionStore
+					.loadAssignments(currentVersion.get());
+			Map<Long, Shift> shiftsById = new HashMap<>();
+			for (Shift shift : shiftRepository.findAllById(
+					versionAssignments.stream().map(ShiftAssignmentVersion::getShiftId).distinct().toList())) {
+				shiftsById.put(shift.getId(), shift);
+			}
+			for (ShiftAssignmentVersion sav : versionAssignments) {
+				Shift shift = shiftsById.get(sav.getShiftId());
+				if (shift != null && sav.getEmployeeId() != null) {
+					previousEmployees.computeIfAbsent(seedKey(shift, previousStart), k -> new ArrayDeque<>())
+							.add(sav.getEmployeeId());
+				}
+			}
+		} else {
+			for (ShiftAssignment sa : shiftAssignmentRepository.findByRotaId(previous.getRotaId())) {
+				if (sa.getShift() != null && sa.getEmployee() != null) {
+					previousEmployees.computeIfAbsent(seedKey(sa.getShift(), previousStart), k -> new ArrayDeque<>())
+							.add(sa.getEmployee().getId());
+				}
+			}
+		}
+
+		Map<Integer, Employee> employeeMap = new HashMap<>();
+		for (Employee emp : employees) {
+			employeeMap.put(emp.getId(), emp);
+		}
+
+		// Employee-days already taken, pins included
+		Set<String> employeeDays = new HashSet<>();
+		for (ShiftAssignment sa : shiftAssignments) {
+			if (sa.getEmployee() != null) {
+				employeeDays.add(sa.getEmployee().getId() + "-" + sa.getShift().getShiftStart());
+			}
+		}
+
+		int seeded = 0;
+		int rejected = 0;
+		for (ShiftAssignment sa : shiftAssignments) {
+			Shift shift = sa.getShift();
+			ShiftTemplate template = shift.getShiftTemplate();
+			if (sa.getEmployee() != null || sa.isPinned() || template.getShiftType() == ShiftType.SLEEP_IN) {
+				continue;
+			}
+			Deque<Integer> candidates = previousEmployees
+					.get(seedKey(shift, deferredSolveRequest.getStartDate()));
+			if (candidates == null || candidates.isEmpty()) {
+				continue;
+			}
+
+			Employee employee = employeeMap.get(candidates.poll());
+			if (employee == null || !employee.isActive() || !availabilityIndex.isAvailable(employee, shift)
+					|| contains(employee.getRestrictedService(), template.getLocation())
+					|| contains(employee.getRestrictedDays(), shift.getShiftStart().getDayOfWeek())
+					|| contains(employee.getRestrictedShifts(), template.getShiftType())
+					|| !employeeDays.add(employee.getId() + "-" + shift.getShiftStart())) {
+				rejected++;
+				continue;
+			}
+			sa.setEmployee(employee);
+			seeded++;
+		}
+
+		logger.info("Warm start from request {} (rota {}, {}): seeded {} of {} assignments, {} seeds rejected",
+				previous.getId(), previous.getRotaId(), currentVersion.isPresent() ? "current version" : "solved rota",
+				seeded, shiftAssignments.size(), rejected);
+	}
+
+	private static String seedKey(Shift shift, LocalDate periodStart) {
+		return shift.getShiftTemplate().getId() + ":" + ChronoUnit.DAYS.between(periodStart, shift.getShiftStart());
+	}
+
+	private static <T> boolean contains(List<T> list, T value) {
+		return list != null && list.contains(value);
+	}
+
 	private List<ShiftAssignment> generateShiftInstances(LocalDate startDate, LocalDate endDate,
 			List<ShiftTemplate> templates) {
 
@@ -100,7 +316,10 @@ public class SolverTrigger {
 			LocalDate current = startDate;
 			while (!current.isAfter(endDate)) {
 				if (current.getDayOfWeek().equals(template.getDayOfWeek())) {
-					instances.add(new Shift(current, template, periodService.getAbsoluteWeekNumber(current)));
+					Shift shift = new Shift(current, template, periodService.getAbsoluteWeekNumber(current));
+					// ✅ Epoch day, year-week, location index etc. for the constraint streams
+					shift.precomputeSolverFacts();
+					instances.add(shift);
 
 				}
 				current = current.plusDays(1);
@@ -21,6 +21,7 @@ import com.midco.rota.model.RotaCorrection;
 import com.midco.rota.service.CorrectionExtractorService;
 import com.midco.rota.service.LearningApplicationService;
 import com.midco.rota.service.LearningOrchestrator;
+import com.midco.rota.service.PatternAnalyzer;
 
 /**
  * REST API for managing the learning system
@@ -38,6 +39,9 @@ public class LearningController {
     @Autowired
     private LearningApplicationService learningApplication;
     
+    @Autowired
+    private PatternAnalyzer patternAnalyzer;
+    
     /**
      * Run the complete monthly learning cycle
      * POST /api/learning/cycle
@@ -116,6 +120,21 @@ public class LearningController {
         }
     }
     
+    /**
+     * Learnings the corrections since the last analysis currently support (not saved)
+     * GET /api/learning/current
+     */
+    @GetMapping("/current")
+    public ResponseEntity<List<Learning>> getCurrentLearnings() {
+        try {
+            List<Learning> current = patternAnalyzer.currentLearnings();
+            return ResponseEntity.ok(current);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
+        }
+    }
+    
     /**
      * Get all pending learnings
      * GET /api/learning/pending
@@ -1,8 +1,11 @@
 package com.midco.rota.controller;
 
 import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.io.OutputStreamWriter;
 import java.nio.charset.StandardCharsets;
+import java.security.Principal;
 import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -25,6 +28,8 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.messaging.simp.user.SimpUser;
 import org.springframework.messaging.simp.user.SimpUserRegistry;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -40,6 +45,7 @@ import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.midco.rota.RateTableProvider;
+import com.midco.rota.SolverTrigger;
 import com.midco.rota.dto.ScheduleResponseDTO;
 import com.midco.rota.model.DeferredSolveRequest;
 import com.midco.rota.model.Employee;
@@ -51,16 +57,22 @@ import com.midco.rota.model.ShiftTemplate;
 import com.midco.rota.repository.DeferredSolveRequestRepository;
 import com.midco.rota.repository.EmployeeRepository;
 import com.midco.rota.repository.RotaCorrectionRepository;
+import com.midco.rota.repository.RotaJdbcRepository;
 import com.midco.rota.repository.RotaRepository;
 import com.midco.rota.repository.ShiftAssignmentRepository;
 import com.midco.rota.repository.ShiftRepository;
 import com.midco.rota.repository.ShiftTemplateRepository;
 import com.midco.rota.service.ConstraintExplanationService;
 import com.midco.rota.service.PayCycleDataService;
+import com.midco.rota.service.PatternAnalyzer;
 import com.midco.rota.service.PeriodService;
 import com.midco.rota.service.RosterAnalysisService;
 import com.midco.rota.service.RosterUpdateService;
+import com.midco.rota.service.RotaStatsCubeService;
+import com.midco.rota.service.SolveProgressPublisher;
+import com.midco.rota.util.AvailabilityIndex;
 import com.midco.rota.util.PayCycleRow;
+import com.midco.rota.util.RotaDataset;
 
 @RestController
 @RequestMapping("/api")
@@ -87,6 +99,16 @@ public class RotaController {
 	// private final ExecutorService securityExecutorService;
 	@Autowired
 	private SimpUserRegistry simpUserRegistry;
+	@Autowired
+	private SolverTrigger solverTrigger;
+	@Autowired
+	private SolveProgressPublisher progressPublisher;
+	@Autowired
+	private RotaStatsCubeService rotaStatsCubeService;
+	@Autowired
+	private RotaJdbcRepository rotaJdbcRepository;
+	@Autowired
+	private PatternAnalyzer patternAnalyzer;
 
 	public RotaController(SolverManager<Rota, Long> solverManager, RosterUpdateService updateService,
 			ConstraintExplanationService explanationService, RosterAnalysisService rosterAnalysisService,
@@ -171,6 +193,7 @@ public class RotaController {
 
 		request = deferredSolveRequestRepository.save(request);
 		System.out.println("============================= " + request.toString() + " : Saved  ");
+		solverTrigger.wakeUp();
 		return ResponseEntity.ok(request);
 	}
 
@@ -201,6 +224,8 @@ public class RotaController {
 			return ResponseEntity.badRequest().body("Duration is over a month.");
 		}
 		request = deferredSolveRequestRepository.save(request);
+		// ✅ Start solving now rather than on the next 2 min poll
+		solverTrigger.wakeUp();
 
 		return ResponseEntity.ok(request);
 	}
@@ -213,17 +238,41 @@ public class RotaController {
 
 	}
 
+	/**
+	 * Anonymised solver problem of a solve request, for offline solver
+	 * benchmarks GET /api/benchmark/dataset/{requestId}
+	 *
+	 * Assembled as the solver would now (loadData): current employees,
+	 * templates and pins of the request's region over its dates.
+	 */
+	@GetMapping("/benchmark/dataset/{requestId}")
+	@PreAuthorize("isAuthenticated()")
+	public ResponseEntity<StreamingResponseBody> downloadBenchmarkDataset(@PathVariable Long requestId) {
+		Optional<DeferredSolveRequest> request = deferredSolveRequestRepository.findById(requestId);
+		if (request.isEmpty()) {
+			return ResponseEntity.notFound().build();
+		}
+
+		DeferredSolveRequest dsr = request.get();
+		String name = "request_" + requestId;
+		RotaDataset dataset = RotaDataset.record(name, dsr.getStartDate(), dsr.getEndDate(),
+				solverTrigger.loadData(dsr));
+
+		return ResponseEntity.ok()
+				.header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + name + ".json\"")
+				.contentType(MediaType.APPLICATION_JSON).body(dataset::write);
+	}
+
 	@GetMapping("/download/schedule")
 	@Transactional(readOnly = true)
 	@PreAuthorize("isAuthenticated()")
 	public ResponseEntity<StreamingResponseBody> getRotaForCSV(@RequestParam String id) {
-		Optional<Rota> rota = rotaRepository.findById(Long.valueOf(id));
-
-		if (rota.isEmpty()) {
+		Long rotaId = Long.valueOf(id);
+		if (!rotaRepository.existsById(rotaId)) {
 			return ResponseEntity.notFound().build();
 		}
 
-		DeferredSolveRequest dsr = deferredSolveRequestRepository.findByRotaId(rota.get().getId());
+		DeferredSolveRequest dsr = deferredSolveRequestRepository.findByRotaId(rotaId);
 
 		// ✅ Build filename with null checks
 		String outputFileName;
@@ -239,16 +288,14 @@ public class RotaController {
 
 		System.out.println("Generated filename: " + outputFileName);
 
-		List<ShiftAssignment> saList = rota.get().getShiftAssignmentList();
-		System.out.println("Data rows count: " + saList.size());
-
 		DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy/MM/dd HH:mm");
 
+		// ✅ Rows are read from a DB cursor and written as they arrive, the Rota graph is never loaded
 		StreamingResponseBody stream = out -> {
 			try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8))) {
 				writer.write("Location,Shift Type,Start Date,End Date,Duration,First Name,Last Name\n");
 
-				for (ShiftAssignment sa : saList) {
+				rotaJdbcRepository.streamAssignmentsByDate(rotaId, day -> day.forEach(sa -> {
 
 					String firstName = Optional.ofNullable(sa.getEmployee()).map(Employee::getFirstName)
 							.filter(s -> !s.isBlank()).orElse("UnAssigned");
@@ -263,12 +310,16 @@ public class RotaController {
 
 					Duration duration = Duration.between(shiftStart, shiftEnd);
 
-					writer.write(String.join(",", escapeCsv(sa.getShift().getShiftTemplate().getLocation()),
-							escapeCsv(sa.getShift().getShiftTemplate().getShiftType().name()),
-							escapeCsv(shiftStart.format(formatter)), escapeCsv(shiftEnd.format(formatter)),
-							escapeCsv(String.valueOf(duration.toMinutes() / 60.0)), escapeCsv(firstName),
-							escapeCsv(lastName)) + "\n");
-				}
+					try {
+						writer.write(String.join(",", escapeCsv(sa.getShift().getShiftTemplate().getLocation()),
+								escapeCsv(sa.getShift().getShiftTemplate().getShiftType().name()),
+								escapeCsv(shiftStart.format(formatter)), escapeCsv(shiftEnd.format(formatter)),
+								escapeCsv(String.valueOf(duration.toMinutes() / 60.0)), escapeCsv(firstName),
+								escapeCsv(lastName)) + "\n");
+					} catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				}));
 
 				writer.flush();
 				System.out.println("Streaming finished successfully");
@@ -312,6 +363,18 @@ public class RotaController {
 		return "Solving started asynchronously.";
 	}
 
+	/**
+	 * Client detected a sequence gap on /user/queue/rotaUpdate. Payload:
+	 * {"requestId": 123}; the next message for it is a full SNAPSHOT.
+	 */
+	@MessageMapping("/rotaUpdate/resync")
+	public void resyncRotaUpdates(@Payload Map<String, Object> payload, Principal principal) {
+		if (principal == null || payload.get("requestId") == null) {
+			return;
+		}
+		progressPublisher.resync(Long.valueOf(payload.get("requestId").toString()), principal.getName());
+	}
+
 	@PostMapping("/updateMsgTest")
 	public ResponseEntity<String> updateMsgTest(@RequestBody String rawJson, Authentication authentication) {
 		updateService.pushUpdate("/queue/req-update", rawJson, authentication.getName());
@@ -370,6 +433,8 @@ public class RotaController {
 				}
 				existingAssignment.setEmployee(null);
 				modifiedAssignments.add(existingAssignment);
+				rotaStatsCubeService.assignmentChanged(rotaId, existingAssignment.getShift().getId(),
+						originalEmployee != null ? originalEmployee.getId() : null, null);
 				updatedCount++;
 				continue;
 			}
@@ -381,6 +446,11 @@ public class RotaController {
 
 			boolean hasChanged = originalEmployee == null || !originalEmployee.getId().equals(newEmployee.getId());
 
+			if (isFirstSave || hasChanged) {
+				rotaStatsCubeService.assignmentChanged(rotaId, existingAssignment.getShift().getId(),
+						originalEmployee != null ? originalEmployee.getId() : null, newEmployee.getId());
+			}
+
 			if (isFirstSave) {
 				correctionData.put(existingAssignment, new CorrectionInfo(null, newEmployee, "Auto"));
 				existingAssignment.setEmployee(newEmployee);
@@ -416,6 +486,7 @@ public class RotaController {
 			System.out.println("Saving " + corrections.size() + " corrections...");
 			rotaCorrectionRepository.saveAll(corrections);
 			rotaCorrectionRepository.flush();
+			patternAnalyzer.recordCorrections(corrections);
 			System.out.println("✅ Corrections saved and flushed");
 		}
 
@@ -480,6 +551,7 @@ public class RotaController {
 //		System.out.println("shiftAssignments - " + shiftAssignments.size());
 		Long id = idGenerator.incrementAndGet();
 		Rota solution = new Rota(employees, shiftAssignments);
+		solution.setAvailabilityIndex(AvailabilityIndex.build(employees, shiftAssignments, periodService));
 
 		return solution;
 
@@ -1,6 +1,7 @@
 package com.midco.rota.controller;
 
-
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -14,11 +15,16 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.midco.rota.dto.ConstraintProfileDTO;
+import com.midco.rota.dto.RepairResultDTO;
 import com.midco.rota.dto.RollbackRequest;
 import com.midco.rota.dto.SaveScheduleRequest;
+import com.midco.rota.dto.ShiftAssignmentChangeDTO;
 import com.midco.rota.dto.VersionComparisonDTO;
 import com.midco.rota.dto.VersionDetailDTO;
 import com.midco.rota.dto.VersionHistoryDTO;
+import com.midco.rota.service.ConstraintProfileService;
+import com.midco.rota.service.RotaRepairService;
 import com.midco.rota.service.ScheduleVersionService;
 
 
@@ -33,6 +39,12 @@ public class ScheduleVersionController {
 	@Autowired
 	private  ScheduleVersionService versionService;
 
+	@Autowired
+	private RotaRepairService repairService;
+
+	@Autowired
+	private ConstraintProfileService constraintProfileService;
+
 	/**
 	 * Get version history for a rota GET /api/schedules/{rotaId}/versions
 	 */
@@ -116,15 +128,16 @@ public class ScheduleVersionController {
 
 	/**
 	 * Compare two versions GET
-	 * /api/schedules/{rotaId}/versions/compare?versionA=X&versionB=Y
+	 * /api/schedules/{rotaId}/versions/compare?versionA=X&versionB=Y[&page=0&size=500]
 	 */
 	@GetMapping("/{rotaId}/versions/compare")
 
 	public ResponseEntity<VersionComparisonDTO> compareVersions(@PathVariable Long rotaId, @RequestParam Long versionA,
-			@RequestParam Long versionB) {
+			@RequestParam Long versionB, @RequestParam(defaultValue = "0") int page,
+			@RequestParam(required = false) Integer size) {
 
 		try {
-			VersionComparisonDTO comparison = versionService.compareVersions(versionA, versionB);
+			VersionComparisonDTO comparison = versionService.compareVersions(versionA, versionB, page, size);
 			return ResponseEntity.ok(comparison);
 		} catch (Exception e) {
 
@@ -160,4 +173,53 @@ public class ScheduleVersionController {
 			return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
 		}
 	}
+
+	/**
+	 * Repair knock-on violations around manual edits POST
+	 * /api/schedules/{rotaId}/repair
+	 *
+	 * Body: the edits just made (same shape as SaveScheduleRequest changes).
+	 * Returns the proposed extra changes; nothing is saved.
+	 */
+	@PostMapping("/{rotaId}/repair")
+
+	public ResponseEntity<RepairResultDTO> repair(@PathVariable Long rotaId,
+			@RequestBody List<ShiftAssignmentChangeDTO> edits) {
+
+		if (edits == null || edits.isEmpty()) {
+			return ResponseEntity.badRequest().build();
+		}
+
+		try {
+			RepairResultDTO result = repairService.repair(rotaId, edits);
+			return ResponseEntity.ok(result);
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.notFound().build();
+		} catch (Exception e) {
+			e.printStackTrace();
+			return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+		}
+	}
+
+	/**
+	 * Per-constraint match counts, score impact and evaluation time of the
+	 * stored rota GET /api/schedules/{rotaId}/constraint-profile?timing=true
+	 *
+	 * Re-scores with constraint matching on, on the profiler's own thread;
+	 * timing=false skips the per-constraint timing runs.
+	 */
+	@GetMapping("/{rotaId}/constraint-profile")
+
+	public CompletableFuture<ResponseEntity<ConstraintProfileDTO>> profileConstraints(@PathVariable Long rotaId,
+			@RequestParam(defaultValue = "true") boolean timing) {
+
+		return constraintProfileService.profileAsync(rotaId, timing).thenApply(ResponseEntity::ok)
+				.exceptionally(e -> {
+					if (e.getCause() instanceof IllegalArgumentException) {
+						return ResponseEntity.notFound().build();
+					}
+					e.printStackTrace();
+					return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+				});
+	}
 }
@@ -10,6 +10,9 @@ import java.time.format.DateTimeFormatter;
 import java.time.format.FormatStyle;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -47,15 +50,18 @@ import com.midco.rota.model.DeferredSolveRequest;
 import com.midco.rota.model.Employee;
 import com.midco.rota.model.EmployeeShiftStatDTO;
 import com.midco.rota.model.PaycycleStatsDTO;
-import com.midco.rota.model.Rota;
 import com.midco.rota.model.ServiceStatsDTO;
+import com.midco.rota.model.Shift;
 import com.midco.rota.model.ShiftAssignment;
 import com.midco.rota.model.ShiftSummaryDTO;
 import com.midco.rota.model.ShiftTypeStatsDTO;
 import com.midco.rota.model.WeekStatsDTO;
 import com.midco.rota.model.WeeklyShiftStatDTO;
-import com.midco.rota.repository.RotaRepository;
+import com.midco.rota.repository.EmployeeRepository;
+import com.midco.rota.repository.RotaJdbcRepository;
 import com.midco.rota.service.PaycycleStatsService;
+import com.midco.rota.service.PeriodService;
+import com.midco.rota.util.AvailabilityIndex;
 import com.midco.rota.util.RateCode;
 import com.midco.rota.util.ShiftType;
 
@@ -73,15 +79,19 @@ public class StatsController {
 	
 	@Autowired
 	private final PaycycleStatsService statsService;
-	private final RotaRepository rotaRepository;
+	private final RotaJdbcRepository rotaJdbcRepository;
+	private final EmployeeRepository employeeRepository;
+	private final PeriodService periodService;
 
 	private DateTimeFormatter dateFormat = DateTimeFormatter.ofLocalizedDate(FormatStyle.SHORT).withLocale(Locale.UK);
 
 	public StatsController(PaycycleStatsService statsService, RateTableProvider rateTableProvider,
-			RotaRepository rotaRepository) {
+			RotaJdbcRepository rotaJdbcRepository, EmployeeRepository employeeRepository, PeriodService periodService) {
 		this.statsService = statsService;
 		this.rateTableProvider = rateTableProvider;
-		this.rotaRepository = rotaRepository;
+		this.rotaJdbcRepository = rotaJdbcRepository;
+		this.employeeRepository = employeeRepository;
+		this.periodService = periodService;
 	}
 
 	@GetMapping("/serviceStats")
@@ -148,18 +158,15 @@ public class StatsController {
 	}
 
 	private void createSheetAllocation(SXSSFWorkbook workbook, String sheetName, Long id) {
-		Optional<Rota> rota = rotaRepository.findById(Long.valueOf(id));
-
-		if (rota.isEmpty()) {
-			return;
-		}
-		List<ShiftAssignment> saList = rota.get().getShiftAssignmentList();
-		List<Employee> allEmployees = rota.get().getEmployeeList();
+		// ✅ Employees only (region sized); assignments are streamed from a DB cursor one date at a time
+		List<Employee> allEmployees = employeeRepository.findAllById(rotaJdbcRepository.findEmployeeIds(id));
+		List<Employee> employeesByName = allEmployees.stream()
+				.sorted(Comparator.comparing(emp -> emp.getFirstName() + " " + emp.getLastName())).toList();
 		Sheet sheet = workbook.createSheet(sheetName);
-		int rowIdx = 0;
+		int[] rowIdx = { 0 };
 
 		// Header row
-		Row header = sheet.createRow(rowIdx++);
+		Row header = sheet.createRow(rowIdx[0]++);
 		String[] headers = { "Week", "Location", "Shift Type", "Day", "Shift Start", "Shift End", "Hours", "First Name",
 				"Last Name", "Available Employees" };
 
@@ -172,43 +179,49 @@ public class StatsController {
 		}
 
 		DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm");
-		for (ShiftAssignment sa : saList) {
-
-			Row row = sheet.createRow(rowIdx++);
-			int col = 0;
-
-			String firstName = Optional.ofNullable(sa.getEmployee()).map(Employee::getFirstName)
-					.filter(s -> !s.isBlank()).orElse("UnAssigned");
-
-			String lastName = Optional.ofNullable(sa.getEmployee()).map(Employee::getLastName).filter(s -> !s.isBlank())
-					.orElse("");
-
-			LocalDateTime shiftStart = LocalDateTime.of(sa.getShift().getShiftStart(),
-					sa.getShift().getShiftTemplate().getStartTime());
-
-			LocalDateTime shiftEnd = LocalDateTime.of(sa.getShift().getShiftEnd(),
-					sa.getShift().getShiftTemplate().getEndTime());
-
-			double hours = sa.getShift().getDurationInHours().doubleValue();// Duration.between(shiftStart, shiftEnd);
-			// double hours = duration.toMinutes() / 60.0;
-			row.createCell(col++).setCellValue(
-					"Week " + (sa.getShift().getAbsoluteWeek() % 4 == 0 ? 4 : sa.getShift().getAbsoluteWeek() % 4 ));
-			row.createCell(col++).setCellValue(sa.getShift().getShiftTemplate().getLocation());
-			row.createCell(col++).setCellValue(sa.getShift().getShiftTemplate().getShiftType().name());
-			row.createCell(col++).setCellValue(sa.getShift().getShiftTemplate().getDayOfWeek().name());
-			row.createCell(col++).setCellValue(shiftStart.format(formatter));
-			row.createCell(col++).setCellValue(shiftEnd.format(formatter));
-			row.createCell(col++).setCellValue(hours);
-			row.createCell(col++).setCellValue(firstName);
-			row.createCell(col++).setCellValue(lastName);
-			if (sa.getEmployee() == null) {
-				String availableEmployees = getAvailableEmployees(sa, allEmployees, saList); // ✅ Pass saList
-				row.createCell(col++).setCellValue(availableEmployees);
-			} else {
-				row.createCell(col++).setCellValue("");
+		rotaJdbcRepository.streamAssignmentsByDate(id, day -> {
+			// ✅ Schedule patterns, who works, and the available list per location/shift type, once per date
+			AvailabilityIndex availability = AvailabilityIndex.build(allEmployees, day, periodService);
+			Map<LocalDate, Set<Integer>> employeesWorkingByDate = employeesWorkingByDate(day);
+			Map<String, String> availableBySlot = new HashMap<>();
+
+			for (ShiftAssignment sa : day) {
+				Row row = sheet.createRow(rowIdx[0]++);
+				int col = 0;
+
+				String firstName = Optional.ofNullable(sa.getEmployee()).map(Employee::getFirstName)
+						.filter(s -> !s.isBlank()).orElse("UnAssigned");
+
+				String lastName = Optional.ofNullable(sa.getEmployee()).map(Employee::getLastName)
+						.filter(s -> !s.isBlank()).orElse("");
+
+				LocalDateTime shiftStart = LocalDateTime.of(sa.getShift().getShiftStart(),
+						sa.getShift().getShiftTemplate().getStartTime());
+
+				LocalDateTime shiftEnd = LocalDateTime.of(sa.getShift().getShiftEnd(),
+						sa.getShift().getShiftTemplate().getEndTime());
+
+				double hours = sa.getShift().getDurationInHours().doubleValue();// Duration.between(shiftStart, shiftEnd);
+				// double hours = duration.toMinutes() / 60.0;
+				row.createCell(col++).setCellValue(
+						"Week " + (sa.getShift().getAbsoluteWeek() % 4 == 0 ? 4 : sa.getShift().getAbsoluteWeek() % 4 ));
+				row.createCell(col++).setCellValue(sa.getShift().getShiftTemplate().getLocation());
+				row.createCell(col++).setCellValue(sa.getShift().getShiftTemplate().getShiftType().name());
+				row.createCell(col++).setCellValue(sa.getShift().getShiftTemplate().getDayOfWeek().name());
+				row.createCell(col++).setCellValue(shiftStart.format(formatter));
+				row.createCell(col++).setCellValue(shiftEnd.format(formatter));
+				row.createCell(col++).setCellValue(hours);
+				row.createCell(col++).setCellValue(firstName);
+				row.createCell(col++).setCellValue(lastName);
+				if (sa.getEmployee() == null) {
+					String availableEmployees = getAvailableEmployees(sa, employeesByName, employeesWorkingByDate,
+							availableBySlot, availability);
+					row.createCell(col++).setCellValue(availableEmployees);
+				} else {
+					row.createCell(col++).setCellValue("");
+				}
 			}
-
-		}
+		});
 
 		// Freeze the header row
 		sheet.createFreezePane(0, 1);
@@ -718,32 +731,48 @@ public class StatsController {
 		return RateTableProvider.getAmount(region, rateType, rateCode.name());
 	}
 
-	private String getAvailableEmployees(ShiftAssignment shiftAssignment, List<Employee> allEmployees,
-			List<ShiftAssignment> allAssignments) {
+	private Map<LocalDate, Set<Integer>> employeesWorkingByDate(List<ShiftAssignment> allAssignments) {
+		Map<LocalDate, Set<Integer>> working = new HashMap<>();
+		for (ShiftAssignment sa : allAssignments) {
+			if (sa.getEmployee() != null && sa.getShift() != null) {
+				working.computeIfAbsent(sa.getShift().getShiftStart(), k -> new HashSet<>()).add(sa.getEmployee().getId());
+			}
+		}
+		return working;
+	}
+
+	/**
+	 * Employees who can work the shift and have no shift that date, by name.
+	 * The answer only depends on date, location and shift type, so it is
+	 * computed once per such slot and reused for every unassigned row in it.
+	 */
+	private String getAvailableEmployees(ShiftAssignment shiftAssignment, List<Employee> employeesByName,
+			Map<LocalDate, Set<Integer>> employeesWorkingByDate, Map<String, String> availableBySlot,
+			AvailabilityIndex availability) {
 		if (shiftAssignment.getShift() == null) {
 			return "";
 		}
 
-		LocalDate shiftDate = shiftAssignment.getShift().getShiftStart();
-		String location = shiftAssignment.getShift().getShiftTemplate().getLocation();
-		ShiftType shiftType = shiftAssignment.getShift().getShiftTemplate().getShiftType();
+		Shift shift = shiftAssignment.getShift();
+		LocalDate shiftDate = shift.getShiftStart();
+		String slotKey = shiftDate + "|" + shift.getShiftTemplate().getLocation() + "|"
+				+ shift.getShiftTemplate().getShiftType();
 
-		// Build a set of employee IDs who are already working on this date
-		Set<Integer> employeesWorkingThisDate = allAssignments.stream().filter(sa -> sa.getEmployee() != null)
-				.filter(sa -> sa.getShift().getShiftStart().equals(shiftDate)).map(sa -> sa.getEmployee().getId())
-				.collect(Collectors.toSet());
+		return availableBySlot.computeIfAbsent(slotKey, k -> {
+			Set<Integer> employeesWorkingThisDate = employeesWorkingByDate.getOrDefault(shiftDate, Set.of());
 
-		// Filter employees who can work this shift AND have no shifts on this date
-		List<String> availableNames = allEmployees.stream()
-				.filter(emp -> emp.canWorkShift(location, shiftDate, shiftType))
-				.filter(emp -> !employeesWorkingThisDate.contains(emp.getId())) // ✅ No shifts this day
-				.map(emp -> emp.getFirstName() + " " + emp.getLastName()).sorted() // Alphabetical order
-				.collect(Collectors.toList());
+			// Filter employees who can work this shift AND have no shifts on this date
+			List<String> availableNames = employeesByName.stream()
+					.filter(emp -> !employeesWorkingThisDate.contains(emp.getId())) // ✅ No shifts this day
+					.filter(emp -> availability.isAvailable(emp, shift))
+					.map(emp -> emp.getFirstName() + " " + emp.getLastName()) // Already in alphabetical order
+					.collect(Collectors.toList());
 
-		if (availableNames.isEmpty()) {
-			return "No available employees";
-		}
+			if (availableNames.isEmpty()) {
+				return "No available employees";
+			}
 
-		return String.join(", ", availableNames);
+			return String.join(", ", availableNames);
+		});
 	}
-}
\ No newline at end of file
+}
@@ -5,12 +5,19 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import com.midco.rota.util.ParsedValueCache;
+
 import jakarta.persistence.AttributeConverter;
 import jakarta.persistence.Converter;
 
 @Converter
 public class DayOfWeekListConverter implements AttributeConverter<List<DayOfWeek>, String> {
 
+	// Immutable lists, one per distinct column value
+	private static final ParsedValueCache<String, List<DayOfWeek>> PARSED = new ParsedValueCache<>(1024,
+			joined -> Arrays.stream(joined.split(",")).map(String::trim).map(String::toUpperCase)
+					.map(DayOfWeek::valueOf).collect(Collectors.toUnmodifiableList()));
+
 	@Override
 	public String convertToDatabaseColumn(List<DayOfWeek> days) {
 		return (days != null && !days.isEmpty()) ? days.stream().map(DayOfWeek::name).collect(Collectors.joining(","))
@@ -19,7 +26,6 @@ public class DayOfWeekListConverter implements AttributeConverter<List<DayOfWeek
 
 	@Override
 	public List<DayOfWeek> convertToEntityAttribute(String joined) {
-		return (joined != null && !joined.isBlank()) ? Arrays.stream(joined.split(",")).map(String::trim)
-				.map(String::toUpperCase).map(DayOfWeek::valueOf).collect(Collectors.toList()) : List.of();
+		return (joined != null && !joined.isBlank()) ? PARSED.get(joined) : List.of();
 	}
 }
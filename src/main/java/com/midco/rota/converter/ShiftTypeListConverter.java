@@ -5,6 +5,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
+import com.midco.rota.util.ParsedValueCache;
 import com.midco.rota.util.ShiftType;
 
 import jakarta.persistence.AttributeConverter;
@@ -17,6 +18,12 @@ public class ShiftTypeListConverter implements AttributeConverter<List<ShiftType
 			ShiftType.FLOATING, "NIGHTS", ShiftType.WAKING_NIGHT, "WAKING_NIGHT", ShiftType.WAKING_NIGHT, "LONGDAY",
 			ShiftType.LONG_DAY, "LONG_DAY", ShiftType.LONG_DAY);
 
+	// Immutable lists, one per distinct column value
+	private static final ParsedValueCache<String, List<ShiftType>> PARSED = new ParsedValueCache<>(1024,
+			joined -> Arrays.stream(joined.split(",")).map(String::trim).map(String::toUpperCase)
+					.map(s -> aliasMap.containsKey(s) ? aliasMap.get(s) : ShiftType.valueOf(s))
+					.collect(Collectors.toUnmodifiableList()));
+
 	@Override
 	public String convertToDatabaseColumn(List<ShiftType> types) {
 		return (types != null && !types.isEmpty())
@@ -27,9 +34,7 @@ public class ShiftTypeListConverter implements AttributeConverter<List<ShiftType
 	@Override
 	public List<ShiftType> convertToEntityAttribute(String joined) {
 	
-		return (joined != null && !joined.isBlank()) ? Arrays.stream(joined.split(",")).map(String::trim)
-				.map(String::toUpperCase).map(s -> aliasMap.containsKey(s) ? aliasMap.get(s) : ShiftType.valueOf(s))
-				.collect(Collectors.toList()) : List.of();
+		return (joined != null && !joined.isBlank()) ? PARSED.get(joined) : List.of();
 	}
 
 }
\ No newline at end of file
@@ -6,9 +6,17 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import com.midco.rota.util.ParsedValueCache;
+
 @Converter
 public class StringListConverter implements AttributeConverter<List<String>, String> {
 
+    // Immutable lists, one per distinct column value
+    private static final ParsedValueCache<String, List<String>> PARSED = new ParsedValueCache<>(4096,
+            joined -> Arrays.stream(joined.split(","))
+                      .map(String::trim)
+                      .collect(Collectors.toUnmodifiableList()));
+
     @Override
     public String convertToDatabaseColumn(List<String> list) {
     	return (list != null && !list.isEmpty()) ? String.join(",", list) : "";
@@ -16,10 +24,6 @@ public class StringListConverter implements AttributeConverter<List<String>, Str
 
     @Override
     public List<String> convertToEntityAttribute(String joined) {
-    	return (joined != null && !joined.isEmpty()) ?
-                Arrays.stream(joined.split(","))
-                      .map(String::trim)
-                      .collect(Collectors.toList())
-                : List.of();
+    	return (joined != null && !joined.isEmpty()) ? PARSED.get(joined) : List.of();
     }
-}
\ No newline at end of file
+}
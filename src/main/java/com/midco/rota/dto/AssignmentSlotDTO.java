@@ -0,0 +1,51 @@
+package com.midco.rota.dto;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * One assignment slot in a rota update snapshot. id is a compact per-solve
+ * index that later delta messages refer to (shifts have no database id
+ * until the rota is persisted).
+ */
+public class AssignmentSlotDTO {
+    private Integer id;
+    private String location;
+    private LocalDate date;
+    private String shiftType;
+    private LocalTime startTime;
+    private Integer employeeId;
+
+    // Constructors
+    public AssignmentSlotDTO() {}
+
+    public AssignmentSlotDTO(Integer id, String location, LocalDate date, String shiftType, LocalTime startTime,
+            Integer employeeId) {
+        this.id = id;
+        this.location = location;
+        this.date = date;
+        this.shiftType = shiftType;
+        this.startTime = startTime;
+        this.employeeId = employeeId;
+    }
+
+    // Getters and Setters
+    public Integer getId() { return id; }
+    public void setId(Integer id) { this.id = id; }
+
+    public String getLocation() { return location; }
+    public void setLocation(String location) { this.location = location; }
+
+    public LocalDate getDate() { return date; }
+    public void setDate(LocalDate date) { this.date = date; }
+
+    public String getShiftType() { return shiftType; }
+    public void setShiftType(String shiftType) { this.shiftType = shiftType; }
+
+    public LocalTime getStartTime() { return startTime; }
+    public void setStartTime(LocalTime startTime) { this.startTime = startTime; }
+
+    public Integer getEmployeeId() { return employeeId; }
+    public void setEmployeeId(Integer employeeId) { this.employeeId = employeeId; }
+
+}
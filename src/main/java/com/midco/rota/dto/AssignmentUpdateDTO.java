@@ -0,0 +1,26 @@
+package com.midco.rota.dto;
+
+/**
+ * Delta entry: slot id from the snapshot and its new employee (null =
+ * unassigned).
+ */
+public class AssignmentUpdateDTO {
+    private Integer id;
+    private Integer employeeId;
+
+    // Constructors
+    public AssignmentUpdateDTO() {}
+
+    public AssignmentUpdateDTO(Integer id, Integer employeeId) {
+        this.id = id;
+        this.employeeId = employeeId;
+    }
+
+    // Getters and Setters
+    public Integer getId() { return id; }
+    public void setId(Integer id) { this.id = id; }
+
+    public Integer getEmployeeId() { return employeeId; }
+    public void setEmployeeId(Integer employeeId) { this.employeeId = employeeId; }
+
+}
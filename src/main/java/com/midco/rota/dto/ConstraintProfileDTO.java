@@ -0,0 +1,89 @@
+package com.midco.rota.dto;
+
+import java.util.List;
+
+public class ConstraintProfileDTO {
+    private Long rotaId;
+    private String score;
+    private Integer totalAssignments;
+    // Full score calculation, all constraints, no constraint matching
+    private Double evaluationMs;
+    private Long durationMs;
+    private List<ConstraintStat> constraints;
+
+    // Constructors
+    public ConstraintProfileDTO() {}
+
+    public ConstraintProfileDTO(Long rotaId, String score, Integer totalAssignments, Double evaluationMs,
+            Long durationMs, List<ConstraintStat> constraints) {
+        this.rotaId = rotaId;
+        this.score = score;
+        this.totalAssignments = totalAssignments;
+        this.evaluationMs = evaluationMs;
+        this.durationMs = durationMs;
+        this.constraints = constraints;
+    }
+
+    // Getters and Setters
+    public Long getRotaId() { return rotaId; }
+    public void setRotaId(Long rotaId) { this.rotaId = rotaId; }
+
+    public String getScore() { return score; }
+    public void setScore(String score) { this.score = score; }
+
+    public Integer getTotalAssignments() { return totalAssignments; }
+    public void setTotalAssignments(Integer totalAssignments) { this.totalAssignments = totalAssignments; }
+
+    public Double getEvaluationMs() { return evaluationMs; }
+    public void setEvaluationMs(Double evaluationMs) { this.evaluationMs = evaluationMs; }
+
+    public Long getDurationMs() { return durationMs; }
+    public void setDurationMs(Long durationMs) { this.durationMs = durationMs; }
+
+    public List<ConstraintStat> getConstraints() { return constraints; }
+    public void setConstraints(List<ConstraintStat> constraints) { this.constraints = constraints; }
+
+    /**
+     * One constraint: its matches and score impact on the rota, and the time
+     * a full score calculation of that constraint alone takes (null when
+     * timing was not requested).
+     */
+    public static class ConstraintStat {
+        private String constraintName;
+        private Integer matchCount;
+        private String score;
+        private Long hardScore;
+        private Long softScore;
+        private Double evaluationMs;
+
+        public ConstraintStat() {}
+
+        public ConstraintStat(String constraintName, Integer matchCount, String score, Long hardScore,
+                Long softScore, Double evaluationMs) {
+            this.constraintName = constraintName;
+            this.matchCount = matchCount;
+            this.score = score;
+            this.hardScore = hardScore;
+            this.softScore = softScore;
+            this.evaluationMs = evaluationMs;
+        }
+
+        public String getConstraintName() { return constraintName; }
+        public void setConstraintName(String constraintName) { this.constraintName = constraintName; }
+
+        public Integer getMatchCount() { return matchCount; }
+        public void setMatchCount(Integer matchCount) { this.matchCount = matchCount; }
+
+        public String getScore() { return score; }
+        public void setScore(String score) { this.score = score; }
+
+        public Long getHardScore() { return hardScore; }
+        public void setHardScore(Long hardScore) { this.hardScore = hardScore; }
+
+        public Long getSoftScore() { return softScore; }
+        public void setSoftScore(Long softScore) { this.softScore = softScore; }
+
+        public Double getEvaluationMs() { return evaluationMs; }
+        public void setEvaluationMs(Double evaluationMs) { this.evaluationMs = evaluationMs; }
+    }
+}
@@ -0,0 +1,50 @@
+package com.midco.rota.dto;
+
+import java.util.List;
+
+public class RepairResultDTO {
+    private Long rotaId;
+    private String scoreBefore;
+    private String scoreAfter;
+    private Integer unpinnedAssignments;
+    private Integer totalAssignments;
+    private Long durationMs;
+    private List<ShiftAssignmentChangeDTO> changes;
+
+    // Constructors
+    public RepairResultDTO() {}
+
+    public RepairResultDTO(Long rotaId, String scoreBefore, String scoreAfter, Integer unpinnedAssignments,
+            Integer totalAssignments, Long durationMs, List<ShiftAssignmentChangeDTO> changes) {
+        this.rotaId = rotaId;
+        this.scoreBefore = scoreBefore;
+        this.scoreAfter = scoreAfter;
+        this.unpinnedAssignments = unpinnedAssignments;
+        this.totalAssignments = totalAssignments;
+        this.durationMs = durationMs;
+        this.changes = changes;
+    }
+
+    // Getters and Setters
+    public Long getRotaId() { return rotaId; }
+    public void setRotaId(Long rotaId) { this.rotaId = rotaId; }
+
+    public String getScoreBefore() { return scoreBefore; }
+    public void setScoreBefore(String scoreBefore) { this.scoreBefore = scoreBefore; }
+
+    public String getScoreAfter() { return scoreAfter; }
+    public void setScoreAfter(String scoreAfter) { this.scoreAfter = scoreAfter; }
+
+    public Integer getUnpinnedAssignments() { return unpinnedAssignments; }
+    public void setUnpinnedAssignments(Integer unpinnedAssignments) { this.unpinnedAssignments = unpinnedAssignments; }
+
+    public Integer getTotalAssignments() { return totalAssignments; }
+    public void setTotalAssignments(Integer totalAssignments) { this.totalAssignments = totalAssignments; }
+
+    public Long getDurationMs() { return durationMs; }
+    public void setDurationMs(Long durationMs) { this.durationMs = durationMs; }
+
+    public List<ShiftAssignmentChangeDTO> getChanges() { return changes; }
+    public void setChanges(List<ShiftAssignmentChangeDTO> changes) { this.changes = changes; }
+
+}
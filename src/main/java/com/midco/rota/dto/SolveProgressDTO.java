@@ -0,0 +1,77 @@
+package com.midco.rota.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Rota update pushed to /user/queue/rotaUpdate.
+ *
+ * SNAPSHOT carries every slot plus the employee names, DELTA only the slots
+ * whose employee changed. seq increases by one per message of a request; on
+ * a gap the client sends {requestId} to /app/rotaUpdate/resync and gets a
+ * fresh SNAPSHOT. ENDED answers a resync for a solve that is no longer
+ * streaming - reload the rota over REST instead.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SolveProgressDTO {
+
+    public static final String SNAPSHOT = "SNAPSHOT";
+    public static final String DELTA = "DELTA";
+    public static final String ENDED = "ENDED";
+
+    private Long requestId;
+    private String type;
+    private Long seq;
+    private String score;
+    private Map<String, Long> unassignedByShiftType;
+    private List<AssignmentSlotDTO> slots;
+    private Map<Integer, String> employees;
+    private List<AssignmentUpdateDTO> changes;
+    private boolean finished;
+    private LocalDateTime timestamp;
+
+    // Constructors
+    public SolveProgressDTO() {}
+
+    public SolveProgressDTO(Long requestId, String type, Long seq, LocalDateTime timestamp) {
+        this.requestId = requestId;
+        this.type = type;
+        this.seq = seq;
+        this.timestamp = timestamp;
+    }
+
+    // Getters and Setters
+    public Long getRequestId() { return requestId; }
+    public void setRequestId(Long requestId) { this.requestId = requestId; }
+
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+
+    public Long getSeq() { return seq; }
+    public void setSeq(Long seq) { this.seq = seq; }
+
+    public String getScore() { return score; }
+    public void setScore(String score) { this.score = score; }
+
+    public Map<String, Long> getUnassignedByShiftType() { return unassignedByShiftType; }
+    public void setUnassignedByShiftType(Map<String, Long> unassignedByShiftType) { this.unassignedByShiftType = unassignedByShiftType; }
+
+    public List<AssignmentSlotDTO> getSlots() { return slots; }
+    public void setSlots(List<AssignmentSlotDTO> slots) { this.slots = slots; }
+
+    public Map<Integer, String> getEmployees() { return employees; }
+    public void setEmployees(Map<Integer, String> employees) { this.employees = employees; }
+
+    public List<AssignmentUpdateDTO> getChanges() { return changes; }
+    public void setChanges(List<AssignmentUpdateDTO> changes) { this.changes = changes; }
+
+    public boolean isFinished() { return finished; }
+    public void setFinished(boolean finished) { this.finished = finished; }
+
+    public LocalDateTime getTimestamp() { return timestamp; }
+    public void setTimestamp(LocalDateTime timestamp) { this.timestamp = timestamp; }
+
+}
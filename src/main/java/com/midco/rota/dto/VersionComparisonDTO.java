@@ -7,6 +7,9 @@ public class VersionComparisonDTO {
     private VersionSummaryDTO versionB;
     private List<AssignmentDiffDTO> differences;
     private ComparisonStatisticsDTO statistics;
+    private Integer page;
+    private Integer pageSize;
+    private Integer totalDifferences;
 
     // Constructors
     public VersionComparisonDTO() {}
@@ -31,6 +34,15 @@ public class VersionComparisonDTO {
     public ComparisonStatisticsDTO getStatistics() { return statistics; }
     public void setStatistics(ComparisonStatisticsDTO statistics) { this.statistics = statistics; }
 
+    public Integer getPage() { return page; }
+    public void setPage(Integer page) { this.page = page; }
+
+    public Integer getPageSize() { return pageSize; }
+    public void setPageSize(Integer pageSize) { this.pageSize = pageSize; }
+
+    public Integer getTotalDifferences() { return totalDifferences; }
+    public void setTotalDifferences(Integer totalDifferences) { this.totalDifferences = totalDifferences; }
+
     
     // Builder pattern
     
@@ -43,6 +55,9 @@ public class VersionComparisonDTO {
         private VersionSummaryDTO versionB;
         private List<AssignmentDiffDTO> differences;
         private ComparisonStatisticsDTO statistics;
+        private Integer page;
+        private Integer pageSize;
+        private Integer totalDifferences;
         
         public Builder versionA(VersionSummaryDTO versionA) {
             this.versionA = versionA;
@@ -64,12 +79,30 @@ public class VersionComparisonDTO {
             return this;
         }
         
+        public Builder page(Integer page) {
+            this.page = page;
+            return this;
+        }
+        
+        public Builder pageSize(Integer pageSize) {
+            this.pageSize = pageSize;
+            return this;
+        }
+        
+        public Builder totalDifferences(Integer totalDifferences) {
+            this.totalDifferences = totalDifferences;
+            return this;
+        }
+        
         public VersionComparisonDTO build() {
             VersionComparisonDTO obj = new VersionComparisonDTO();
             obj.setVersionA(this.versionA);
             obj.setVersionB(this.versionB);
             obj.setDifferences(this.differences);
             obj.setStatistics(this.statistics);
+            obj.setPage(this.page);
+            obj.setPageSize(this.pageSize);
+            obj.setTotalDifferences(this.totalDifferences);
             return obj;
         }
     }
@@ -3,6 +3,7 @@ package com.midco.rota.model;
 import java.math.BigDecimal;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -19,6 +20,7 @@ import com.midco.rota.converter.StringListConverter;
 import com.midco.rota.service.PeriodService;
 import com.midco.rota.util.ContractType;
 import com.midco.rota.util.Gender;
+import com.midco.rota.util.ParsedValueCache;
 import com.midco.rota.util.RateCode;
 import com.midco.rota.util.ShiftType;
 
@@ -137,6 +139,10 @@ public class Employee {
 	@JsonIgnore
 	private Map<String, Integer> preferredServiceWeightsMap;
 
+	// Preference lists are replaced through setPreferredService, never mutated
+	private static final ParsedValueCache<List<String>, Map<String, Integer>> SERVICE_WEIGHTS = new ParsedValueCache<>(
+			4096, Employee::parsePreferredServiceWeights);
+
 	// ============================================================================
 	// CONSTRUCTORS
 	// ============================================================================
@@ -152,12 +158,8 @@ public class Employee {
 	 * Parse preferred service list into location -> weightage map
 	 * Format: "LOCATION:60" or "LOCATION" (defaults to 100)
 	 */
-	private void parsePreferredServiceWeights() {
-		preferredServiceWeightsMap = new HashMap<>();
-
-		if (preferredService == null || preferredService.isEmpty()) {
-			return;
-		}
+	private static Map<String, Integer> parsePreferredServiceWeights(List<String> preferredService) {
+		Map<String, Integer> preferredServiceWeightsMap = new HashMap<>();
 
 		for (String entry : preferredService) {
 			if (entry == null || entry.trim().isEmpty()) {
@@ -190,6 +192,8 @@ public class Employee {
 				continue;
 			}
 		}
+
+		return Collections.unmodifiableMap(preferredServiceWeightsMap);
 	}
 
 	/**
@@ -197,7 +201,9 @@ public class Employee {
 	 */
 	public Map<String, Integer> getPreferredServiceWeightsMap() {
 		if (preferredServiceWeightsMap == null) {
-			parsePreferredServiceWeights();
+			// ✅ Parsed once per distinct preference list, shared by employees holding it
+			preferredServiceWeightsMap = (preferredService == null || preferredService.isEmpty()) ? Map.of()
+					: SERVICE_WEIGHTS.get(preferredService);
 		}
 		return preferredServiceWeightsMap;
 	}
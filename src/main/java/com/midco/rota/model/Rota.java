@@ -1,6 +1,7 @@
 package com.midco.rota.model;
 
 import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -11,13 +12,16 @@ import org.optaplanner.core.api.domain.solution.PlanningEntityCollectionProperty
 import org.optaplanner.core.api.domain.solution.PlanningScore;
 import org.optaplanner.core.api.domain.solution.PlanningSolution;
 import org.optaplanner.core.api.domain.solution.ProblemFactCollectionProperty;
+import org.optaplanner.core.api.domain.solution.ProblemFactProperty;
 import org.optaplanner.core.api.domain.valuerange.ValueRangeProvider;
 import org.optaplanner.core.api.score.buildin.hardsoft.HardSoftScore;
 import org.optaplanner.core.api.score.buildin.hardsoftlong.HardSoftLongScore;
 
 import com.fasterxml.jackson.annotation.JsonIdentityInfo;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import com.fasterxml.jackson.annotation.ObjectIdGenerators;
+import com.midco.rota.util.AvailabilityIndex;
 import com.midco.rota.util.IdealShiftCount;
 import com.midco.rota.util.ShiftType;
 
@@ -67,6 +71,19 @@ public class Rota {
 	@ProblemFactCollectionProperty
 	private List<IdealShiftCount> idealShiftCountList;
 
+	// Partitioned search parts only: employees from other parts held by pinned
+	// assignments. Facts, but not in employeeRange, so nothing else gets them.
+	@Transient
+	@JsonIgnore
+	@ProblemFactCollectionProperty
+	private List<Employee> pinnedOnlyEmployeeList = new ArrayList<>();
+
+	// ✅ Schedule pattern availability, built once per solve by whoever assembles the problem
+	@Transient
+	@JsonIgnore
+	@ProblemFactProperty
+	private AvailabilityIndex availabilityIndex;
+
 	public Rota() {
 	}
 
@@ -123,6 +140,22 @@ public class Rota {
 		this.idealShiftCountList = idealShiftCountList;
 	}
 
+	public List<Employee> getPinnedOnlyEmployeeList() {
+		return pinnedOnlyEmployeeList;
+	}
+
+	public void setPinnedOnlyEmployeeList(List<Employee> pinnedOnlyEmployeeList) {
+		this.pinnedOnlyEmployeeList = pinnedOnlyEmployeeList;
+	}
+
+	public AvailabilityIndex getAvailabilityIndex() {
+		return availabilityIndex;
+	}
+
+	public void setAvailabilityIndex(AvailabilityIndex availabilityIndex) {
+		this.availabilityIndex = availabilityIndex;
+	}
+
 	@Override
 	public String toString() {
 		return "Rota [id=" + id + ", employeeList=" + employeeList + ", shiftAssignmentList=" + shiftAssignmentList
@@ -6,9 +6,14 @@ import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.temporal.WeekFields;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.fasterxml.jackson.annotation.JsonIdentityInfo;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.ObjectIdGenerators;
 import com.midco.rota.service.PeriodService;
 import com.midco.rota.util.ShiftType;
@@ -47,6 +52,32 @@ public class Shift {
 	@Transient
 	private Integer absoluteWeek;
 
+	// ============================================================================
+	// SOLVER FACTS - primitive keys precomputed once so constraint streams don't
+	// redo LocalDate/WeekFields/String work on every move
+	// ============================================================================
+
+	private static final int UNSET = Integer.MIN_VALUE;
+
+	// Location name -> dense index, shared by every solve in this JVM
+	private static final Map<String, Integer> LOCATION_INDEX = new ConcurrentHashMap<>();
+	private static final AtomicInteger NEXT_LOCATION_INDEX = new AtomicInteger();
+
+	@Transient
+	private int epochDay = UNSET;
+
+	@Transient
+	private int yearWeek = UNSET;
+
+	@Transient
+	private int locationIndex = UNSET;
+
+	@Transient
+	private int shiftTypeOrdinal = UNSET;
+
+	@Transient
+	private int durationMins = UNSET;
+
 //	@Transient
 //	private LocalDate referenceDate;
 
@@ -91,6 +122,7 @@ public class Shift {
 	public void setShiftStart(LocalDate shiftStart) {
 		this.shiftStart = shiftStart;
 		generatePairId(); // ✅ Regenerate if date changes
+		resetSolverFacts();
 	}
 
 	public ShiftTemplate getShiftTemplate() {
@@ -100,6 +132,7 @@ public class Shift {
 	public void setShiftTemplate(ShiftTemplate shiftTemplate) {
 		this.shiftTemplate = shiftTemplate;
 		generatePairId(); // ✅ Regenerate if template changes
+		resetSolverFacts();
 	}
 
 	public String getPairId() {
@@ -142,6 +175,7 @@ public class Shift {
 
 	public void setShiftEnd(LocalDate shiftEnd) {
 		this.shiftEnd = shiftEnd;
+		this.durationMins = UNSET;
 	}
 
 	public BigDecimal getDurationInHours() {
@@ -193,4 +227,103 @@ public class Shift {
 	public void setAbsoluteWeek(Integer absoluteWeek) {
 		this.absoluteWeek = absoluteWeek;
 	}
-}
\ No newline at end of file
+
+	// ============================================================================
+	// SOLVER FACT ACCESSORS - computed lazily if precomputeSolverFacts() wasn't called
+	// ============================================================================
+
+	/**
+	 * Fill every solver fact up front. Called when shifts are generated so the
+	 * lazy fallbacks below never run on solver threads.
+	 */
+	public void precomputeSolverFacts() {
+		getEpochDay();
+		getYearWeek();
+		getLocationIndex();
+		getShiftTypeOrdinal();
+		getDurationMins();
+	}
+
+	private void resetSolverFacts() {
+		epochDay = UNSET;
+		yearWeek = UNSET;
+		locationIndex = UNSET;
+		shiftTypeOrdinal = UNSET;
+		durationMins = UNSET;
+	}
+
+	/**
+	 * shiftStart as days since 1970-01-01, so "next day" is simply +1
+	 */
+	@JsonIgnore
+	public int getEpochDay() {
+		int value = epochDay;
+		if (value == UNSET) {
+			value = (int) shiftStart.toEpochDay();
+			epochDay = value;
+		}
+		return value;
+	}
+
+	/**
+	 * ISO week-based year and week packed as yyyyww (e.g. 202503)
+	 */
+	@JsonIgnore
+	public int getYearWeek() {
+		int value = yearWeek;
+		if (value == UNSET) {
+			value = shiftStart.get(WeekFields.ISO.weekBasedYear()) * 100
+					+ shiftStart.get(WeekFields.ISO.weekOfWeekBasedYear());
+			yearWeek = value;
+		}
+		return value;
+	}
+
+	/**
+	 * ISO week of week-based year (1-53), without the year
+	 */
+	@JsonIgnore
+	public int getIsoWeek() {
+		return getYearWeek() % 100;
+	}
+
+	@JsonIgnore
+	public int getLocationIndex() {
+		int value = locationIndex;
+		if (value == UNSET) {
+			value = indexOfLocation(shiftTemplate.getLocation());
+			locationIndex = value;
+		}
+		return value;
+	}
+
+	@JsonIgnore
+	public int getShiftTypeOrdinal() {
+		int value = shiftTypeOrdinal;
+		if (value == UNSET) {
+			value = shiftTemplate.getShiftType().ordinal();
+			shiftTypeOrdinal = value;
+		}
+		return value;
+	}
+
+	/**
+	 * Cached getDurationInMins()
+	 */
+	@JsonIgnore
+	public int getDurationMins() {
+		int value = durationMins;
+		if (value == UNSET) {
+			value = (int) getDurationInMins();
+			durationMins = value;
+		}
+		return value;
+	}
+
+	public static int indexOfLocation(String location) {
+		if (location == null) {
+			return -1;
+		}
+		return LOCATION_INDEX.computeIfAbsent(location, k -> NEXT_LOCATION_INDEX.getAndIncrement());
+	}
+}
@@ -0,0 +1,247 @@
+package com.midco.rota.opt;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.optaplanner.core.api.score.director.ScoreDirector;
+import org.optaplanner.core.impl.partitionedsearch.partitioner.SolutionPartitioner;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.midco.rota.model.Employee;
+import com.midco.rota.model.Rota;
+import com.midco.rota.model.ShiftAssignment;
+
+/**
+ * Splits a Rota into location clusters for partitioned search
+ * (solverConfigPartitioned.xml).
+ *
+ * Locations are grouped so that locations sharing preferred employees land in
+ * the same part, while keeping the number of assignments per part roughly
+ * even. Each employee then goes to the part holding most of their
+ * preferredService weight (restrictedService locations don't count), so an
+ * employee is only ever scheduled by one part. Cross-part constraints are left
+ * to the global local search phase that follows.
+ *
+ * Parts get their own ShiftAssignment copies (same planningId) and share the
+ * Employee / Shift problem facts with the working solution.
+ */
+public class LocationClusterPartitioner implements SolutionPartitioner<Rota> {
+
+	private static final Logger logger = LoggerFactory.getLogger(LocationClusterPartitioner.class);
+
+	// Allowed overshoot of the even share before a location is forced into the lightest part
+	private static final double LOAD_SLACK = 1.15;
+
+	// Optional cap from solutionPartitionerCustomProperties, otherwise runnablePartThreadLimit
+	private Integer partCount;
+
+	@Override
+	public List<Rota> splitWorkingSolution(ScoreDirector<Rota> scoreDirector, Integer runnablePartThreadLimit) {
+		Rota original = scoreDirector.getWorkingSolution();
+
+		// Assignments per location, largest first
+		Map<String, List<ShiftAssignment>> assignmentsByLocation = new LinkedHashMap<>();
+		for (ShiftAssignment sa : original.getShiftAssignmentList()) {
+			assignmentsByLocation.computeIfAbsent(sa.getShift().getShiftTemplate().getLocation(),
+					k -> new ArrayList<>()).add(sa);
+		}
+		List<String> locations = new ArrayList<>(assignmentsByLocation.keySet());
+		locations.sort(Comparator.comparingInt((String loc) -> assignmentsByLocation.get(loc).size()).reversed());
+
+		int parts = resolvePartCount(runnablePartThreadLimit, locations.size(), original.getEmployeeList().size());
+		if (parts <= 1) {
+			logger.info("Partitioning skipped: single part for {} locations", locations.size());
+			return List.of(copyOf(original, original.getEmployeeList(), original.getShiftAssignmentList()));
+		}
+
+		// ========== LOCATION CLUSTERS ==========
+		Map<String, Map<String, Integer>> affinity = locationAffinity(original.getEmployeeList());
+		double evenShare = (double) original.getShiftAssignmentList().size() / parts;
+
+		List<Set<String>> partLocations = new ArrayList<>(parts);
+		int[] partLoad = new int[parts];
+		for (int p = 0; p < parts; p++) {
+			partLocations.add(new HashSet<>());
+		}
+
+		for (String location : locations) {
+			int load = assignmentsByLocation.get(location).size();
+			int best = -1;
+			long bestAffinity = 0;
+			for (int p = 0; p < parts; p++) {
+				if (partLoad[p] + load > evenShare * LOAD_SLACK) {
+					continue;
+				}
+				long a = 0;
+				for (String other : partLocations.get(p)) {
+					a += affinity.getOrDefault(location, Map.of()).getOrDefault(other, 0);
+				}
+				if (a > bestAffinity) {
+					best = p;
+					bestAffinity = a;
+				}
+			}
+			if (best < 0) {
+				best = lightest(partLoad);
+			}
+			partLocations.get(best).add(location);
+			partLoad[best] += load;
+		}
+
+		// ========== EMPLOYEES ==========
+		List<List<Employee>> partEmployees = new ArrayList<>(parts);
+		for (int p = 0; p < parts; p++) {
+			partEmployees.add(new ArrayList<>());
+		}
+
+		for (Employee emp : original.getEmployeeList()) {
+			List<String> restricted = emp.getRestrictedService() != null ? emp.getRestrictedService() : List.of();
+			int best = -1;
+			int bestWeight = 0;
+			for (int p = 0; p < parts; p++) {
+				int weight = 0;
+				for (Map.Entry<String, Integer> pref : emp.getPreferredServiceWeightsMap().entrySet()) {
+					if (partLocations.get(p).contains(pref.getKey()) && !restricted.contains(pref.getKey())) {
+						weight += pref.getValue();
+					}
+				}
+				if (weight > bestWeight) {
+					best = p;
+					bestWeight = weight;
+				}
+			}
+			if (best < 0) {
+				// No usable preference - top up the part with the most work per employee
+				best = mostUnderstaffed(partLoad, partEmployees);
+			}
+			partEmployees.get(best).add(emp);
+		}
+
+		// ========== PARTS ==========
+		List<Rota> partList = new ArrayList<>(parts);
+		for (int p = 0; p < parts; p++) {
+			List<ShiftAssignment> partAssignments = new ArrayList<>();
+			for (String location : partLocations.get(p)) {
+				partAssignments.addAll(assignmentsByLocation.get(location));
+			}
+			if (partAssignments.isEmpty() || partEmployees.get(p).isEmpty()) {
+				logger.warn("Partition {} left to the global phase ({} assignments, {} employees)", p,
+						partAssignments.size(), partEmployees.get(p).size());
+				continue;
+			}
+			partList.add(copyOf(original, partEmployees.get(p), partAssignments));
+			logger.info("Partition {}: {} locations, {} assignments, {} employees", p, partLocations.get(p).size(),
+					partAssignments.size(), partEmployees.get(p).size());
+		}
+
+		if (partList.isEmpty()) {
+			return List.of(copyOf(original, original.getEmployeeList(), original.getShiftAssignmentList()));
+		}
+		return partList;
+	}
+
+	private int resolvePartCount(Integer runnablePartThreadLimit, int locationCount, int employeeCount) {
+		int parts = partCount != null ? partCount
+				: runnablePartThreadLimit != null ? runnablePartThreadLimit
+						: Runtime.getRuntime().availableProcessors();
+		return Math.max(1, Math.min(parts, Math.min(locationCount, employeeCount)));
+	}
+
+	/**
+	 * location -> location -> summed min(weight) of employees preferring both.
+	 */
+	private static Map<String, Map<String, Integer>> locationAffinity(List<Employee> employees) {
+		Map<String, Map<String, Integer>> affinity = new HashMap<>();
+		for (Employee emp : employees) {
+			List<Map.Entry<String, Integer>> prefs = new ArrayList<>(emp.getPreferredServiceWeightsMap().entrySet());
+			for (int i = 0; i < prefs.size(); i++) {
+				for (int j = i + 1; j < prefs.size(); j++) {
+					int weight = Math.min(prefs.get(i).getValue(), prefs.get(j).getValue()) + 1;
+					affinity.computeIfAbsent(prefs.get(i).getKey(), k -> new HashMap<>()).merge(prefs.get(j).getKey(),
+							weight, Integer::sum);
+					affinity.computeIfAbsent(prefs.get(j).getKey(), k -> new HashMap<>()).merge(prefs.get(i).getKey(),
+							weight, Integer::sum);
+				}
+			}
+		}
+		return affinity;
+	}
+
+	private static int lightest(int[] partLoad) {
+		int best = 0;
+		for (int p = 1; p < partLoad.length; p++) {
+			if (partLoad[p] < partLoad[best]) {
+				best = p;
+			}
+		}
+		return best;
+	}
+
+	private static int mostUnderstaffed(int[] partLoad, List<List<Employee>> partEmployees) {
+		int best = 0;
+		double bestRatio = -1;
+		for (int p = 0; p < partLoad.length; p++) {
+			double ratio = (double) partLoad[p] / (partEmployees.get(p).size() + 1);
+			if (ratio > bestRatio) {
+				best = p;
+				bestRatio = ratio;
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Part solution with copied planning entities. An unpinned assignment held
+	 * by an employee from another part starts unassigned; a pinned one keeps
+	 * its employee. Such employees are facts of the part but stay out of its
+	 * value range, so they can't be given this part's unpinned shifts while
+	 * their own part schedules them too.
+	 */
+	private static Rota copyOf(Rota original, List<Employee> employees, List<ShiftAssignment> assignments) {
+		Set<Employee> partEmployees = new HashSet<>(employees);
+		Set<Employee> pinnedOnlyEmployees = new LinkedHashSet<>();
+		List<ShiftAssignment> assignmentList = new ArrayList<>(assignments.size());
+
+		for (ShiftAssignment sa : assignments) {
+			ShiftAssignment copy = new ShiftAssignment();
+			copy.setId(sa.getId());
+			copy.setPlanningId(sa.getPlanningId());
+			copy.setShift(sa.getShift());
+			copy.setPinned(sa.isPinned());
+
+			Employee emp = sa.getEmployee();
+			if (emp != null && !partEmployees.contains(emp)) {
+				if (sa.isPinned()) {
+					pinnedOnlyEmployees.add(emp);
+				} else {
+					emp = null;
+				}
+			}
+			copy.setEmployee(emp);
+			assignmentList.add(copy);
+		}
+
+		Rota part = new Rota(new ArrayList<>(employees), assignmentList);
+		part.setPinnedOnlyEmployeeList(new ArrayList<>(pinnedOnlyEmployees));
+		part.setId(original.getId());
+		part.setPlanningId(original.getPlanningId());
+		part.setAvailabilityIndex(original.getAvailabilityIndex());
+		return part;
+	}
+
+	public Integer getPartCount() {
+		return partCount;
+	}
+
+	public void setPartCount(Integer partCount) {
+		this.partCount = partCount;
+	}
+}
@@ -1,9 +1,7 @@
 package com.midco.rota.opt;
 
 import java.time.DayOfWeek;
-import java.time.LocalDate;
-import java.time.temporal.WeekFields;
-import java.util.Comparator;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -20,8 +18,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 
 import com.midco.rota.ShiftTypeLimitConfig;
 import com.midco.rota.model.Employee;
+import com.midco.rota.model.Shift;
 import com.midco.rota.model.ShiftAssignment;
 import com.midco.rota.service.PeriodService;
+import com.midco.rota.util.AvailabilityIndex;
 import com.midco.rota.util.ContractType;
 import com.midco.rota.util.Gender;
 import com.midco.rota.util.ShiftType;
@@ -33,6 +33,13 @@ public class RotaConstraintProvider implements ConstraintProvider {
 
 	private static final Logger logger = LoggerFactory.getLogger(RotaConstraintProvider.class);
 
+	// ShiftType ordinals, compared against Shift.getShiftTypeOrdinal()
+	private static final int DAY = ShiftType.DAY.ordinal();
+	private static final int LONG_DAY = ShiftType.LONG_DAY.ordinal();
+	private static final int WAKING_NIGHT = ShiftType.WAKING_NIGHT.ordinal();
+	private static final int SLEEP_IN = ShiftType.SLEEP_IN.ordinal();
+	private static final int FLOATING = ShiftType.FLOATING.ordinal();
+
 	@Override
 	public Constraint[] defineConstraints(ConstraintFactory factory) {
 		return new Constraint[] {
@@ -58,7 +65,7 @@ public class RotaConstraintProvider implements ConstraintProvider {
 				.filter(sa -> sa.getEmployee().getMinHrs() != null)
 				.filter(sa -> sa.getShift().getShiftTemplate().getShiftType() != ShiftType.SLEEP_IN)
 				.groupBy(ShiftAssignment::getEmployee,
-						ConstraintCollectors.sumLong(sa -> sa.getShift().getDurationInMins()))
+						ConstraintCollectors.sumLong(sa -> sa.getShift().getDurationMins()))
 				.filter((emp, totalMins) -> {
 					long minMins = emp.getMinHrs().longValue() * 60;
 					return totalMins > (minMins * 1.3);
@@ -74,7 +81,7 @@ public class RotaConstraintProvider implements ConstraintProvider {
 	private Constraint encourageBalancedHours(ConstraintFactory factory) {
 		return factory.forEach(ShiftAssignment.class).filter(sa -> sa.getEmployee() != null)
 				.groupBy(ShiftAssignment::getEmployee,
-						ConstraintCollectors.sumLong(sa -> sa.getShift().getDurationInMins()))
+						ConstraintCollectors.sumLong(sa -> sa.getShift().getDurationMins()))
 				.reward(HardSoftLongScore.ofSoft(10), (emp, totalMins) -> {
 					double hours = totalMins / 60.0;
 					double min = emp.getMinHrs() != null ? emp.getMinHrs().doubleValue() : 0;
@@ -99,8 +106,8 @@ public class RotaConstraintProvider implements ConstraintProvider {
 	private Constraint employeeMaxHours(ConstraintFactory factory) {
 		return factory.forEach(ShiftAssignment.class).filter(sa -> sa.getEmployee() != null)
 				.filter(sa -> sa.getEmployee().getMaxHrs() != null)
-				.groupBy(ShiftAssignment::getEmployee, sa -> YearWeek.from(sa.getShift().getShiftStart()),
-						ConstraintCollectors.sumLong(sa -> sa.getShift().getDurationInMins()))
+				.groupBy(ShiftAssignment::getEmployee, sa -> sa.getShift().getYearWeek(),
+						ConstraintCollectors.sumLong(sa -> sa.getShift().getDurationMins()))
 				.filter((emp, week, totalMins) -> {
 					long maxMins = emp.getMaxHrs().longValue() * 60;
 					return totalMins > maxMins;
@@ -162,8 +169,8 @@ public class RotaConstraintProvider implements ConstraintProvider {
 
 	private Constraint maxWeeklyHoursConstraint(ConstraintFactory factory) {
 		return factory.forEachIncludingNullVars(ShiftAssignment.class).filter(sa -> sa.getEmployee() != null)
-				.groupBy(ShiftAssignment::getEmployee, sa -> YearWeek.from(sa.getShift().getShiftStart()),
-						ConstraintCollectors.sumLong(sa -> sa.getShift().getDurationInMins()))
+				.groupBy(ShiftAssignment::getEmployee, sa -> sa.getShift().getYearWeek(),
+						ConstraintCollectors.sumLong(sa -> sa.getShift().getDurationMins()))
 				.filter((employee, week, totalMinutes) -> totalMinutes > (employee.getMaxHrs().longValue() * 60))
 				.penalize(HardSoftLongScore.ofSoft(20000),
 						(employee, week,
@@ -179,30 +186,29 @@ public class RotaConstraintProvider implements ConstraintProvider {
 	}
 
 	private Constraint maxHoursPerShiftTypePerDay(ConstraintFactory factory) {
-		Map<ShiftType, Integer> maxHoursPerShiftType = ShiftTypeLimitConfig.maxHoursPerShiftType();
+		// Indexed by ShiftType ordinal; types without a limit can never be exceeded
+		long[] maxMinutesPerShiftType = byShiftTypeOrdinal(ShiftTypeLimitConfig.maxHoursPerShiftType(),
+				Long.MAX_VALUE, 60L);
 
 		return factory.forEachIncludingNullVars(ShiftAssignment.class).filter(sa -> sa.getEmployee() != null)
-				.groupBy(sa -> sa.getEmployee(), sa -> sa.getShift().getShiftStart(),
-						sa -> sa.getShift().getShiftTemplate().getShiftType(),
-						ConstraintCollectors.sumLong(sa -> sa.getShift().getDurationInMins()))
-				.filter((employee, date, shiftType, totalMinutes) -> {
-					long maxAllowedMinutes = maxHoursPerShiftType.getOrDefault(shiftType, Integer.MAX_VALUE) * 60L;
-					return totalMinutes > maxAllowedMinutes;
-				}).penalize(HardSoftLongScore.ONE_HARD, (employee, date, shiftType, totalMinutes) -> {
-					long maxAllowedMinutes = maxHoursPerShiftType.getOrDefault(shiftType, 0) * 60L;
-					return (int) (totalMinutes - maxAllowedMinutes);
-				}).asConstraint("Max hours per shift type per day");
+				.groupBy(sa -> sa.getEmployee(), sa -> sa.getShift().getEpochDay(),
+						sa -> sa.getShift().getShiftTypeOrdinal(),
+						ConstraintCollectors.sumLong(sa -> sa.getShift().getDurationMins()))
+				.filter((employee, epochDay, shiftType, totalMinutes) -> totalMinutes > maxMinutesPerShiftType[shiftType])
+				.penalize(HardSoftLongScore.ONE_HARD, (employee, epochDay, shiftType,
+						totalMinutes) -> (int) (totalMinutes - maxMinutesPerShiftType[shiftType]))
+				.asConstraint("Max hours per shift type per day");
 	}
 
 	private Constraint limitWeeklyShiftTypeCounts(ConstraintFactory factory) {
-		Map<ShiftType, Integer> weeklyShiftTypeLimit = ShiftTypeLimitConfig.weeklyShiftTypeLimit();
+		long[] weeklyShiftTypeLimit = byShiftTypeOrdinal(ShiftTypeLimitConfig.weeklyShiftTypeLimit(),
+				Integer.MAX_VALUE, 1L);
 
 		return factory.forEachIncludingNullVars(ShiftAssignment.class).filter(sa -> sa.getEmployee() != null)
-				.groupBy(sa -> sa.getEmployee(), sa -> sa.getShift().getShiftTemplate().getShiftType(),
-						sa -> YearWeek.from(sa.getShift().getShiftStart()), ConstraintCollectors.count())
-				.filter((emp, type, week, count) -> count > weeklyShiftTypeLimit.getOrDefault(type, Integer.MAX_VALUE))
-				.penalize(HardSoftLongScore.ONE_HARD,
-						(emp, type, week, count) -> count - weeklyShiftTypeLimit.getOrDefault(type, 0))
+				.groupBy(sa -> sa.getEmployee(), sa -> sa.getShift().getShiftTypeOrdinal(),
+						sa -> sa.getShift().getYearWeek(), ConstraintCollectors.count())
+				.filter((emp, type, week, count) -> count > weeklyShiftTypeLimit[type])
+				.penalize(HardSoftLongScore.ONE_HARD, (emp, type, week, count) -> count - (int) weeklyShiftTypeLimit[type])
 				.asConstraint("Weekly limit per shift type");
 	}
 
@@ -213,8 +219,8 @@ public class RotaConstraintProvider implements ConstraintProvider {
 			Employee emp = sa.getEmployee();
 			ShiftType type = sa.getShift().getShiftTemplate().getShiftType();
 			return emp != null && type != ShiftType.FLOATING;
-		}).groupBy(sa -> sa.getEmployee(), sa -> YearWeek.from(sa.getShift().getShiftStart()),
-				sa -> sa.getShift().getShiftTemplate().getLocation(), ConstraintCollectors.count())
+		}).groupBy(sa -> sa.getEmployee(), sa -> sa.getShift().getYearWeek(),
+				sa -> sa.getShift().getLocationIndex(), ConstraintCollectors.count())
 				.filter((emp, week, location, count) -> count > MAX_NON_FLOATING_SHIFTS)
 				.penalize(HardSoftLongScore.ofHard(1), (emp, week, location, count) -> count - MAX_NON_FLOATING_SHIFTS)
 				.asConstraint("Max non-floating shifts per location per week");
@@ -223,9 +229,8 @@ public class RotaConstraintProvider implements ConstraintProvider {
 	// ✅ FIXED: Same-day constraint (handles all same-day logic)
 	private Constraint noInvalidSameDayShifts(ConstraintFactory factory) {
 		return factory.forEach(ShiftAssignment.class).filter(sa -> sa.getEmployee() != null && sa.getShift() != null)
-				.groupBy(ShiftAssignment::getEmployee, sa -> sa.getShift().getShiftStart(),
-						ConstraintCollectors.toList())
-				.filter((emp, date, dayAssignments) -> !isAllowedDayAssignments(dayAssignments))
+				.groupBy(ShiftAssignment::getEmployee, sa -> sa.getShift().getEpochDay(), ConstraintCollectors.toList())
+				.filter((emp, epochDay, dayAssignments) -> !isAllowedDayAssignments(dayAssignments))
 				.penalize(HardSoftLongScore.ofHard(1000)).asConstraint("No invalid same-day shift combinations");
 	}
 
@@ -233,7 +238,8 @@ public class RotaConstraintProvider implements ConstraintProvider {
 	private Constraint noBackToBack(ConstraintFactory factory) {
 		return factory.forEach(ShiftAssignment.class)
 				.join(ShiftAssignment.class, Joiners.equal(ShiftAssignment::getEmployee),
-						Joiners.lessThan(sa -> sa.getShift().getShiftStart()))
+						// Indexed next-day match instead of a lessThan range scan over every later shift
+						Joiners.equal(sa -> sa.getShift().getEpochDay() + 1, sa -> sa.getShift().getEpochDay()))
 				.filter((sa1, sa2) -> areIncompatibleBackToBack(sa1, sa2)).penalize(HardSoftLongScore.ofHard(1))
 				.asConstraint("No incompatible back-to-back shifts");
 	}
@@ -243,7 +249,7 @@ public class RotaConstraintProvider implements ConstraintProvider {
 				.filter(sa -> sa.getEmployee() != null && sa.getEmployee().getDaysOn() != null
 						&& sa.getEmployee().getDaysOn() > 0)
 				.groupBy(ShiftAssignment::getEmployee,
-						ConstraintCollectors.countDistinct(sa -> sa.getShift().getShiftStart()))
+						ConstraintCollectors.countDistinct(sa -> sa.getShift().getEpochDay()))
 				.filter((employee, daysWorked) -> daysWorked > employee.getDaysOn())
 				.penalize(HardSoftLongScore.ONE_HARD, (employee, daysWorked) -> daysWorked - employee.getDaysOn())
 				.asConstraint("Too many working days in 4-week cycle");
@@ -254,7 +260,7 @@ public class RotaConstraintProvider implements ConstraintProvider {
 				.filter(sa -> sa.getEmployee() != null && sa.getEmployee().getDaysOff() != null
 						&& sa.getEmployee().getDaysOff() > 0)
 				.groupBy(ShiftAssignment::getEmployee,
-						ConstraintCollectors.countDistinct(sa -> sa.getShift().getShiftStart()))
+						ConstraintCollectors.countDistinct(sa -> sa.getShift().getEpochDay()))
 				.filter((employee, daysWorked) -> {
 					int totalDays = 28;
 					int daysOff = totalDays - daysWorked;
@@ -270,7 +276,7 @@ public class RotaConstraintProvider implements ConstraintProvider {
 		return factory.forEach(ShiftAssignment.class)
 				.filter(sa -> sa.getEmployee() != null && sa.getEmployee().getWeekOn() != null
 						&& sa.getEmployee().getWeekOn() > 0)
-				.groupBy(ShiftAssignment::getEmployee, sa -> YearWeek.from(sa.getShift().getShiftStart()))
+				.groupBy(ShiftAssignment::getEmployee, sa -> sa.getShift().getYearWeek())
 				.groupBy((employee, week) -> employee, ConstraintCollectors.toList((employee, week) -> week))
 				.filter((employee, weeksList) -> {
 					int maxConsecutive = calculateMaxConsecutiveWeeks(weeksList);
@@ -286,7 +292,7 @@ public class RotaConstraintProvider implements ConstraintProvider {
 				.filter(sa -> sa.getEmployee() != null && sa.getEmployee().getWeekOn() != null
 						&& sa.getEmployee().getWeekOff() != null && sa.getEmployee().getWeekOn() > 0
 						&& sa.getEmployee().getWeekOff() > 0)
-				.groupBy(ShiftAssignment::getEmployee, sa -> YearWeek.from(sa.getShift().getShiftStart()))
+				.groupBy(ShiftAssignment::getEmployee, sa -> sa.getShift().getYearWeek())
 				.groupBy((employee, week) -> employee, ConstraintCollectors.toList((employee, week) -> week))
 				.filter((employee, weeksList) -> hasInsufficientWeeksOff(employee, weeksList))
 				.penalize(HardSoftLongScore.ONE_HARD).asConstraint("Insufficient weeks off after work streak");
@@ -298,7 +304,7 @@ public class RotaConstraintProvider implements ConstraintProvider {
 		return factory.forEach(ShiftAssignment.class).filter(sa -> sa.getEmployee() != null)
 				.filter(sa -> !excludedShiftTypes.contains(sa.getShift().getShiftTemplate().getShiftType()))
 				.groupBy(ShiftAssignment::getEmployee,
-						ConstraintCollectors.sumLong(sa -> sa.getShift().getDurationInMins()))
+						ConstraintCollectors.sumLong(sa -> sa.getShift().getDurationMins()))
 				.filter((employee, totalMinutes) -> totalMinutes > 270 * 60L)
 				.penalize(HardSoftLongScore.ofHard(100),
 						(employee, totalMinutes) -> (int) Math.min(Integer.MAX_VALUE, (totalMinutes - 270 * 60L) / 60))
@@ -314,8 +320,8 @@ public class RotaConstraintProvider implements ConstraintProvider {
 
 	private Constraint minWeeklyHoursConstraint(ConstraintFactory factory) {
 		return factory.forEachIncludingNullVars(ShiftAssignment.class).filter(sa -> sa.getEmployee() != null)
-				.groupBy(ShiftAssignment::getEmployee, sa -> YearWeek.from(sa.getShift().getShiftStart()),
-						ConstraintCollectors.sumLong(sa -> sa.getShift().getDurationInMins()))
+				.groupBy(ShiftAssignment::getEmployee, sa -> sa.getShift().getYearWeek(),
+						ConstraintCollectors.sumLong(sa -> sa.getShift().getDurationMins()))
 				.filter((employee, week, totalMinutes) -> totalMinutes < (employee.getMinHrs().longValue() * 60))
 				.penalize(HardSoftLongScore.ofSoft(500), (employee, week, totalMinutes) -> {
 					long minMinutes = employee.getMinHrs().longValue() * 60;
@@ -391,18 +397,10 @@ public class RotaConstraintProvider implements ConstraintProvider {
 	}
 
 	private Constraint employeeSchedulePatternConstraint(ConstraintFactory factory) {
-		return factory.forEachIncludingNullVars(ShiftAssignment.class).filter(sa -> {
-			Employee emp = sa.getEmployee();
-			if (emp == null) {
-				return false;
-			}
-
-			String location = sa.getShift().getShiftTemplate().getLocation();
-			LocalDate date = sa.getShift().getShiftStart();
-			ShiftType shiftType = sa.getShift().getShiftTemplate().getShiftType();
-
-			return !emp.canWorkShift(location, date, shiftType);
-		}).penalize(HardSoftLongScore.ONE_HARD).asConstraint("Employee schedule pattern violation");
+		// AvailabilityIndex is a single problem fact on Rota, so the join is 1:1 per assignment
+		return factory.forEach(ShiftAssignment.class).join(AvailabilityIndex.class)
+				.filter((sa, availability) -> !availability.isAvailable(sa.getEmployee(), sa.getShift()))
+				.penalize(HardSoftLongScore.ONE_HARD).asConstraint("Employee schedule pattern violation");
 	}
 
 	// ========== HELPER METHODS ==========
@@ -413,35 +411,50 @@ public class RotaConstraintProvider implements ConstraintProvider {
 		if (dayAssignments.size() == 1)
 			return true; // any single shift is OK
 
-		// Extract type and location
-		List<ShiftType> types = dayAssignments.stream().map(sa -> sa.getShift().getShiftTemplate().getShiftType())
-				.toList();
-		List<String> locations = dayAssignments.stream().map(sa -> sa.getShift().getShiftTemplate().getLocation())
-				.toList();
+		// Classify by shift type ordinal / location index (no per-call lists or streams)
+		int size = dayAssignments.size();
+		boolean allFloating = true;
+		boolean containsFloating = false;
+		boolean containsNonFloating = false;
+		for (ShiftAssignment sa : dayAssignments) {
+			int type = sa.getShift().getShiftTypeOrdinal();
+			if (type == FLOATING) {
+				containsFloating = true;
+			} else {
+				allFloating = false;
+				if (type == DAY || type == LONG_DAY || type == WAKING_NIGHT || type == SLEEP_IN) {
+					containsNonFloating = true;
+				}
+			}
+		}
 
-		boolean allFloating = types.stream().allMatch(t -> t == ShiftType.FLOATING);
 		if (allFloating) {
 			// Allow multiple FLOATING but enforce all at DIFFERENT locations
-			long distinctLocs = locations.stream().distinct().count();
-			return distinctLocs == locations.size();
+			for (int i = 0; i < size; i++) {
+				int location = dayAssignments.get(i).getShift().getLocationIndex();
+				for (int j = i + 1; j < size; j++) {
+					if (dayAssignments.get(j).getShift().getLocationIndex() == location) {
+						return false;
+					}
+				}
+			}
+			return true;
 		}
 
 		// Disallow mixing FLOATING with any non-floating
-		boolean containsFloating = types.stream().anyMatch(t -> t == ShiftType.FLOATING);
-		boolean containsNonFloating = types.stream().anyMatch(t -> t == ShiftType.DAY || t == ShiftType.LONG_DAY
-				|| t == ShiftType.WAKING_NIGHT || t == ShiftType.SLEEP_IN);
 		if (containsFloating && containsNonFloating) {
 			return false;
 		}
 
 		// Non-floating combos:
-		if (dayAssignments.size() == 2) {
+		if (size == 2) {
 			// Allow exactly LONG_DAY + SLEEP_IN at the SAME location
-			ShiftType t1 = types.get(0);
-			ShiftType t2 = types.get(1);
-			boolean ldSiPair = (t1 == ShiftType.LONG_DAY && t2 == ShiftType.SLEEP_IN)
-					|| (t1 == ShiftType.SLEEP_IN && t2 == ShiftType.LONG_DAY);
-			boolean sameLocation = locations.get(0) != null && locations.get(0).equals(locations.get(1));
+			Shift s1 = dayAssignments.get(0).getShift();
+			Shift s2 = dayAssignments.get(1).getShift();
+			int t1 = s1.getShiftTypeOrdinal();
+			int t2 = s2.getShiftTypeOrdinal();
+			boolean ldSiPair = (t1 == LONG_DAY && t2 == SLEEP_IN) || (t1 == SLEEP_IN && t2 == LONG_DAY);
+			boolean sameLocation = s1.getLocationIndex() >= 0 && s1.getLocationIndex() == s2.getLocationIndex();
 			return ldSiPair && sameLocation;
 		}
 
@@ -453,14 +466,14 @@ public class RotaConstraintProvider implements ConstraintProvider {
 
 	// ✅ FIXED: Only handles NEXT-DAY transitions (skips same-day)
 	private boolean areIncompatibleBackToBack(ShiftAssignment sa1, ShiftAssignment sa2) {
-		LocalDate date1 = sa1.getShift().getShiftStart();
-		LocalDate date2 = sa2.getShift().getShiftStart();
+		int day1 = sa1.getShift().getEpochDay();
+		int day2 = sa2.getShift().getEpochDay();
 
 		ShiftType type1 = sa1.getShift().getShiftTemplate().getShiftType();
 		ShiftType type2 = sa2.getShift().getShiftTemplate().getShiftType();
 
-		boolean sameDay = date1.equals(date2);
-		boolean nextDay = date1.plusDays(1).equals(date2);
+		boolean sameDay = day1 == day2;
+		boolean nextDay = day1 + 1 == day2;
 
 		// ✅ CRITICAL FIX: Skip same-day checks - let noInvalidSameDayShifts handle them
 		if (sameDay) {
@@ -520,9 +533,9 @@ public class RotaConstraintProvider implements ConstraintProvider {
 	private Constraint minDaysPerLocationPerWeek(ConstraintFactory factory) {
 		return factory.forEach(ShiftAssignment.class).filter(sa -> sa.getEmployee() != null)
 				.filter(sa -> sa.getShift().getShiftTemplate().getShiftType() != ShiftType.SLEEP_IN)
-				.groupBy(ShiftAssignment::getEmployee, sa -> sa.getShift().getShiftTemplate().getLocation(),
-						sa -> getWeekNumber(sa.getShift().getShiftStart()),
-						ConstraintCollectors.countDistinct(sa -> sa.getShift().getShiftStart()))
+				.groupBy(ShiftAssignment::getEmployee, sa -> sa.getShift().getLocationIndex(),
+						sa -> sa.getShift().getIsoWeek(),
+						ConstraintCollectors.countDistinct(sa -> sa.getShift().getEpochDay()))
 				.filter((emp, location, weekNum, dayCount) -> dayCount == 1).penalize(HardSoftLongScore.ofSoft(200000))
 				.asConstraint("Min 2 days per location per week (SOFT)");
 	}
@@ -530,9 +543,9 @@ public class RotaConstraintProvider implements ConstraintProvider {
 	private Constraint maxDaysPerLocationPerWeek(ConstraintFactory factory) {
 		return factory.forEach(ShiftAssignment.class).filter(sa -> sa.getEmployee() != null)
 				.filter(sa -> sa.getShift().getShiftTemplate().getShiftType() != ShiftType.SLEEP_IN)
-				.groupBy(ShiftAssignment::getEmployee, sa -> sa.getShift().getShiftTemplate().getLocation(),
-						sa -> getWeekNumber(sa.getShift().getShiftStart()),
-						ConstraintCollectors.countDistinct(sa -> sa.getShift().getShiftStart()))
+				.groupBy(ShiftAssignment::getEmployee, sa -> sa.getShift().getLocationIndex(),
+						sa -> sa.getShift().getIsoWeek(),
+						ConstraintCollectors.countDistinct(sa -> sa.getShift().getEpochDay()))
 				.filter((emp, location, weekNum, dayCount) -> dayCount > 5)
 				.penalize(HardSoftLongScore.ofSoft(10000), (emp, location, weekNum, dayCount) -> (dayCount - 5) * 50)
 				.asConstraint("Max 5 days per location per week");
@@ -542,36 +555,24 @@ public class RotaConstraintProvider implements ConstraintProvider {
 		return factory.forEach(ShiftAssignment.class).filter(sa -> sa.getEmployee() != null)
 				.filter(sa -> sa.getShift().getShiftTemplate().getShiftType() != ShiftType.SLEEP_IN)
 				.join(ShiftAssignment.class, Joiners.equal(ShiftAssignment::getEmployee),
-						Joiners.filtering((sa1, sa2) -> {
-							LocalDate date1 = sa1.getShift().getShiftStart();
-							LocalDate date2 = sa2.getShift().getShiftStart();
-							return date2.equals(date1.plusDays(1));
-						}))
-				.filter((sa1, sa2) -> {
-					String loc1 = sa1.getShift().getShiftTemplate().getLocation();
-					String loc2 = sa2.getShift().getShiftTemplate().getLocation();
-					return !loc1.equals(loc2);
-				}).penalize(HardSoftLongScore.ofSoft(1500000)).asConstraint("Penalize daily location switches");
+						Joiners.equal(sa -> sa.getShift().getEpochDay() + 1, sa -> sa.getShift().getEpochDay()))
+				.filter((sa1, sa2) -> sa1.getShift().getLocationIndex() != sa2.getShift().getLocationIndex()).penalize(HardSoftLongScore.ofSoft(1500000)).asConstraint("Penalize daily location switches");
 	}
 
 	private Constraint rewardConsecutiveDaysAtLocation(ConstraintFactory factory) {
 		return factory.forEach(ShiftAssignment.class).filter(sa -> sa.getEmployee() != null)
 				.filter(sa -> sa.getShift().getShiftTemplate().getShiftType() != ShiftType.SLEEP_IN)
 				.join(ShiftAssignment.class, Joiners.equal(ShiftAssignment::getEmployee),
-						Joiners.equal(sa -> sa.getShift().getShiftTemplate().getLocation()),
-						Joiners.filtering((sa1, sa2) -> {
-							LocalDate date1 = sa1.getShift().getShiftStart();
-							LocalDate date2 = sa2.getShift().getShiftStart();
-							return date2.equals(date1.plusDays(1));
-						}))
+						Joiners.equal(sa -> sa.getShift().getLocationIndex()),
+						Joiners.equal(sa -> sa.getShift().getEpochDay() + 1, sa -> sa.getShift().getEpochDay()))
 				.reward(HardSoftLongScore.ofSoft(500000)).asConstraint("Reward consecutive days at same location");
 	}
 
 	private Constraint limitLocationChangesPerWeek(ConstraintFactory factory) {
 		return factory.forEach(ShiftAssignment.class).filter(sa -> sa.getEmployee() != null)
 				.filter(sa -> sa.getShift().getShiftTemplate().getShiftType() != ShiftType.SLEEP_IN)
-				.groupBy(ShiftAssignment::getEmployee, sa -> getWeekNumber(sa.getShift().getShiftStart()),
-						ConstraintCollectors.countDistinct(sa -> sa.getShift().getShiftTemplate().getLocation()))
+				.groupBy(ShiftAssignment::getEmployee, sa -> sa.getShift().getIsoWeek(),
+						ConstraintCollectors.countDistinct(sa -> sa.getShift().getLocationIndex()))
 				.penalize(HardSoftLongScore.ofSoft(1000), (emp, weekNum, locationCount) -> {
 					if (locationCount <= 2) {
 						return 0;
@@ -608,30 +609,37 @@ public class RotaConstraintProvider implements ConstraintProvider {
 		return factory.forEach(ShiftAssignment.class).filter(sa -> sa.getEmployee() != null)
 				.filter(sa -> sa.getShift().getShiftTemplate().getShiftType() != ShiftType.SLEEP_IN)
 				.groupBy(ShiftAssignment::getEmployee,
-						ConstraintCollectors.countDistinct(sa -> sa.getShift().getShiftTemplate().getLocation()))
+						ConstraintCollectors.countDistinct(sa -> sa.getShift().getLocationIndex()))
 				.filter((emp, locationCount) -> locationCount > 3)
 				.penalize(HardSoftLongScore.ONE_HARD, (emp, locationCount) -> locationCount - 3)
 				.asConstraint("Max 3 locations per period");
 	}
 
 	private record YearWeek(int year, int week) {
-		public static YearWeek from(LocalDate date) {
-			WeekFields wf = WeekFields.ISO;
-			return new YearWeek(date.get(wf.weekBasedYear()), date.get(wf.weekOfWeekBasedYear()));
+		// Unpacks Shift.getYearWeek() (yyyyww)
+		public static YearWeek of(int yearWeek) {
+			return new YearWeek(yearWeek / 100, yearWeek % 100);
 		}
 	}
 
-	private int getWeekNumber(LocalDate date) {
-		return date.get(WeekFields.ISO.weekOfWeekBasedYear());
+	// yyyyww keys sort in calendar order, so a plain int sort is enough
+	private List<YearWeek> sortedDistinctWeeks(List<Integer> weeksList) {
+		return weeksList.stream().mapToInt(Integer::intValue).distinct().sorted().mapToObj(YearWeek::of).toList();
+	}
+
+	private static long[] byShiftTypeOrdinal(Map<ShiftType, Integer> limits, long defaultValue, long multiplier) {
+		long[] values = new long[ShiftType.values().length];
+		Arrays.fill(values, defaultValue);
+		limits.forEach((type, limit) -> values[type.ordinal()] = limit * multiplier);
+		return values;
 	}
 
-	private int calculateMaxConsecutiveWeeks(List<YearWeek> weeksList) {
+	private int calculateMaxConsecutiveWeeks(List<Integer> weeksList) {
 		if (weeksList == null || weeksList.isEmpty()) {
 			return 0;
 		}
 
-		List<YearWeek> sortedWeeks = weeksList.stream().distinct()
-				.sorted(Comparator.comparingInt(YearWeek::year).thenComparingInt(YearWeek::week)).toList();
+		List<YearWeek> sortedWeeks = sortedDistinctWeeks(weeksList);
 
 		if (sortedWeeks.size() == 1) {
 			return 1;
@@ -667,13 +675,12 @@ public class RotaConstraintProvider implements ConstraintProvider {
 		return false;
 	}
 
-	private boolean hasInsufficientWeeksOff(Employee employee, List<YearWeek> weeksList) {
+	private boolean hasInsufficientWeeksOff(Employee employee, List<Integer> weeksList) {
 		if (weeksList == null || weeksList.size() < employee.getWeekOn()) {
 			return false;
 		}
 
-		List<YearWeek> sortedWeeks = weeksList.stream().distinct()
-				.sorted(Comparator.comparingInt(YearWeek::year).thenComparingInt(YearWeek::week)).toList();
+		List<YearWeek> sortedWeeks = sortedDistinctWeeks(weeksList);
 
 		int currentStreak = 1;
 
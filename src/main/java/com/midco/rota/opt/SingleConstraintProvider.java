@@ -0,0 +1,43 @@
+package com.midco.rota.opt;
+
+import java.util.Arrays;
+
+import org.optaplanner.core.api.score.stream.Constraint;
+import org.optaplanner.core.api.score.stream.ConstraintFactory;
+import org.optaplanner.core.api.score.stream.ConstraintProvider;
+
+/**
+ * Wraps {@link RotaConstraintProvider} and keeps only the constraint named by
+ * the "constraintName" custom property, so each constraint can be scored in
+ * isolation. {@link #ALL} keeps the full set. Used by ConstraintProfileService
+ * and the JMH constraint benchmarks.
+ */
+public class SingleConstraintProvider implements ConstraintProvider {
+
+	public static final String ALL = "ALL";
+
+	private String constraintName = ALL;
+
+	@Override
+	public Constraint[] defineConstraints(ConstraintFactory factory) {
+		Constraint[] constraints = new RotaConstraintProvider().defineConstraints(factory);
+		if (ALL.equals(constraintName)) {
+			return constraints;
+		}
+
+		Constraint[] selected = Arrays.stream(constraints).filter(c -> constraintName.equals(c.getConstraintName()))
+				.toArray(Constraint[]::new);
+		if (selected.length == 0) {
+			throw new IllegalArgumentException("Unknown constraint: " + constraintName);
+		}
+		return selected;
+	}
+
+	public String getConstraintName() {
+		return constraintName;
+	}
+
+	public void setConstraintName(String constraintName) {
+		this.constraintName = constraintName;
+	}
+}
@@ -12,6 +12,11 @@ public interface DeferredSolveRequestRepository extends JpaRepository<DeferredSo
 
 	Optional<DeferredSolveRequest> findFirstByCompletedFalse();
 
+	List<DeferredSolveRequest> findByCompletedFalseOrderByStartDateAscCreatedAtAsc();
+
+	Optional<DeferredSolveRequest> findFirstByRegionAndCompletedTrueAndRotaIdNotNullAndStartDateBeforeOrderByStartDateDesc(
+			String region, LocalDate startDate);
+
 	List<DeferredSolveRequest> findTop5ByOrderByCreatedAtDesc();
 
 	List<DeferredSolveRequest> findByRegion(String location);
@@ -30,6 +30,13 @@ public interface EmployeeRepository extends JpaRepository<Employee, Integer>, Jp
 	@Query("SELECT e FROM Employee e WHERE e.firstName = :firstName AND e.lastName = :lastName")
 	Employee findByFirstNameAndLastName(@Param("firstName") String firstName, @Param("lastName") String lastName);
 
+	/**
+	 * id, firstName, lastName of every employee, without loading the entities
+	 * (and their schedule patterns)
+	 */
+	@Query("SELECT e.id, e.firstName, e.lastName FROM Employee e")
+	List<Object[]> findAllIdsAndNames();
+
 	Page<Employee> findAll(Specification<Employee> specification, Pageable pageable);
 
 	/**
@@ -4,6 +4,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -64,6 +65,10 @@ public interface LearningRepository extends JpaRepository<Learning, Long> {
     @Query("SELECT l.type, COUNT(l) FROM Learning l GROUP BY l.type")
     List<Object[]> countByType();
     
+    // Count and average confidence per type and applied flag (learning statistics in one query)
+    @Query("SELECT l.type, l.applied, COUNT(l), AVG(l.confidence) FROM Learning l GROUP BY l.type, l.applied")
+    List<Object[]> countAndAverageConfidenceByTypeAndApplied();
+    
     // Get average confidence of pending learnings
     @Query("SELECT AVG(l.confidence) FROM Learning l WHERE l.applied = false")
     Double getAveragePendingConfidence();
@@ -90,6 +95,11 @@ public interface LearningRepository extends JpaRepository<Learning, Long> {
     @Query("SELECT l FROM Learning l WHERE l.employeeId = :employeeId AND l.applied = false ORDER BY l.confidence DESC")
     List<Learning> findPendingByEmployeeOrderedByConfidence(@Param("employeeId") Integer employeeId);
     
+    // Mark learnings applied in one statement
+    @Modifying
+    @Query("UPDATE Learning l SET l.applied = true, l.appliedDate = :appliedDate WHERE l.id IN :ids")
+    int markApplied(@Param("ids") List<Long> ids, @Param("appliedDate") LocalDateTime appliedDate);
+    
     // Delete old applied learnings (cleanup)
     void deleteByAppliedTrueAndAppliedDateBefore(LocalDateTime dateTime);
 }
\ No newline at end of file
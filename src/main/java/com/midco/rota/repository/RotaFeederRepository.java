@@ -62,6 +62,13 @@ public interface RotaFeederRepository extends JpaRepository<RotaFeeder, Long> {
                                       @Param("startDate") LocalDate startDate, 
                                       @Param("endDate") LocalDate endDate);
     
+    // Count entries with an employee by emp_source and date range
+    @Query("SELECT COUNT(rf) FROM RotaFeeder rf WHERE rf.empSource = :empSource AND rf.shiftStart BETWEEN :startDate AND :endDate " +
+           "AND rf.firstName IS NOT NULL AND rf.lastName IS NOT NULL")
+    Long countAssignedByEmpSourceAndDateRange(@Param("empSource") String empSource, 
+                                              @Param("startDate") LocalDate startDate, 
+                                              @Param("endDate") LocalDate endDate);
+    
     // Get statistics by location
     @Query("SELECT rf.location, rf.empSource, COUNT(rf) FROM RotaFeeder rf " +
            "WHERE rf.shiftStart BETWEEN :startDate AND :endDate " +
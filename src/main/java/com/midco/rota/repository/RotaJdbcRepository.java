@@ -0,0 +1,353 @@
+package com.midco.rota.repository;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.midco.rota.model.Employee;
+import com.midco.rota.model.Rota;
+import com.midco.rota.model.RotaCorrection;
+import com.midco.rota.model.Shift;
+import com.midco.rota.model.ShiftAssignment;
+import com.midco.rota.model.ShiftTemplate;
+import com.midco.rota.util.ShiftType;
+
+/**
+ * Bulk write path for solved rotas and extracted corrections, and the flat
+ * read path for exports.
+ *
+ * rotaRepository.save() cascades rota -> assignment -> shift one INSERT at a
+ * time (IDENTITY ids disable Hibernate batching). Here the same rows go out as
+ * JDBC batches of {@link #BATCH_SIZE}, generated ids are read back per batch
+ * and set on the in-memory objects, so the solution can be used as if JPA had
+ * saved it.
+ *
+ * Writes must run inside the caller's transaction; JdbcTemplate joins it.
+ */
+@Repository
+public class RotaJdbcRepository {
+
+	private static final int BATCH_SIZE = 1000;
+
+	private static final String INSERT_ROTA = "INSERT INTO rota DEFAULT VALUES";
+	private static final String INSERT_ROTA_EMPLOYEE = "INSERT INTO rota_employee (rota_id, employee_id) VALUES (?, ?)";
+	private static final String INSERT_SHIFT = "INSERT INTO shift (shift_start, shift_end, shift_template_id) VALUES (?, ?, ?)";
+	private static final String INSERT_ASSIGNMENT = "INSERT INTO rota_shift_assignment (shift_id, employee_id, rota_id, is_pinned) VALUES (?, ?, ?, ?)";
+	private static final String INSERT_ASSIGNMENT_VERSION = "INSERT INTO shift_assignment_version (version_id, shift_id, employee_id, rota_id, assigned_at) VALUES (?, ?, ?, ?, ?)";
+	private static final String INSERT_CORRECTION = "INSERT INTO rota_correction (shift_assignment_id, original_employee_id, corrected_employee_id, correction_reason, correction_date, location, shift_type, day_of_week, shift_date, source, week) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+	private static final int FETCH_SIZE = 500;
+
+	private static final String SELECT_ROTA_EMPLOYEE_IDS = "SELECT employee_id FROM rota_employee WHERE rota_id = ?";
+	private static final String SELECT_EXPORT_ROWS = """
+			SELECT rsa.id, rsa.is_pinned, s.id AS shift_id, s.shift_start, s.shift_end,
+			       st.id AS template_id, st.location, st.region, st.shift_type, st.day_of_week,
+			       st.start_time, st.end_time, st.break_start, st.break_end, st.emp_count,
+			       e.id AS employee_id, e.first_name, e.last_name
+			FROM rota_shift_assignment rsa
+			JOIN shift s ON s.id = rsa.shift_id
+			JOIN shift_templates st ON st.id = s.shift_template_id
+			LEFT JOIN employee e ON e.id = rsa.employee_id
+			WHERE rsa.rota_id = ?
+			ORDER BY s.shift_start, rsa.id""";
+
+	private final JdbcTemplate jdbcTemplate;
+
+	public RotaJdbcRepository(JdbcTemplate jdbcTemplate) {
+		this.jdbcTemplate = jdbcTemplate;
+	}
+
+	/**
+	 * Insert a new rota with its employees, shifts and assignments. Sets the
+	 * generated ids on the rota, the shifts and the assignments.
+	 */
+	public Rota insertRota(Rota rota) {
+		return jdbcTemplate.execute((ConnectionCallback<Rota>) con -> {
+			try (PreparedStatement ps = con.prepareStatement(INSERT_ROTA, new String[] { "id" })) {
+				ps.executeUpdate();
+				try (ResultSet keys = ps.getGeneratedKeys()) {
+					keys.next();
+					rota.setId(keys.getLong(1));
+				}
+			}
+
+			// ========== EMPLOYEES ==========
+			List<Employee> employees = rota.getEmployeeList() != null ? rota.getEmployeeList() : List.of();
+			try (PreparedStatement ps = con.prepareStatement(INSERT_ROTA_EMPLOYEE)) {
+				int pending = 0;
+				for (Employee emp : employees) {
+					ps.setLong(1, rota.getId());
+					ps.setInt(2, emp.getId());
+					ps.addBatch();
+					if (++pending == BATCH_SIZE) {
+						ps.executeBatch();
+						pending = 0;
+					}
+				}
+				if (pending > 0) {
+					ps.executeBatch();
+				}
+			}
+
+			// ========== SHIFTS ==========
+			// Shifts are shared between assignments by reference, insert each new one once
+			Map<Shift, Boolean> seen = new IdentityHashMap<>();
+			List<Shift> newShifts = new ArrayList<>();
+			for (ShiftAssignment sa : rota.getShiftAssignmentList()) {
+				Shift shift = sa.getShift();
+				if (shift != null && shift.getId() == null && seen.put(shift, Boolean.TRUE) == null) {
+					newShifts.add(shift);
+				}
+			}
+			List<Long> shiftIds = insertReturningIds(con, INSERT_SHIFT, newShifts, (ps, shift) -> {
+				ps.setDate(1, shift.getShiftStart() != null ? Date.valueOf(shift.getShiftStart()) : null);
+				ps.setDate(2, shift.getShiftEnd() != null ? Date.valueOf(shift.getShiftEnd()) : null);
+				if (shift.getShiftTemplate() != null) {
+					ps.setInt(3, shift.getShiftTemplate().getId());
+				} else {
+					ps.setNull(3, Types.INTEGER);
+				}
+			});
+			for (int i = 0; i < newShifts.size(); i++) {
+				newShifts.get(i).setId(shiftIds.get(i));
+			}
+
+			// ========== ASSIGNMENTS ==========
+			List<ShiftAssignment> assignments = rota.getShiftAssignmentList();
+			List<Long> assignmentIds = insertReturningIds(con, INSERT_ASSIGNMENT, assignments, (ps, sa) -> {
+				if (sa.getShift() != null) {
+					ps.setLong(1, sa.getShift().getId());
+				} else {
+					ps.setNull(1, Types.BIGINT);
+				}
+				if (sa.getEmployee() != null) {
+					ps.setInt(2, sa.getEmployee().getId());
+				} else {
+					ps.setNull(2, Types.INTEGER);
+				}
+				ps.setLong(3, rota.getId());
+				ps.setBoolean(4, sa.isPinned());
+			});
+			for (int i = 0; i < assignments.size(); i++) {
+				assignments.get(i).setId(assignmentIds.get(i));
+				assignments.get(i).setRota(rota);
+			}
+
+			return rota;
+		});
+	}
+
+	/**
+	 * Version rows (shift id -> employee id per assignment, null for
+	 * unassigned), as a full snapshot or a delta.
+	 */
+	public int insertAssignmentVersions(Long versionId, Long rotaId, Map<Long, List<Integer>> employeesByShiftId) {
+		List<Map.Entry<Long, Integer>> rows = new ArrayList<>();
+		employeesByShiftId.forEach((shiftId, employeeIds) -> employeeIds
+				.forEach(employeeId -> rows.add(new AbstractMap.SimpleEntry<>(shiftId, employeeId))));
+
+		Timestamp assignedAt = Timestamp.valueOf(LocalDateTime.now());
+		int[][] counts = jdbcTemplate.batchUpdate(INSERT_ASSIGNMENT_VERSION, rows, BATCH_SIZE, (ps, row) -> {
+			ps.setLong(1, versionId);
+			ps.setLong(2, row.getKey());
+			if (row.getValue() != null) {
+				ps.setInt(3, row.getValue());
+			} else {
+				ps.setNull(3, Types.INTEGER);
+			}
+			ps.setLong(4, rotaId);
+			ps.setTimestamp(5, assignedAt);
+		});
+
+		int total = 0;
+		for (int[] batch : counts) {
+			total += batch.length;
+		}
+		return total;
+	}
+
+	/**
+	 * Insert new corrections and set their generated ids.
+	 */
+	public List<RotaCorrection> insertCorrections(List<RotaCorrection> corrections) {
+		return jdbcTemplate.execute((ConnectionCallback<List<RotaCorrection>>) con -> {
+			List<Long> ids = insertReturningIds(con, INSERT_CORRECTION, corrections, (ps, rc) -> {
+				if (rc.getShiftAssignment() != null) {
+					ps.setLong(1, rc.getShiftAssignment().getId());
+				} else {
+					ps.setNull(1, Types.BIGINT);
+				}
+				setEmployeeId(ps, 2, rc.getOriginalEmployee());
+				setEmployeeId(ps, 3, rc.getCorrectedEmployee());
+				ps.setString(4, rc.getCorrectionReason());
+				ps.setTimestamp(5, rc.getCorrectionDate() != null ? Timestamp.valueOf(rc.getCorrectionDate()) : null);
+				ps.setString(6, rc.getLocation());
+				ps.setString(7, rc.getShiftType() != null ? rc.getShiftType().name() : null);
+				ps.setString(8, rc.getDayOfWeek() != null ? rc.getDayOfWeek().name() : null);
+				ps.setDate(9, rc.getShiftDate() != null ? Date.valueOf(rc.getShiftDate()) : null);
+				ps.setString(10, rc.getSource());
+				ps.setString(11, rc.getWeek());
+			});
+			for (int i = 0; i < corrections.size(); i++) {
+				corrections.get(i).setId(ids.get(i));
+			}
+			return corrections;
+		});
+	}
+
+	public List<Integer> findEmployeeIds(Long rotaId) {
+		return jdbcTemplate.queryForList(SELECT_ROTA_EMPLOYEE_IDS, Integer.class, rotaId);
+	}
+
+	/**
+	 * Stream a rota's assignments for export, one shift date at a time, in
+	 * date order.
+	 *
+	 * Rows come from a flat projection read through a server-side cursor
+	 * ({@link #FETCH_SIZE} rows per round trip; Postgres only uses a cursor
+	 * inside a transaction, hence readOnly). The objects handed out are plain
+	 * unmanaged instances: shift, template and names only, with templates and
+	 * employees shared by id. Only one date's rows are held at a time.
+	 */
+	@Transactional(readOnly = true)
+	public void streamAssignmentsByDate(Long rotaId, Consumer<List<ShiftAssignment>> dayConsumer) {
+		Map<Integer, ShiftTemplate> templates = new HashMap<>();
+		Map<Integer, Employee> employees = new HashMap<>();
+		List<ShiftAssignment> day = new ArrayList<>();
+
+		jdbcTemplate.query(con -> {
+			PreparedStatement ps = con.prepareStatement(SELECT_EXPORT_ROWS, ResultSet.TYPE_FORWARD_ONLY,
+					ResultSet.CONCUR_READ_ONLY);
+			ps.setFetchSize(FETCH_SIZE);
+			ps.setLong(1, rotaId);
+			return ps;
+		}, (RowCallbackHandler) rs -> {
+			LocalDate shiftStart = rs.getObject("shift_start", LocalDate.class);
+			if (!day.isEmpty() && !day.get(0).getShift().getShiftStart().equals(shiftStart)) {
+				dayConsumer.accept(day);
+				day.clear();
+			}
+
+			ShiftTemplate template = templates.computeIfAbsent(rs.getInt("template_id"), id -> toTemplate(id, rs));
+			Shift shift = new Shift();
+			shift.setId(rs.getLong("shift_id"));
+			shift.setShiftStart(shiftStart);
+			shift.setShiftEnd(rs.getObject("shift_end", LocalDate.class));
+			shift.setShiftTemplate(template);
+
+			ShiftAssignment sa = new ShiftAssignment();
+			sa.setId(rs.getLong("id"));
+			sa.setShift(shift);
+			sa.setPinned(rs.getBoolean("is_pinned"));
+			int employeeId = rs.getInt("employee_id");
+			if (!rs.wasNull()) {
+				sa.setEmployee(employees.computeIfAbsent(employeeId, id -> toEmployee(id, rs)));
+			}
+			day.add(sa);
+		});
+
+		if (!day.isEmpty()) {
+			dayConsumer.accept(day);
+		}
+	}
+
+	private static ShiftTemplate toTemplate(Integer id, ResultSet rs) {
+		try {
+			ShiftTemplate template = new ShiftTemplate();
+			template.setId(id);
+			template.setLocation(rs.getString("location"));
+			template.setRegion(rs.getString("region"));
+			String shiftType = rs.getString("shift_type");
+			template.setShiftType(shiftType != null ? ShiftType.valueOf(shiftType) : null);
+			String dayOfWeek = rs.getString("day_of_week");
+			template.setDayOfWeek(dayOfWeek != null ? DayOfWeek.valueOf(dayOfWeek) : null);
+			template.setStartTime(rs.getObject("start_time", LocalTime.class));
+			template.setEndTime(rs.getObject("end_time", LocalTime.class));
+			template.setBreakStart(rs.getObject("break_start", LocalTime.class));
+			template.setBreakEnd(rs.getObject("break_end", LocalTime.class));
+			template.setEmpCount(rs.getInt("emp_count"));
+			return template;
+		} catch (SQLException e) {
+			throw new IllegalStateException("Failed to read shift template " + id, e);
+		}
+	}
+
+	private static Employee toEmployee(Integer id, ResultSet rs) {
+		try {
+			Employee employee = new Employee();
+			employee.setId(id);
+			employee.setFirstName(rs.getString("first_name"));
+			employee.setLastName(rs.getString("last_name"));
+			return employee;
+		} catch (SQLException e) {
+			throw new IllegalStateException("Failed to read employee " + id, e);
+		}
+	}
+
+	private static void setEmployeeId(PreparedStatement ps, int index, Employee employee) throws SQLException {
+		if (employee != null) {
+			ps.setInt(index, employee.getId());
+		} else {
+			ps.setNull(index, Types.INTEGER);
+		}
+	}
+
+	@FunctionalInterface
+	private interface RowSetter<T> {
+		void setValues(PreparedStatement ps, T row) throws SQLException;
+	}
+
+	/**
+	 * Batched insert returning the generated id of every row, in row order.
+	 */
+	private static <T> List<Long> insertReturningIds(Connection con, String sql, List<T> rows, RowSetter<T> setter)
+			throws SQLException {
+		List<Long> ids = new ArrayList<>(rows.size());
+		if (rows.isEmpty()) {
+			return ids;
+		}
+
+		try (PreparedStatement ps = con.prepareStatement(sql, new String[] { "id" })) {
+			for (int start = 0; start < rows.size(); start += BATCH_SIZE) {
+				int end = Math.min(rows.size(), start + BATCH_SIZE);
+				for (int i = start; i < end; i++) {
+					setter.setValues(ps, rows.get(i));
+					ps.addBatch();
+				}
+				ps.executeBatch();
+				try (ResultSet keys = ps.getGeneratedKeys()) {
+					while (keys.next()) {
+						ids.add(keys.getLong(1));
+					}
+				}
+			}
+		}
+
+		if (ids.size() != rows.size()) {
+			throw new IncorrectResultSizeDataAccessException("Generated keys for: " + sql, rows.size(), ids.size());
+		}
+		return ids;
+	}
+}
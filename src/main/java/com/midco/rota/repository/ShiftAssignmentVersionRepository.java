@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -19,6 +20,19 @@ public interface ShiftAssignmentVersionRepository extends JpaRepository<ShiftAss
      */
     List<ShiftAssignmentVersion> findByVersionId(Long versionId);
     
+    /**
+     * Find all rows of several versions (a snapshot and the deltas on top of it)
+     */
+    List<ShiftAssignmentVersion> findByVersionIdIn(Collection<Long> versionIds);
+    
+    /**
+     * Stored row count per version: [versionId, count]. A version whose count
+     * equals its totalAssignments is a full snapshot, otherwise a delta
+     */
+    @Query("SELECT sav.versionId, COUNT(sav) FROM ShiftAssignmentVersion sav " +
+           "WHERE sav.versionId IN :versionIds GROUP BY sav.versionId")
+    List<Object[]> countRowsByVersionIds(@Param("versionIds") Collection<Long> versionIds);
+    
     /**
      * Find all assignments for a specific version and rota
      */
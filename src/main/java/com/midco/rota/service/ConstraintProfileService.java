@@ -0,0 +1,233 @@
+package com.midco.rota.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.optaplanner.constraint.streams.common.AbstractConstraintStreamScoreDirectorFactory;
+import org.optaplanner.core.api.score.ScoreExplanation;
+import org.optaplanner.core.api.score.buildin.hardsoftlong.HardSoftLongScore;
+import org.optaplanner.core.api.score.constraint.ConstraintMatchTotal;
+import org.optaplanner.core.api.score.stream.Constraint;
+import org.optaplanner.core.api.solver.SolutionManager;
+import org.optaplanner.core.api.solver.SolutionUpdatePolicy;
+import org.optaplanner.core.api.solver.SolverFactory;
+import org.optaplanner.core.config.score.director.ScoreDirectorFactoryConfig;
+import org.optaplanner.core.config.solver.SolverConfig;
+import org.optaplanner.core.impl.score.director.InnerScoreDirectorFactory;
+import org.optaplanner.core.impl.solver.DefaultSolutionManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import com.midco.rota.dto.ConstraintProfileDTO;
+import com.midco.rota.dto.ConstraintProfileDTO.ConstraintStat;
+import com.midco.rota.model.DeferredSolveRequest;
+import com.midco.rota.model.Employee;
+import com.midco.rota.model.Rota;
+import com.midco.rota.model.Shift;
+import com.midco.rota.model.ShiftAssignment;
+import com.midco.rota.opt.SingleConstraintProvider;
+import com.midco.rota.repository.DeferredSolveRequestRepository;
+import com.midco.rota.repository.EmployeeRepository;
+import com.midco.rota.repository.RotaJdbcRepository;
+import com.midco.rota.repository.ShiftAssignmentRepository;
+import com.midco.rota.util.AvailabilityIndex;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Per-constraint profile of a stored rota, for tuning RotaConstraintProvider.
+ *
+ * Production solves keep constraint matching off. Here the rota is re-scored
+ * once with matching on (match count and score impact per constraint) and,
+ * when timing is requested, once per constraint with a score director that
+ * only contains that constraint (best of a few full calculations).
+ *
+ * Runs on a single thread of its own, one profile at a time, so it never
+ * takes more than one core from running solves.
+ */
+@Service
+public class ConstraintProfileService {
+
+	private static final Logger logger = LoggerFactory.getLogger(ConstraintProfileService.class);
+
+	private static final int TIMING_RUNS = 3;
+
+	private final ShiftAssignmentRepository shiftAssignmentRepository;
+	private final EmployeeRepository employeeRepository;
+	private final DeferredSolveRequestRepository deferredSolveRequestRepository;
+	private final RotaJdbcRepository rotaJdbcRepository;
+	private final PeriodService periodService;
+
+	private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+		Thread thread = new Thread(r, "constraint-profile");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	// Constraint name -> score calculation for that constraint only (or ALL)
+	private final Map<String, SolutionManager<Rota, HardSoftLongScore>> solutionManagers = new ConcurrentHashMap<>();
+
+	public ConstraintProfileService(ShiftAssignmentRepository shiftAssignmentRepository,
+			EmployeeRepository employeeRepository, DeferredSolveRequestRepository deferredSolveRequestRepository,
+			RotaJdbcRepository rotaJdbcRepository, PeriodService periodService) {
+		this.shiftAssignmentRepository = shiftAssignmentRepository;
+		this.employeeRepository = employeeRepository;
+		this.deferredSolveRequestRepository = deferredSolveRequestRepository;
+		this.rotaJdbcRepository = rotaJdbcRepository;
+		this.periodService = periodService;
+	}
+
+	public CompletableFuture<ConstraintProfileDTO> profileAsync(Long rotaId, boolean timing) {
+		return CompletableFuture.supplyAsync(() -> profile(rotaId, timing), executor);
+	}
+
+	public ConstraintProfileDTO profile(Long rotaId, boolean timing) {
+		long startTime = System.currentTimeMillis();
+		Rota rota = loadRota(rotaId);
+
+		ScoreExplanation<Rota, HardSoftLongScore> explanation = solutionManager(SingleConstraintProvider.ALL)
+				.explain(rota, SolutionUpdatePolicy.UPDATE_SCORE_ONLY);
+		Double evaluationMs = timing ? time(SingleConstraintProvider.ALL, rota) : null;
+
+		// Constraints without matches are missing from the totals but still cost time
+		Map<String, ConstraintMatchTotal<HardSoftLongScore>> totals = new LinkedHashMap<>();
+		constraintNames().forEach(name -> totals.put(name, null));
+		explanation.getConstraintMatchTotalMap().values().forEach(total -> totals.put(total.getConstraintName(), total));
+
+		List<ConstraintStat> constraints = new ArrayList<>(totals.size());
+		totals.forEach((name, total) -> {
+			HardSoftLongScore score = total != null ? total.getScore() : HardSoftLongScore.ZERO;
+			constraints.add(new ConstraintStat(name, total != null ? total.getConstraintMatchCount() : 0,
+					score.toString(), score.hardScore(), score.softScore(), timing ? time(name, rota) : null));
+		});
+		// Biggest hard impact first, then biggest soft impact either way
+		constraints.sort(Comparator.comparingLong((ConstraintStat c) -> c.getHardScore())
+				.thenComparing(c -> -Math.abs(c.getSoftScore())));
+
+		long durationMs = System.currentTimeMillis() - startTime;
+		logger.info("Profiled rota {} ({} constraints, timing {}) in {} ms, score {}", rotaId, constraints.size(),
+				timing, durationMs, explanation.getScore());
+
+		return new ConstraintProfileDTO(rotaId, String.valueOf(explanation.getScore()),
+				rota.getShiftAssignmentList().size(), evaluationMs, durationMs, constraints);
+	}
+
+	/**
+	 * Stored assignments as a fresh problem, so scoring never touches the
+	 * managed entities.
+	 *
+	 * Employees are the rota's own rota_employee rows (region staff for rotas
+	 * saved without them), so the re-score sees what was solved. There is no
+	 * session here, so every query returns its own Employee instances; the
+	 * assignments are pointed at the list instances by id, as the solver and
+	 * AvailabilityIndex compare employees by identity.
+	 */
+	private Rota loadRota(Long rotaId) {
+		List<ShiftAssignment> stored = shiftAssignmentRepository.findByRotaId(rotaId);
+		if (stored.isEmpty()) {
+			throw new IllegalArgumentException("Rota not found or empty: " + rotaId);
+		}
+
+		List<Employee> employees = new ArrayList<>(
+				employeeRepository.findAllById(rotaJdbcRepository.findEmployeeIds(rotaId)));
+		if (employees.isEmpty()) {
+			DeferredSolveRequest request = deferredSolveRequestRepository.findByRotaId(rotaId);
+			if (request != null) {
+				employees.addAll(employeeRepository.findByPreferredRegion(request.getRegion()));
+			}
+		}
+		Map<Integer, Employee> employeeMap = new HashMap<>();
+		for (Employee emp : employees) {
+			employeeMap.put(emp.getId(), emp);
+		}
+
+		List<ShiftAssignment> assignments = new ArrayList<>(stored.size());
+		for (ShiftAssignment sa : stored) {
+			Shift shift = sa.getShift();
+			if (shift == null || shift.getShiftTemplate() == null) {
+				continue;
+			}
+			shift.precomputeSolverFacts();
+
+			ShiftAssignment copy = new ShiftAssignment(shift);
+			copy.setId(sa.getId());
+			copy.setPinned(sa.isPinned());
+			if (sa.getEmployee() != null) {
+				Employee employee = employeeMap.get(sa.getEmployee().getId());
+				if (employee == null) {
+					// Assigned but no longer listed for the rota
+					employee = sa.getEmployee();
+					employeeMap.put(employee.getId(), employee);
+					employees.add(employee);
+				}
+				copy.setEmployee(employee);
+			}
+			assignments.add(copy);
+		}
+
+		if (employees.isEmpty()) {
+			throw new IllegalStateException("No employees to score rota " + rotaId);
+		}
+
+		Rota rota = new Rota(employees, assignments);
+		rota.setId(rotaId);
+		rota.setPlanningId(rotaId);
+		rota.setAvailabilityIndex(AvailabilityIndex.build(employees, assignments, periodService));
+		return rota;
+	}
+
+	/**
+	 * Best of TIMING_RUNS full score calculations, in ms. Each includes
+	 * inserting the rota into a fresh session, so compare constraints with
+	 * each other rather than adding them up.
+	 */
+	private double time(String constraintName, Rota rota) {
+		SolutionManager<Rota, HardSoftLongScore> solutionManager = solutionManager(constraintName);
+		long best = Long.MAX_VALUE;
+		for (int i = 0; i < TIMING_RUNS; i++) {
+			long start = System.nanoTime();
+			solutionManager.update(rota, SolutionUpdatePolicy.UPDATE_SCORE_ONLY);
+			best = Math.min(best, System.nanoTime() - start);
+		}
+		return best / 1_000_000d;
+	}
+
+	/**
+	 * Every constraint name in definition order, from the score director
+	 * with all constraints.
+	 */
+	private List<String> constraintNames() {
+		SolutionManager<Rota, HardSoftLongScore> all = solutionManager(SingleConstraintProvider.ALL);
+		InnerScoreDirectorFactory<Rota, HardSoftLongScore> factory = ((DefaultSolutionManager<Rota, HardSoftLongScore>) all)
+				.getScoreDirectorFactory();
+		if (!(factory instanceof AbstractConstraintStreamScoreDirectorFactory<Rota, HardSoftLongScore> streams)) {
+			return List.of();
+		}
+		return Arrays.stream(streams.getConstraints()).map(Constraint::getConstraintName).toList();
+	}
+
+	private SolutionManager<Rota, HardSoftLongScore> solutionManager(String constraintName) {
+		return solutionManagers.computeIfAbsent(constraintName, name -> {
+			SolverConfig config = SolverConfig.createFromXmlResource("solverConfig.xml", getClass().getClassLoader());
+			config.setScoreDirectorFactoryConfig(new ScoreDirectorFactoryConfig()
+					.withConstraintProviderClass(SingleConstraintProvider.class)
+					.withConstraintProviderCustomProperties(Map.of("constraintName", name)));
+			return SolutionManager.create(SolverFactory.create(config));
+		});
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		executor.shutdownNow();
+	}
+}
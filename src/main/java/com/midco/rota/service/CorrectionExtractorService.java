@@ -5,8 +5,10 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -16,8 +18,8 @@ import com.midco.rota.model.Employee;
 import com.midco.rota.model.RotaCorrection;
 import com.midco.rota.model.RotaFeeder;
 import com.midco.rota.repository.EmployeeRepository;
-import com.midco.rota.repository.RotaCorrectionRepository;
 import com.midco.rota.repository.RotaFeederRepository;
+import com.midco.rota.repository.RotaJdbcRepository;
 import com.midco.rota.util.ShiftType;
 
 /**
@@ -33,10 +35,13 @@ public class CorrectionExtractorService {
     private RotaFeederRepository rotaFeederRepository;
     
     @Autowired
-    private RotaCorrectionRepository correctionRepository;
+    private EmployeeRepository employeeRepository;
     
     @Autowired
-    private EmployeeRepository employeeRepository;
+    private RotaJdbcRepository rotaJdbcRepository;
+    
+    @Autowired
+    private PatternAnalyzer patternAnalyzer;
     
     // ============================================================================
     // CONFIGURABLE EXCLUSIONS
@@ -50,6 +55,13 @@ public class CorrectionExtractorService {
         ShiftType.SLEEP_IN  // Add more shift types here if needed: ShiftType.WAKING_NIGHT, etc.
     );
     
+    /**
+     * Corrections extracted from a date range, with the statistics of the
+     * same feeder rows (fetched once for both)
+     */
+    public record Extraction(List<RotaCorrection> corrections, Map<String, Object> stats) {
+    }
+    
     /**
      * Extract corrections from the last month
      */
@@ -66,6 +78,19 @@ public class CorrectionExtractorService {
      */
     @Transactional
     public List<RotaCorrection> extractCorrections(LocalDate startDate, LocalDate endDate) {
+        return extract(startDate, endDate).corrections();
+    }
+    
+    /**
+     * Extract corrections and compute the correction statistics in one pass
+     * over the Auto and Manual entries of the date range.
+     * 
+     * Employees are resolved from a name dictionary loaded once (instead of
+     * two queries per Manual entry) and the corrections are inserted as JDBC
+     * batches.
+     */
+    @Transactional
+    public Extraction extract(LocalDate startDate, LocalDate endDate) {
         System.out.println("\n=== EXTRACTING CORRECTIONS FROM ROTA_FEEDER ===");
         System.out.println("Date range: " + startDate + " to " + endDate);
         
@@ -78,11 +103,18 @@ public class CorrectionExtractorService {
         
         // Create map for quick lookup: location+date+shiftType -> RotaFeeder
         Map<String, RotaFeeder> autoMap = new HashMap<>();
+        long autoAssigned = 0;
         for (RotaFeeder auto : autoEntries) {
             String key = makeShiftKey(auto);
             autoMap.put(key, auto);
+            if (hasEmployee(auto)) {
+                autoAssigned++;
+            }
         }
         
+        EmployeeDirectory employees = loadEmployeeDirectory(autoMap, manualEntries);
+        LocalDateTime correctionDate = LocalDateTime.now();
+        
         // Process each manual entry and create corrections
         List<RotaCorrection> corrections = new ArrayList<>();
         int excludedCount = 0;
@@ -97,28 +129,12 @@ public class CorrectionExtractorService {
             String key = makeShiftKey(manual);
             RotaFeeder auto = autoMap.get(key);
             
-            // Find employees
-            Employee originalEmployee = null;
-            if (auto != null && auto.getFirstName() != null && auto.getLastName() != null) {
-                try {
-                    originalEmployee = employeeRepository.findByFirstNameAndLastName(
-                        auto.getFirstName(), auto.getLastName()
-                    );
-                } catch (Exception e) {
-                    // Employee not found - leave as null
-                }
-            }
+            // Find employees (null when not found or the name is not unique)
+            Employee originalEmployee = auto != null ? employees.find(auto) : null;
             
-            Employee correctedEmployee = null;
-            if (manual.getFirstName() != null && manual.getLastName() != null) {
-                try {
-                    correctedEmployee = employeeRepository.findByFirstNameAndLastName(
-                        manual.getFirstName(), manual.getLastName()
-                    );
-                } catch (Exception e) {
-                    // Employee not found - leave as null
-                    System.out.println("⚠️  Employee not found: " + manual.getFirstName() + " " + manual.getLastName());
-                }
+            Employee correctedEmployee = employees.find(manual);
+            if (correctedEmployee == null && hasEmployee(manual)) {
+                System.out.println("⚠️  Employee not found: " + manual.getFirstName() + " " + manual.getLastName());
             }
             
             // Create correction record
@@ -137,7 +153,7 @@ public class CorrectionExtractorService {
             correction.setShiftDate(manual.getShiftStart());
             correction.setWeek(manual.getWeek());
             correction.setSource("rota_feeder");
-            correction.setCorrectionDate(LocalDateTime.now());
+            correction.setCorrectionDate(correctionDate);
             
             // Determine reason if possible
             if (originalEmployee == null && correctedEmployee != null) {
@@ -150,8 +166,9 @@ public class CorrectionExtractorService {
             corrections.add(correction);
         }
         
-        // Save all corrections
-        correctionRepository.saveAll(corrections);
+        // ✅ Save all corrections as JDBC batches (IDENTITY ids disable Hibernate batching)
+        rotaJdbcRepository.insertCorrections(corrections);
+        patternAnalyzer.recordCorrections(corrections);
         
         System.out.println("=== EXTRACTION COMPLETE ===");
         System.out.println("Extracted " + corrections.size() + " corrections");
@@ -160,7 +177,8 @@ public class CorrectionExtractorService {
         }
         System.out.println();
         
-        return corrections;
+        Map<String, Object> stats = buildStats(autoEntries.size(), manualEntries.size(), autoAssigned);
+        return new Extraction(corrections, stats);
     }
     
     /**
@@ -171,11 +189,13 @@ public class CorrectionExtractorService {
         Long manualCount = rotaFeederRepository.countByEmpSourceAndDateRange("Manual", startDate, endDate);
         
         // Count assigned vs unassigned in Auto entries
-        List<RotaFeeder> autoEntries = rotaFeederRepository.findByEmpSourceAndDateRange("Auto", startDate, endDate);
-        long autoAssigned = autoEntries.stream()
-            .filter(rf -> rf.getFirstName() != null && rf.getLastName() != null)
-            .count();
-        long autoUnassigned = autoEntries.size() - autoAssigned;
+        Long autoAssigned = rotaFeederRepository.countAssignedByEmpSourceAndDateRange("Auto", startDate, endDate);
+        
+        return buildStats(autoCount, manualCount, autoAssigned);
+    }
+    
+    private Map<String, Object> buildStats(long autoCount, long manualCount, long autoAssigned) {
+        long autoUnassigned = autoCount - autoAssigned;
         
         Map<String, Object> stats = new HashMap<>();
         stats.put("totalShifts", autoCount + manualCount);
@@ -203,6 +223,68 @@ public class CorrectionExtractorService {
         return stats;
     }
     
+    // ============================================================================
+    // EMPLOYEE RESOLUTION
+    // ============================================================================
+    
+    /**
+     * Name -> employee for every name the extraction needs: one projection
+     * query for all ids and names, then one query for the matched employees.
+     * Names shared by more than one employee resolve to null, as the single
+     * result lookup by name used to.
+     */
+    private EmployeeDirectory loadEmployeeDirectory(Map<String, RotaFeeder> autoMap, List<RotaFeeder> manualEntries) {
+        Map<String, Integer> idsByName = new HashMap<>();
+        Set<String> ambiguous = new HashSet<>();
+        for (Object[] row : employeeRepository.findAllIdsAndNames()) {
+            String name = nameKey((String) row[1], (String) row[2]);
+            if (idsByName.putIfAbsent(name, (Integer) row[0]) != null) {
+                ambiguous.add(name);
+            }
+        }
+        ambiguous.forEach(idsByName::remove);
+        
+        Set<Integer> neededIds = new HashSet<>();
+        for (RotaFeeder manual : manualEntries) {
+            if (EXCLUDED_SHIFT_TYPES.contains(manual.getShiftType())) {
+                continue;
+            }
+            addId(neededIds, idsByName, manual);
+            addId(neededIds, idsByName, autoMap.get(makeShiftKey(manual)));
+        }
+        
+        Map<Integer, Employee> employeesById = new HashMap<>();
+        employeeRepository.findAllById(neededIds).forEach(emp -> employeesById.put(emp.getId(), emp));
+        return new EmployeeDirectory(idsByName, employeesById);
+    }
+    
+    private static void addId(Set<Integer> ids, Map<String, Integer> idsByName, RotaFeeder rf) {
+        if (hasEmployee(rf)) {
+            Integer id = idsByName.get(nameKey(rf.getFirstName(), rf.getLastName()));
+            if (id != null) {
+                ids.add(id);
+            }
+        }
+    }
+    
+    private record EmployeeDirectory(Map<String, Integer> idsByName, Map<Integer, Employee> employeesById) {
+        Employee find(RotaFeeder rf) {
+            if (!hasEmployee(rf)) {
+                return null;
+            }
+            Integer id = idsByName.get(nameKey(rf.getFirstName(), rf.getLastName()));
+            return id != null ? employeesById.get(id) : null;
+        }
+    }
+    
+    private static boolean hasEmployee(RotaFeeder rf) {
+        return rf != null && rf.getFirstName() != null && rf.getLastName() != null;
+    }
+    
+    private static String nameKey(String firstName, String lastName) {
+        return firstName + "|" + lastName;
+    }
+    
     /**
      * Create unique key for matching shifts
      * Format: location|shiftType|shiftStart|day
@@ -1,16 +1,22 @@
 package com.midco.rota.service;
 
 import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import com.midco.rota.model.Employee;
 import com.midco.rota.model.Learning;
@@ -35,6 +41,14 @@ public class LearningApplicationService {
 	// Auto-apply threshold (80% confidence or higher)
 	private static final double AUTO_APPLY_THRESHOLD = 0.80;
 
+	// Statistics are polled by the dashboard; new learnings show up within this
+	private static final Duration STATS_TTL = Duration.ofSeconds(30);
+
+	private record CachedStats(Map<String, Object> stats, Instant expiresAt) {
+	}
+
+	private volatile CachedStats cachedStats;
+
 	/**
 	 * Get all pending (unapplied) learnings
 	 */
@@ -65,18 +79,7 @@ public class LearningApplicationService {
 			return false;
 		}
 
-		boolean success = applyLearningToEmployee(learning);
-
-		if (success) {
-			learning.setApplied(true);
-			learning.setAppliedDate(LocalDateTime.now());
-			learningRepository.save(learning);
-			System.out.println("✓ Applied learning: " + learning.getDescription());
-		} else {
-			System.out.println("❌ Failed to apply learning: " + learning.getDescription());
-		}
-
-		return success;
+		return applyLearnings(List.of(learning)) == 1;
 	}
 
 	/**
@@ -89,12 +92,7 @@ public class LearningApplicationService {
 		System.out.println("\n=== AUTO-APPLYING HIGH CONFIDENCE LEARNINGS ===");
 		System.out.println("Found " + highConfidence.size() + " learnings with confidence >= 80%");
 
-		int appliedCount = 0;
-		for (Learning learning : highConfidence) {
-			if (applyLearning(learning.getId())) {
-				appliedCount++;
-			}
-		}
+		int appliedCount = applyLearnings(highConfidence);
 
 		System.out.println("=== AUTO-APPLY COMPLETE: " + appliedCount + " learnings applied ===\n");
 		return appliedCount;
@@ -113,24 +111,113 @@ public class LearningApplicationService {
 			String originalDescription = learning.getDescription();
 			learning.setDescription(originalDescription + " | REJECTED: " + reason);
 			learningRepository.save(learning);
+			invalidateStats();
 			System.out.println("⚠️  Rejected learning: " + learning.getDescription() + " | Reason: " + reason);
 		}
 	}
 
+	/**
+	 * Apply learnings in bulk: employees are loaded with one query, all of an
+	 * employee's changes are merged in memory and the employee is written
+	 * once; the applied flags are set with a single update.
+	 *
+	 * @return number of learnings applied (failed ones stay pending)
+	 */
+	private int applyLearnings(List<Learning> learnings) {
+		Set<Integer> employeeIds = new HashSet<>();
+		for (Learning learning : learnings) {
+			if (isEmployeeLearning(learning) && learning.getEmployeeId() != null) {
+				employeeIds.add(learning.getEmployeeId());
+			}
+		}
+		Map<Integer, EmployeeUpdate> updates = new HashMap<>();
+		employeeRepository.findAllById(employeeIds).forEach(emp -> updates.put(emp.getId(), new EmployeeUpdate(emp)));
+
+		List<Long> appliedIds = new ArrayList<>();
+		for (Learning learning : learnings) {
+			if (applyLearningToEmployee(learning, updates)) {
+				appliedIds.add(learning.getId());
+				System.out.println("✓ Applied learning: " + learning.getDescription());
+			} else {
+				System.out.println("❌ Failed to apply learning: " + learning.getDescription());
+			}
+		}
+
+		// ✅ One write per changed employee, however many learnings it had
+		List<Employee> changed = new ArrayList<>();
+		for (EmployeeUpdate update : updates.values()) {
+			if (update.writeBack()) {
+				changed.add(update.employee);
+			}
+		}
+		employeeRepository.saveAll(changed);
+
+		if (!appliedIds.isEmpty()) {
+			learningRepository.markApplied(appliedIds, LocalDateTime.now());
+			invalidateStats();
+		}
+		return appliedIds.size();
+	}
+
+	private static boolean isEmployeeLearning(Learning learning) {
+		return learning.getType() == LearningType.EMPLOYEE_PREFERENCE
+				|| learning.getType() == LearningType.DAY_PREFERENCE
+				|| learning.getType() == LearningType.SHIFT_TYPE_PREFERENCE;
+	}
+
+	/**
+	 * Working copies of an employee's preference lists while learnings are
+	 * applied, set back on the employee only when something changed
+	 */
+	private static class EmployeeUpdate {
+		private final Employee employee;
+		private final List<String> preferredService;
+		private final List<DayOfWeek> preferredDays;
+		private final List<ShiftType> preferredShifts;
+		private boolean serviceChanged;
+		private boolean daysChanged;
+		private boolean shiftsChanged;
+
+		EmployeeUpdate(Employee employee) {
+			this.employee = employee;
+			this.preferredService = employee.getPreferredService() != null
+					? new ArrayList<>(employee.getPreferredService())
+					: new ArrayList<>();
+			this.preferredDays = employee.getPreferredDays() != null ? new ArrayList<>(employee.getPreferredDays())
+					: new ArrayList<>();
+			this.preferredShifts = employee.getPreferredShifts() != null
+					? new ArrayList<>(employee.getPreferredShifts())
+					: new ArrayList<>();
+		}
+
+		boolean writeBack() {
+			if (serviceChanged) {
+				employee.setPreferredService(preferredService);
+			}
+			if (daysChanged) {
+				employee.setPreferredDays(preferredDays);
+			}
+			if (shiftsChanged) {
+				employee.setPreferredShifts(preferredShifts);
+			}
+			return serviceChanged || daysChanged || shiftsChanged;
+		}
+	}
+
 	/**
 	 * Apply learning to employee based on type
 	 */
-	private boolean applyLearningToEmployee(Learning learning) {
+	private boolean applyLearningToEmployee(Learning learning, Map<Integer, EmployeeUpdate> updates) {
 		try {
 			switch (learning.getType()) {
 			case EMPLOYEE_PREFERENCE:
-				return applyLocationPreference(learning);
+				return applyLocationPreference(learning, updates.get(learning.getEmployeeId()));
 
 			case DAY_PREFERENCE:
-				return applyDayPreference(learning);
+				return applyDayPreference(learning, updates.get(learning.getEmployeeId()));
 
 			case SHIFT_TYPE_PREFERENCE:
-				return applyShiftTypePreference(learning);
+				return applyShiftTypePreference(learning, updates.get(learning.getEmployeeId()));
 
 			case CONSTRAINT_WEIGHT:
 				return logConstraintWeightRecommendation(learning);
@@ -153,12 +240,12 @@ public class LearningApplicationService {
 	 * Apply location preference learning Updates Employee's List<String>
 	 * preferredService with format "LOCATION:WEIGHTAGE"
 	 */
-	private boolean applyLocationPreference(Learning learning) {
-		Employee employee = employeeRepository.findById(learning.getEmployeeId()).orElse(null);
-		if (employee == null) {
+	private boolean applyLocationPreference(Learning learning, EmployeeUpdate update) {
+		if (update == null) {
 			System.out.println("❌ Employee not found: " + learning.getEmployeeId());
 			return false;
 		}
+		Employee employee = update.employee;
 
 		// Parse new value: "LOCATION:90"
 		String[] parts = learning.getNewValue().split(":");
@@ -170,21 +257,9 @@ public class LearningApplicationService {
 		String location = parts[0].trim();
 		int weightage = Integer.parseInt(parts[1].trim());
 
-		// Get current preferredService list
-		List<String> preferredService = employee.getPreferredService();
-		if (preferredService == null) {
-			preferredService = new ArrayList<>();
-		} else {
-			// Make mutable copy
-			preferredService = new ArrayList<>(preferredService);
-		}
-
 		// Update or add location preference
-		updateLocationInList(preferredService, location, weightage);
-
-		// Save back to employee
-		employee.setPreferredService(preferredService);
-		employeeRepository.save(employee);
+		updateLocationInList(update.preferredService, location, weightage);
+		update.serviceChanged = true;
 
 		System.out.println(String.format("  ✓ Updated %s %s location preference: %s → %d%%", employee.getFirstName(),
 				employee.getLastName(), location, weightage));
@@ -232,12 +307,12 @@ public class LearningApplicationService {
 	 * Apply day preference learning Adds DayOfWeek to Employee's List<DayOfWeek>
 	 * preferredDays
 	 */
-	private boolean applyDayPreference(Learning learning) {
-		Employee employee = employeeRepository.findById(learning.getEmployeeId()).orElse(null);
-		if (employee == null) {
+	private boolean applyDayPreference(Learning learning, EmployeeUpdate update) {
+		if (update == null) {
 			System.out.println("❌ Employee not found: " + learning.getEmployeeId());
 			return false;
 		}
+		Employee employee = update.employee;
 
 		// Parse day from parameter
 		DayOfWeek day;
@@ -248,19 +323,10 @@ public class LearningApplicationService {
 			return false;
 		}
 
-		// Get current preferredDays list
-		List<DayOfWeek> preferredDays = employee.getPreferredDays();
-		if (preferredDays == null) {
-			preferredDays = new ArrayList<>();
-		} else {
-			preferredDays = new ArrayList<>(preferredDays); // Make mutable copy
-		}
-
 		// Add if not already present
-		if (!preferredDays.contains(day)) {
-			preferredDays.add(day);
-			employee.setPreferredDays(preferredDays);
-			employeeRepository.save(employee);
+		if (!update.preferredDays.contains(day)) {
+			update.preferredDays.add(day);
+			update.daysChanged = true;
 
 			System.out.println(String.format("  ✓ Updated %s %s day preference: added %s", employee.getFirstName(),
 					employee.getLastName(), day));
@@ -276,12 +342,12 @@ public class LearningApplicationService {
 	 * Apply shift type preference learning Adds ShiftType to Employee's
 	 * List<ShiftType> preferredShifts
 	 */
-	private boolean applyShiftTypePreference(Learning learning) {
-		Employee employee = employeeRepository.findById(learning.getEmployeeId()).orElse(null);
-		if (employee == null) {
+	private boolean applyShiftTypePreference(Learning learning, EmployeeUpdate update) {
+		if (update == null) {
 			System.out.println("❌ Employee not found: " + learning.getEmployeeId());
 			return false;
 		}
+		Employee employee = update.employee;
 
 		// Parse shift type from parameter
 		ShiftType shiftType;
@@ -292,19 +358,10 @@ public class LearningApplicationService {
 			return false;
 		}
 
-		// Get current preferredShifts list
-		List<ShiftType> preferredShifts = employee.getPreferredShifts();
-		if (preferredShifts == null) {
-			preferredShifts = new ArrayList<>();
-		} else {
-			preferredShifts = new ArrayList<>(preferredShifts); // Make mutable copy
-		}
-
 		// Add if not already present
-		if (!preferredShifts.contains(shiftType)) {
-			preferredShifts.add(shiftType);
-			employee.setPreferredShifts(preferredShifts);
-			employeeRepository.save(employee);
+		if (!update.preferredShifts.contains(shiftType)) {
+			update.preferredShifts.add(shiftType);
+			update.shiftsChanged = true;
 
 			System.out.println(String.format("  ✓ Updated %s %s shift type preference: added %s",
 					employee.getFirstName(), employee.getLastName(), shiftType));
@@ -342,25 +399,65 @@ public class LearningApplicationService {
 	}
 
 	/**
-	 * Get statistics about learnings
+	 * Get statistics about learnings (one grouped query, cached for STATS_TTL
+	 * and dropped when learnings are applied or rejected)
 	 */
 	public Map<String, Object> getLearningStats() {
-		Map<String, Object> stats = new HashMap<>();
+		CachedStats cached = cachedStats;
+		if (cached != null && cached.expiresAt().isAfter(Instant.now())) {
+			return cached.stats();
+		}
 
-		long totalLearnings = learningRepository.count();
-		long appliedLearnings = learningRepository.findByAppliedTrue().size();
-		long pendingLearnings = learningRepository.findByAppliedFalse().size();
+		long totalLearnings = 0;
+		long appliedLearnings = 0;
+		long pendingLearnings = 0;
+		double confidenceSum = 0;
+		double pendingConfidenceSum = 0;
+		Map<String, Long> typeMap = new HashMap<>();
+
+		// Rows: type, applied, count, average confidence
+		for (Object[] row : learningRepository.countAndAverageConfidenceByTypeAndApplied()) {
+			long count = ((Number) row[2]).longValue();
+			double confidence = row[3] != null ? ((Number) row[3]).doubleValue() * count : 0;
+			totalLearnings += count;
+			confidenceSum += confidence;
+			if (Boolean.TRUE.equals(row[1])) {
+				appliedLearnings += count;
+			} else if (Boolean.FALSE.equals(row[1])) {
+				pendingLearnings += count;
+				pendingConfidenceSum += confidence;
+				// Count by type (pending only)
+				typeMap.merge(String.valueOf(row[0]), count, Long::sum);
+			}
+		}
 
+		Map<String, Object> stats = new HashMap<>();
 		stats.put("total", totalLearnings);
 		stats.put("applied", appliedLearnings);
 		stats.put("pending", pendingLearnings);
+		stats.put("byType", Collections.unmodifiableMap(typeMap));
+		stats.put("averageConfidence", totalLearnings > 0 ? confidenceSum / totalLearnings : null);
+		stats.put("averagePendingConfidence", pendingLearnings > 0 ? pendingConfidenceSum / pendingLearnings : null);
 
-		// Count by type
-		List<Object[]> byType = learningRepository.countPendingByType();
-		Map<String, Long> typeMap = byType.stream()
-				.collect(Collectors.toMap(arr -> arr[0].toString(), arr -> (Long) arr[1]));
-		stats.put("byType", typeMap);
+		Map<String, Object> result = Collections.unmodifiableMap(stats);
+		cachedStats = new CachedStats(result, Instant.now().plus(STATS_TTL));
+		return result;
+	}
 
-		return stats;
+	/**
+	 * Drop the cached statistics once the surrounding transaction commits, so
+	 * the next request can't cache the pre-commit counts again
+	 */
+	private void invalidateStats() {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			cachedStats = null;
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				cachedStats = null;
+			}
+		});
 	}
-}
\ No newline at end of file
+}
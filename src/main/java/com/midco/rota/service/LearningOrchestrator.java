@@ -41,15 +41,17 @@ public class LearningOrchestrator {
         LocalDate oneMonthAgo = today.minusMonths(1);
         
         // Step 1: Extract corrections from rota_feeder
-        List<RotaCorrection> corrections = correctionExtractor.extractCorrections(oneMonthAgo, today);
+        // (statistics come from the same feeder rows, no second fetch)
+        CorrectionExtractorService.Extraction extraction = correctionExtractor.extract(oneMonthAgo, today);
         
         // Get statistics
-        Map<String, Object> stats = correctionExtractor.getCorrectionStats(oneMonthAgo, today);
+        Map<String, Object> stats = extraction.stats();
         System.out.println("\n=== STATISTICS ===");
         stats.forEach((key, value) -> System.out.println(key + ": " + value));
         
-        // Step 2: Analyze patterns from corrections (✅ FIXED: Pass corrections directly)
-        List<Learning> learnings = patternAnalyzer.analyzeCorrections(corrections);
+        // Step 2: Analyze patterns (✅ counters kept running as corrections were saved,
+        // this extraction included, so no regrouping of the month)
+        List<Learning> learnings = patternAnalyzer.analyzeRecordedCorrections();
         
         // Step 3: Auto-apply high confidence learnings (>= 80%)
         int appliedCount = learningApplication.autoApplyHighConfidenceLearnings();
@@ -72,10 +74,12 @@ public class LearningOrchestrator {
         System.out.println("╚════════════════════════════════════════════════╝\n");
         
         // Step 1: Extract corrections
-        List<RotaCorrection> corrections = correctionExtractor.extractCorrections(startDate, endDate);
+        // (statistics come from the same feeder rows, no second fetch)
+        CorrectionExtractorService.Extraction extraction = correctionExtractor.extract(startDate, endDate);
+        List<RotaCorrection> corrections = extraction.corrections();
         
         // Get statistics
-        Map<String, Object> stats = correctionExtractor.getCorrectionStats(startDate, endDate);
+        Map<String, Object> stats = extraction.stats();
         System.out.println("\n=== STATISTICS ===");
         stats.forEach((key, value) -> System.out.println(key + ": " + value));
         
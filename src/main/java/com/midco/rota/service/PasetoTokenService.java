@@ -1,7 +1,19 @@
 package com.midco.rota.service;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
 import java.security.KeyFactory;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.security.PrivateKey;
 import java.security.PublicKey;
 import java.security.spec.PKCS8EncodedKeySpec;
@@ -9,11 +21,17 @@ import java.security.spec.X509EncodedKeySpec;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.FileSystemResource;
@@ -31,10 +49,14 @@ import dev.paseto.jpaseto.Paseto;
 import dev.paseto.jpaseto.PasetoException;
 import dev.paseto.jpaseto.PasetoParser;
 import dev.paseto.jpaseto.Pasetos;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 
 @Service
 public class PasetoTokenService {
 
+	private static final Logger logger = LoggerFactory.getLogger(PasetoTokenService.class);
+
 	@Value("${paseto.issuer}")
 	private String issuer;
 
@@ -47,6 +69,46 @@ public class PasetoTokenService {
 	@Value("${paseto.private-key}")
 	private String privateKeyPath;
 
+	// Max verified tokens kept; 0 disables the cache
+	@Value("${paseto.token-cache.max-size:10000}")
+	private int tokenCacheMaxSize;
+
+	// ✅ Keys and parser loaded once, swapped when the key files change
+	private volatile KeyMaterial keyMaterial;
+	private WatchService keyWatcher;
+
+	// SHA-256(token) -> verified principal, until the token's own expiry or a key reload
+	private final Map<String, VerifiedToken> verifiedTokens = new ConcurrentHashMap<>();
+
+	private record KeyMaterial(PrivateKey privateKey, PublicKey publicKey, PasetoParser parser) {
+	}
+
+	// keys: the key material the token was verified with, only valid while current
+	private record VerifiedToken(String username, List<GrantedAuthority> authorities, Instant expiresAt,
+			KeyMaterial keys) {
+	}
+
+	@PostConstruct
+	public void init() {
+		try {
+			keyMaterial = loadKeyMaterial();
+		} catch (Exception e) {
+			logger.error("Failed to load PASETO keys, will retry on first use", e);
+		}
+		startKeyWatcher();
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		if (keyWatcher != null) {
+			try {
+				keyWatcher.close();
+			} catch (IOException e) {
+				logger.debug("Closing key watcher failed", e);
+			}
+		}
+	}
+
 	// ============================
 	// Generate Token (asymmetric)
 	// ============================
@@ -54,7 +116,7 @@ public class PasetoTokenService {
 		Instant now = Instant.now();
 
 		try {
-			PrivateKey privateKey = loadPrivateKey();
+			PrivateKey privateKey = keys().privateKey();
 			return Pasetos.V2.PUBLIC.builder().setPrivateKey(privateKey).setIssuedAt(now)
 					.setExpiration(now.plus(Duration.ofHours(2))).setSubject(username).setIssuer(issuer)
 					.setAudience(audience).claim("roles", roles).compact();
@@ -69,10 +131,7 @@ public class PasetoTokenService {
 	// ============================
 	public Optional<Claims> validateToken(String token) {
 		try {
-			PublicKey publicKey = loadPublicKey();
-			PasetoParser parser = Pasetos.parserBuilder().setPublicKey(publicKey).build();
-
-			Paseto parsed = parser.parse(token);
+			Paseto parsed = keys().parser().parse(token);
 			return Optional.ofNullable(parsed.getClaims());
 
 		} catch (PasetoException e) {
@@ -82,8 +141,28 @@ public class PasetoTokenService {
 		}
 	}
 
+	/**
+	 * Authentication for a token. Tokens already verified are answered from
+	 * the cache (a fresh Authentication each time, same principal and
+	 * authorities) until they expire or the keys are reloaded; everything else
+	 * goes through the parser.
+	 */
 	public UsernamePasswordAuthenticationToken parseToken(String token) {
+		String cacheKey = tokenCacheMaxSize > 0 ? hash(token) : null;
+		if (cacheKey != null) {
+			VerifiedToken cached = verifiedTokens.get(cacheKey);
+			if (cached != null) {
+				if (cached.keys() == keyMaterial && cached.expiresAt().isAfter(Instant.now())) {
+					return new UsernamePasswordAuthenticationToken(cached.username(), null, cached.authorities());
+				}
+				verifiedTokens.remove(cacheKey, cached);
+			}
+		}
+
         try {
+            // Read before verifying: a reload during the parse leaves the entry
+            // stamped with keys that are no longer current, never the reverse
+            KeyMaterial verifiedWith = keys();
             Claims claims = validateToken(token)
                     .orElseThrow(() -> new TokenValidationException("Invalid token"));
 
@@ -98,6 +177,11 @@ public class PasetoTokenService {
                     .map(SimpleGrantedAuthority::new)
                     .collect(Collectors.toList());
 
+            if (cacheKey != null && claims.getExpiration() != null) {
+                cache(cacheKey, new VerifiedToken(username, List.copyOf(authorities), claims.getExpiration(),
+                        verifiedWith));
+            }
+
             return new UsernamePasswordAuthenticationToken(username, null, authorities);
 
         } catch (Exception ex) {
@@ -106,9 +190,108 @@ public class PasetoTokenService {
     }
 	
 	
+	private void cache(String cacheKey, VerifiedToken verified) {
+		if (verifiedTokens.size() >= tokenCacheMaxSize) {
+			Instant now = Instant.now();
+			verifiedTokens.values().removeIf(v -> !v.expiresAt().isAfter(now));
+			if (verifiedTokens.size() >= tokenCacheMaxSize) {
+				verifiedTokens.clear(); // All live - start over rather than track recency
+			}
+		}
+		verifiedTokens.put(cacheKey, verified);
+	}
+
+	private static String hash(String token) {
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+			return Base64.getEncoder().encodeToString(digest);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
 	// ============================
 	// Key loaders (flexible)
 	// ============================
+	private KeyMaterial keys() throws Exception {
+		KeyMaterial current = keyMaterial;
+		if (current == null) {
+			synchronized (this) {
+				if (keyMaterial == null) {
+					keyMaterial = loadKeyMaterial();
+				}
+				current = keyMaterial;
+			}
+		}
+		return current;
+	}
+
+	private KeyMaterial loadKeyMaterial() throws Exception {
+		PublicKey publicKey = loadPublicKey();
+		PasetoParser parser = Pasetos.parserBuilder().setPublicKey(publicKey).build();
+		return new KeyMaterial(loadPrivateKey(), publicKey, parser);
+	}
+
+	private void reloadKeys() {
+		try {
+			keyMaterial = loadKeyMaterial();
+			// Frees the old entries; one cached by a parse still in flight is
+			// stamped with the old keys and never answered
+			verifiedTokens.clear();
+			logger.info("PASETO keys reloaded");
+		} catch (Exception e) {
+			logger.warn("PASETO key files changed but could not be loaded, keeping previous keys", e);
+		}
+	}
+
+	/**
+	 * Watch the key files when they live on the file system (classpath keys
+	 * never change at runtime) and reload on create/modify.
+	 */
+	private void startKeyWatcher() {
+		Map<Path, Set<Path>> filesByDir = new HashMap<>();
+		for (String keyPath : List.of(publicKeyPath, privateKeyPath)) {
+			Path path = Paths.get(keyPath).toAbsolutePath();
+			if (Files.isRegularFile(path)) {
+				filesByDir.computeIfAbsent(path.getParent(), k -> new HashSet<>()).add(path.getFileName());
+			}
+		}
+		if (filesByDir.isEmpty()) {
+			return;
+		}
+
+		try {
+			keyWatcher = FileSystems.getDefault().newWatchService();
+			for (Path dir : filesByDir.keySet()) {
+				dir.register(keyWatcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+			}
+		} catch (IOException e) {
+			logger.warn("Cannot watch PASETO key files, keys will not be reloaded", e);
+			return;
+		}
+
+		Thread thread = new Thread(() -> {
+			try {
+				while (true) {
+					WatchKey key = keyWatcher.take();
+					Set<Path> watched = filesByDir.getOrDefault((Path) key.watchable(), Set.of());
+					boolean changed = false;
+					for (WatchEvent<?> event : key.pollEvents()) {
+						changed |= event.context() instanceof Path file && watched.contains(file);
+					}
+					key.reset();
+					if (changed) {
+						reloadKeys();
+					}
+				}
+			} catch (InterruptedException | ClosedWatchServiceException e) {
+				// Shutting down
+			}
+		}, "paseto-key-watch");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
 	private PrivateKey loadPrivateKey() throws Exception {
 		byte[] decoded = loadKeyBytes(privateKeyPath);
 		PKCS8EncodedKeySpec spec = new PKCS8EncodedKeySpec(decoded);
@@ -6,10 +6,11 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import com.midco.rota.model.Employee;
 import com.midco.rota.model.Learning;
@@ -18,6 +19,8 @@ import com.midco.rota.model.RotaCorrection;
 import com.midco.rota.repository.EmployeeRepository;
 import com.midco.rota.repository.LearningRepository;
 import com.midco.rota.repository.RotaCorrectionRepository;
+import com.midco.rota.util.CorrectionCounters;
+import com.midco.rota.util.CorrectionCounters.EmployeeCounts;
 import com.midco.rota.util.ShiftType;
 
 /**
@@ -26,6 +29,10 @@ import com.midco.rota.util.ShiftType;
  * 
  * EXCLUSIONS: SLEEP_IN shifts are excluded from analysis because they are 
  * always manually assigned as a post-processing step, not real preference corrections.
+ * Initial allocations recorded on a rota's first save (source "Auto") are not corrections either.
+ * 
+ * Patterns are read from CorrectionCounters histograms, built in one pass or kept
+ * running as corrections are saved (see recordCorrections).
  */
 @Service
 public class PatternAnalyzer {
@@ -39,6 +46,10 @@ public class PatternAnalyzer {
     @Autowired
     private EmployeeRepository employeeRepository;
     
+    // Corrections since the last analysis, null until first used (guarded by runningLock)
+    private final Object runningLock = new Object();
+    private CorrectionCounters running;
+    
     // Configurable thresholds
     private static final int MIN_CORRECTIONS_FOR_PATTERN = 5;
     private static final double LOCATION_AFFINITY_THRESHOLD = 0.50; // 50% of corrections at same location
@@ -47,13 +58,6 @@ public class PatternAnalyzer {
     private static final double PREFERENCE_CHANGE_THRESHOLD = 0.20; // 20% change to suggest update
     private static final int MIN_UNASSIGNED_FOR_FLAG = 5; // Minimum unassigned at location to flag
     
-    /**
-     * Shift types to exclude from analysis (should match CorrectionExtractorService exclusions)
-     */
-    private static final List<ShiftType> EXCLUDED_SHIFT_TYPES = List.of(
-        ShiftType.SLEEP_IN  // Always manually assigned, not a preference indicator
-    );
-    
     /**
      * Analyze corrections from the last month
      */
@@ -82,32 +86,106 @@ public class PatternAnalyzer {
     public List<Learning> analyzeCorrections(List<RotaCorrection> corrections) {
         System.out.println("\n=== PATTERN ANALYSIS START ===");
         
-        // ✅ FILTER OUT EXCLUDED SHIFT TYPES (safety measure - should already be filtered)
-        int originalCount = corrections.size();
-        corrections = corrections.stream()
-            .filter(c -> !EXCLUDED_SHIFT_TYPES.contains(c.getShiftType()))
-            .collect(Collectors.toList());
+        // ✅ One pass: histograms per employee, excluded shift types and initial allocations skipped
+        CorrectionCounters counters = CorrectionCounters.of(corrections);
         
-        int excludedCount = originalCount - corrections.size();
+        int excludedCount = corrections.size() - counters.getCorrectionCount();
         if (excludedCount > 0) {
-            System.out.println("Filtered out " + excludedCount + " excluded shift types (SLEEP_IN)");
+            System.out.println("Filtered out " + excludedCount + " excluded corrections (SLEEP_IN, initial allocations)");
         }
         
-        System.out.println("Analyzing " + corrections.size() + " corrections");
-        
-        List<Learning> allLearnings = new ArrayList<>();
-        
-        // Pattern 1: Location Affinity Analysis
-        allLearnings.addAll(analyzeLocationAffinity(corrections));
-        
-        // Pattern 2: Day Preferences
-        allLearnings.addAll(analyzeDayPreferences(corrections));
-        
-        // Pattern 3: Shift Type Preferences
-        allLearnings.addAll(analyzeShiftTypePreferences(corrections));
+        return saveLearnings(counters);
+    }
+    
+    // ============================================================================
+    // RUNNING COUNTERS
+    // ============================================================================
+    
+    /**
+     * Count corrections as they are saved (rota save, feeder extraction), once
+     * the surrounding transaction commits. Keeps currentLearnings() current and
+     * lets the monthly cycle analyze the counters instead of re-reading and
+     * regrouping the month.
+     */
+    public void recordCorrections(List<RotaCorrection> corrections) {
+        if (corrections.isEmpty()) {
+            return;
+        }
+        afterCommit(() -> {
+            synchronized (runningLock) {
+                if (running == null) {
+                    // Seeding reads the committed corrections, these included
+                    seedRunning();
+                    return;
+                }
+                running.addAll(corrections);
+            }
+        });
+    }
+    
+    /**
+     * Learnings the corrections since the last analysis support right now,
+     * with their current confidence. Nothing is saved.
+     */
+    public List<Learning> currentLearnings() {
+        return deriveLearnings(snapshot(false));
+    }
+    
+    /**
+     * Analyze and save the corrections recorded since the last analysis, then
+     * start counting afresh (monthly cycle).
+     */
+    public List<Learning> analyzeRecordedCorrections() {
+        System.out.println("\n=== PATTERN ANALYSIS START ===");
+        return saveLearnings(snapshot(true));
+    }
+    
+    private CorrectionCounters snapshot(boolean reset) {
+        synchronized (runningLock) {
+            if (running == null) {
+                seedRunning();
+            }
+            CorrectionCounters snapshot = running.copy();
+            if (reset) {
+                running = new CorrectionCounters();
+            }
+            return snapshot;
+        }
+    }
+    
+    /**
+     * First use after startup: count the last month, the window the monthly
+     * cycle analyzes (as analyzeLastMonth). The learnings table can't tell
+     * when the last analysis ran - one that found nothing leaves no row.
+     */
+    private void seedRunning() {
+        LocalDateTime windowStart = LocalDateTime.now().minusMonths(1);
+        running = CorrectionCounters.of(correctionRepository.findByCorrectionDateAfter(windowStart));
+        System.out.println("Pattern counters seeded with " + running.getCorrectionCount() + 
+                          " corrections since " + windowStart);
+    }
+    
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+    
+    // ============================================================================
+    // PATTERNS
+    // ============================================================================
+    
+    private List<Learning> saveLearnings(CorrectionCounters counters) {
+        System.out.println("Analyzing " + counters.getCorrectionCount() + " corrections");
         
-        // Pattern 4: Unassigned Patterns
-        allLearnings.addAll(analyzeUnassignedPatterns(corrections));
+        List<Learning> allLearnings = deriveLearnings(counters);
         
         // Save all learnings
         learningRepository.saveAll(allLearnings);
@@ -119,165 +197,169 @@ public class PatternAnalyzer {
     }
     
     /**
-     * Pattern 1: Location Affinity Analysis
-     * If employee is consistently assigned to same location, increase their preference weightage
-     * Works with List<String> preferredService format: ["LOCATION:60", "LOCATION2:40"]
+     * All patterns from the counters, in one pass over the employees with
+     * enough corrections (loaded with a single query)
      */
-    private List<Learning> analyzeLocationAffinity(List<RotaCorrection> corrections) {
-        System.out.println("\n--- Analyzing Location Affinity ---");
-        List<Learning> learnings = new ArrayList<>();
+    private List<Learning> deriveLearnings(CorrectionCounters counters) {
+        List<Integer> candidateIds = new ArrayList<>();
+        counters.getEmployees().forEach((employeeId, counts) -> {
+            if (counts.getTotal() >= MIN_CORRECTIONS_FOR_PATTERN) {
+                candidateIds.add(employeeId);
+            }
+        });
+        Map<Integer, Employee> employees = new HashMap<>();
+        employeeRepository.findAllById(candidateIds).forEach(emp -> employees.put(emp.getId(), emp));
         
-        // Group corrections by employee
-        Map<Integer, List<RotaCorrection>> byEmployee = corrections.stream()
-            .filter(rc -> rc.getCorrectedEmployee() != null)
-            .collect(Collectors.groupingBy(rc -> rc.getCorrectedEmployee().getId()));
+        List<Learning> locationLearnings = new ArrayList<>();
+        List<Learning> dayLearnings = new ArrayList<>();
+        List<Learning> shiftTypeLearnings = new ArrayList<>();
         
-        for (Map.Entry<Integer, List<RotaCorrection>> entry : byEmployee.entrySet()) {
-            Integer employeeId = entry.getKey();
-            List<RotaCorrection> employeeCorrections = entry.getValue();
-            
-            if (employeeCorrections.size() < MIN_CORRECTIONS_FOR_PATTERN) {
-                continue; // Not enough data
+        System.out.println("\n--- Analyzing Location Affinity, Day and Shift Type Preferences ---");
+        for (Integer employeeId : candidateIds) {
+            EmployeeCounts counts = counters.getEmployees().get(employeeId);
+            Employee employee = employees.get(employeeId);
+            if (employee == null) {
+                continue;
             }
             
-            // Find most frequent location for this employee
-            Map<String, Long> locationCounts = employeeCorrections.stream()
-                .collect(Collectors.groupingBy(RotaCorrection::getLocation, Collectors.counting()));
+            // Pattern 1: Location Affinity Analysis
+            locationLearnings.addAll(analyzeLocationAffinity(employee, counts));
             
-            for (Map.Entry<String, Long> locationEntry : locationCounts.entrySet()) {
-                String location = locationEntry.getKey();
-                Long count = locationEntry.getValue();
-                
-                double frequency = (double) count / employeeCorrections.size();
-                
-                if (frequency >= LOCATION_AFFINITY_THRESHOLD) {
-                    // This employee has strong affinity for this location
-                    Employee employee = employeeRepository.findById(employeeId).orElse(null);
-                    if (employee == null) continue;
-                    
-                    // Calculate suggested weightage
-                    int suggestedWeightage = (int) (frequency * 100);
-                    
-                    // Get current weightage using Employee's helper method
-                    int currentWeightage = employee.getServiceWeightage(location);
-                    
-                    // Only suggest if change is significant
-                    if (Math.abs(suggestedWeightage - currentWeightage) >= (PREFERENCE_CHANGE_THRESHOLD * 100)) {
-                        Learning learning = new Learning();
-                        learning.setType(LearningType.EMPLOYEE_PREFERENCE);
-                        learning.setEmployeeId(employeeId);
-                        learning.setParameter(location);
-                        learning.setOldValue(location + ":" + currentWeightage);
-                        learning.setNewValue(location + ":" + suggestedWeightage);
-                        learning.setConfidence(frequency);
-                        learning.setSupportingEvidence(count.intValue());
-                        learning.setDescription(String.format(
-                            "%s %s was manually assigned to %s %d times (%.0f%% of corrections). " +
-                            "Current preference: %d%%. Suggested: %d%%",
-                            employee.getFirstName(), employee.getLastName(),
-                            location, count, frequency * 100, 
-                            currentWeightage, suggestedWeightage
-                        ));
-                        
-                        learnings.add(learning);
-                        
-                        System.out.println(String.format(
-                            "  ✓ LEARNED: %s %s → %s (%d corrections, confidence: %.0f%%)",
-                            employee.getFirstName(), employee.getLastName(),
-                            location, count, frequency * 100
-                        ));
-                    }
-                }
-            }
+            // Pattern 2: Day Preferences
+            dayLearnings.addAll(analyzeDayPreferences(employee, counts));
+            
+            // Pattern 3: Shift Type Preferences
+            shiftTypeLearnings.addAll(analyzeShiftTypePreferences(employee, counts));
         }
         
-        return learnings;
+        if (dayLearnings.isEmpty()) {
+            System.out.println("  No day preferences detected (threshold: " + (int)(DAY_PREFERENCE_THRESHOLD * 100) + "%, min count: 3)");
+        }
+        
+        List<Learning> allLearnings = new ArrayList<>();
+        allLearnings.addAll(locationLearnings);
+        allLearnings.addAll(dayLearnings);
+        allLearnings.addAll(shiftTypeLearnings);
+        
+        // Pattern 4: Unassigned Patterns
+        allLearnings.addAll(analyzeUnassignedPatterns(counters.getUnassignedByLocation()));
+        
+        return allLearnings;
     }
     
     /**
-     * Pattern 2: Day Preferences
-     * If employee is consistently assigned on specific days, add to preferredDays list
-     * Logic: Detect when frequency > random (14.3% for 7 days) and count >= 3
+     * Pattern 1: Location Affinity Analysis
+     * If employee is consistently assigned to same location, increase their preference weightage
+     * Works with List<String> preferredService format: ["LOCATION:60", "LOCATION2:40"]
      */
-    private List<Learning> analyzeDayPreferences(List<RotaCorrection> corrections) {
-        System.out.println("\n--- Analyzing Day Preferences ---");
+    private List<Learning> analyzeLocationAffinity(Employee employee, EmployeeCounts counts) {
         List<Learning> learnings = new ArrayList<>();
+        Integer employeeId = employee.getId();
         
-        Map<Integer, List<RotaCorrection>> byEmployee = corrections.stream()
-            .filter(rc -> rc.getCorrectedEmployee() != null)
-            .collect(Collectors.groupingBy(rc -> rc.getCorrectedEmployee().getId()));
-        
-        for (Map.Entry<Integer, List<RotaCorrection>> entry : byEmployee.entrySet()) {
-            Integer employeeId = entry.getKey();
-            List<RotaCorrection> employeeCorrections = entry.getValue();
+        for (Map.Entry<String, Integer> locationEntry : counts.getLocations().entrySet()) {
+            String location = locationEntry.getKey();
+            int count = locationEntry.getValue();
             
-            if (employeeCorrections.size() < MIN_CORRECTIONS_FOR_PATTERN) {
-                continue;
-            }
-            
-            // Count by day of week
-            Map<DayOfWeek, Long> dayCounts = employeeCorrections.stream()
-                .filter(rc -> rc.getDayOfWeek() != null)
-                .collect(Collectors.groupingBy(RotaCorrection::getDayOfWeek, Collectors.counting()));
-            
-            // ✅ DEBUG: Show day distribution for this employee
-            if (dayCounts.isEmpty()) {
-                System.out.println("  ⚠️  No dayOfWeek data for employee " + employeeId);
-            } else {
-                Employee emp = employeeRepository.findById(employeeId).orElse(null);
-                if (emp != null) {
-                    System.out.println("  Day distribution for " + emp.getFirstName() + " " + emp.getLastName() + ":");
-                    dayCounts.forEach((day, count) -> {
-                        double freq = (double) count / employeeCorrections.size();
-                        System.out.println(String.format("    %s: %d (%.0f%%)", day, count, freq * 100));
-                    });
-                }
-            }
+            double frequency = (double) count / counts.getTotal();
             
-            for (Map.Entry<DayOfWeek, Long> dayEntry : dayCounts.entrySet()) {
-                DayOfWeek day = dayEntry.getKey();
-                Long count = dayEntry.getValue();
-                double frequency = (double) count / employeeCorrections.size();
+            if (frequency >= LOCATION_AFFINITY_THRESHOLD) {
+                // This employee has strong affinity for this location
                 
-                // ✅ IMPROVED: Require both frequency >= 25% AND count >= 3 for statistical significance
-                if (frequency >= DAY_PREFERENCE_THRESHOLD && count >= 3) {
-                    Employee employee = employeeRepository.findById(employeeId).orElse(null);
-                    if (employee == null) continue;
-                    
-                    // Check if day is already in preferredDays
-                    List<DayOfWeek> preferredDays = employee.getPreferredDays();
-                    if (preferredDays != null && preferredDays.contains(day)) {
-                        continue; // Already preferred
-                    }
-                    
+                // Calculate suggested weightage
+                int suggestedWeightage = (int) (frequency * 100);
+                
+                // Get current weightage using Employee's helper method
+                int currentWeightage = employee.getServiceWeightage(location);
+                
+                // Only suggest if change is significant
+                if (Math.abs(suggestedWeightage - currentWeightage) >= (PREFERENCE_CHANGE_THRESHOLD * 100)) {
                     Learning learning = new Learning();
-                    learning.setType(LearningType.DAY_PREFERENCE);
+                    learning.setType(LearningType.EMPLOYEE_PREFERENCE);
                     learning.setEmployeeId(employeeId);
-                    learning.setParameter(day.toString());
-                    learning.setOldValue("Not preferred");
-                    learning.setNewValue("Preferred");
+                    learning.setParameter(location);
+                    learning.setOldValue(location + ":" + currentWeightage);
+                    learning.setNewValue(location + ":" + suggestedWeightage);
                     learning.setConfidence(frequency);
-                    learning.setSupportingEvidence(count.intValue());
+                    learning.setSupportingEvidence(count);
                     learning.setDescription(String.format(
-                        "%s %s was manually assigned on %s %d times (%.0f%% of corrections, expected random: 14%%). " +
-                        "Consider adding %s to preferred days.",
+                        "%s %s was manually assigned to %s %d times (%.0f%% of corrections). " +
+                        "Current preference: %d%%. Suggested: %d%%",
                         employee.getFirstName(), employee.getLastName(),
-                        day, count, frequency * 100, day
+                        location, count, frequency * 100, 
+                        currentWeightage, suggestedWeightage
                     ));
                     
                     learnings.add(learning);
                     
                     System.out.println(String.format(
-                        "  ✓ LEARNED: %s %s prefers %s (%d corrections, %.0f%%)",
+                        "  ✓ LEARNED: %s %s → %s (%d corrections, confidence: %.0f%%)",
                         employee.getFirstName(), employee.getLastName(),
-                        day, count, frequency * 100
+                        location, count, frequency * 100
                     ));
                 }
             }
         }
         
-        if (learnings.isEmpty()) {
-            System.out.println("  No day preferences detected (threshold: " + (int)(DAY_PREFERENCE_THRESHOLD * 100) + "%, min count: 3)");
+        return learnings;
+    }
+    
+    /**
+     * Pattern 2: Day Preferences
+     * If employee is consistently assigned on specific days, add to preferredDays list
+     * Logic: Detect when frequency > random (14.3% for 7 days) and count >= 3
+     */
+    private List<Learning> analyzeDayPreferences(Employee employee, EmployeeCounts counts) {
+        List<Learning> learnings = new ArrayList<>();
+        Integer employeeId = employee.getId();
+        Map<DayOfWeek, Integer> dayCounts = counts.getDays();
+        
+        // ✅ DEBUG: Show day distribution for this employee
+        if (dayCounts.isEmpty()) {
+            System.out.println("  ⚠️  No dayOfWeek data for employee " + employeeId);
+        } else {
+            System.out.println("  Day distribution for " + employee.getFirstName() + " " + employee.getLastName() + ":");
+            dayCounts.forEach((day, count) -> {
+                double freq = (double) count / counts.getTotal();
+                System.out.println(String.format("    %s: %d (%.0f%%)", day, count, freq * 100));
+            });
+        }
+        
+        for (Map.Entry<DayOfWeek, Integer> dayEntry : dayCounts.entrySet()) {
+            DayOfWeek day = dayEntry.getKey();
+            int count = dayEntry.getValue();
+            double frequency = (double) count / counts.getTotal();
+            
+            // ✅ IMPROVED: Require both frequency >= 25% AND count >= 3 for statistical significance
+            if (frequency >= DAY_PREFERENCE_THRESHOLD && count >= 3) {
+                // Check if day is already in preferredDays
+                List<DayOfWeek> preferredDays = employee.getPreferredDays();
+                if (preferredDays != null && preferredDays.contains(day)) {
+                    continue; // Already preferred
+                }
+                
+                Learning learning = new Learning();
+                learning.setType(LearningType.DAY_PREFERENCE);
+                learning.setEmployeeId(employeeId);
+                learning.setParameter(day.toString());
+                learning.setOldValue("Not preferred");
+                learning.setNewValue("Preferred");
+                learning.setConfidence(frequency);
+                learning.setSupportingEvidence(count);
+                learning.setDescription(String.format(
+                    "%s %s was manually assigned on %s %d times (%.0f%% of corrections, expected random: 14%%). " +
+                    "Consider adding %s to preferred days.",
+                    employee.getFirstName(), employee.getLastName(),
+                    day, count, frequency * 100, day
+                ));
+                
+                learnings.add(learning);
+                
+                System.out.println(String.format(
+                    "  ✓ LEARNED: %s %s prefers %s (%d corrections, %.0f%%)",
+                    employee.getFirstName(), employee.getLastName(),
+                    day, count, frequency * 100
+                ));
+            }
         }
         
         return learnings;
@@ -287,65 +369,44 @@ public class PatternAnalyzer {
      * Pattern 3: Shift Type Preferences
      * If employee is consistently assigned to specific shift types, add to preferredShifts list
      */
-    private List<Learning> analyzeShiftTypePreferences(List<RotaCorrection> corrections) {
-        System.out.println("\n--- Analyzing Shift Type Preferences ---");
+    private List<Learning> analyzeShiftTypePreferences(Employee employee, EmployeeCounts counts) {
         List<Learning> learnings = new ArrayList<>();
+        Integer employeeId = employee.getId();
         
-        Map<Integer, List<RotaCorrection>> byEmployee = corrections.stream()
-            .filter(rc -> rc.getCorrectedEmployee() != null)
-            .collect(Collectors.groupingBy(rc -> rc.getCorrectedEmployee().getId()));
-        
-        for (Map.Entry<Integer, List<RotaCorrection>> entry : byEmployee.entrySet()) {
-            Integer employeeId = entry.getKey();
-            List<RotaCorrection> employeeCorrections = entry.getValue();
-            
-            if (employeeCorrections.size() < MIN_CORRECTIONS_FOR_PATTERN) {
-                continue;
-            }
-            
-            // Count by shift type
-            Map<ShiftType, Long> shiftTypeCounts = employeeCorrections.stream()
-                .filter(rc -> rc.getShiftType() != null)
-                .collect(Collectors.groupingBy(RotaCorrection::getShiftType, Collectors.counting()));
+        for (Map.Entry<ShiftType, Integer> shiftEntry : counts.getShiftTypes().entrySet()) {
+            ShiftType shiftType = shiftEntry.getKey();
+            int count = shiftEntry.getValue();
+            double frequency = (double) count / counts.getTotal();
             
-            for (Map.Entry<ShiftType, Long> shiftEntry : shiftTypeCounts.entrySet()) {
-                ShiftType shiftType = shiftEntry.getKey();
-                Long count = shiftEntry.getValue();
-                double frequency = (double) count / employeeCorrections.size();
-                
-                if (frequency >= SHIFT_TYPE_THRESHOLD) {
-                    Employee employee = employeeRepository.findById(employeeId).orElse(null);
-                    if (employee == null) continue;
-                    
-                    // Check if shift type is already in preferredShifts
-                    List<ShiftType> preferredShifts = employee.getPreferredShifts();
-                    if (preferredShifts != null && preferredShifts.contains(shiftType)) {
-                        continue; // Already preferred
-                    }
-                    
-                    Learning learning = new Learning();
-                    learning.setType(LearningType.SHIFT_TYPE_PREFERENCE);
-                    learning.setEmployeeId(employeeId);
-                    learning.setParameter(shiftType.toString());
-                    learning.setOldValue("Not preferred");
-                    learning.setNewValue("Preferred");
-                    learning.setConfidence(frequency);
-                    learning.setSupportingEvidence(count.intValue());
-                    learning.setDescription(String.format(
-                        "%s %s was manually assigned to %s shifts %d times (%.0f%% of corrections). " +
-                        "Consider adding %s to preferred shifts.",
-                        employee.getFirstName(), employee.getLastName(),
-                        shiftType, count, frequency * 100, shiftType
-                    ));
-                    
-                    learnings.add(learning);
-                    
-                    System.out.println(String.format(
-                        "  ✓ LEARNED: %s %s prefers %s shifts (confidence: %.0f%%)",
-                        employee.getFirstName(), employee.getLastName(),
-                        shiftType, frequency * 100
-                    ));
+            if (frequency >= SHIFT_TYPE_THRESHOLD) {
+                // Check if shift type is already in preferredShifts
+                List<ShiftType> preferredShifts = employee.getPreferredShifts();
+                if (preferredShifts != null && preferredShifts.contains(shiftType)) {
+                    continue; // Already preferred
                 }
+                
+                Learning learning = new Learning();
+                learning.setType(LearningType.SHIFT_TYPE_PREFERENCE);
+                learning.setEmployeeId(employeeId);
+                learning.setParameter(shiftType.toString());
+                learning.setOldValue("Not preferred");
+                learning.setNewValue("Preferred");
+                learning.setConfidence(frequency);
+                learning.setSupportingEvidence(count);
+                learning.setDescription(String.format(
+                    "%s %s was manually assigned to %s shifts %d times (%.0f%% of corrections). " +
+                    "Consider adding %s to preferred shifts.",
+                    employee.getFirstName(), employee.getLastName(),
+                    shiftType, count, frequency * 100, shiftType
+                ));
+                
+                learnings.add(learning);
+                
+                System.out.println(String.format(
+                    "  ✓ LEARNED: %s %s prefers %s shifts (confidence: %.0f%%)",
+                    employee.getFirstName(), employee.getLastName(),
+                    shiftType, frequency * 100
+                ));
             }
         }
         
@@ -356,30 +417,22 @@ public class PatternAnalyzer {
      * Pattern 4: Unassigned Patterns
      * Identify shifts that OptaPlanner consistently leaves unassigned
      */
-    private List<Learning> analyzeUnassignedPatterns(List<RotaCorrection> corrections) {
+    private List<Learning> analyzeUnassignedPatterns(Map<String, Integer> unassignedByLocation) {
         System.out.println("\n--- Analyzing Unassigned Patterns ---");
         List<Learning> learnings = new ArrayList<>();
         
-        // Get only unassigned corrections (where original employee was null)
-        List<RotaCorrection> unassignedCorrections = corrections.stream()
-            .filter(RotaCorrection::wasUnassigned)
-            .collect(Collectors.toList());
+        int unassignedTotal = unassignedByLocation.values().stream().mapToInt(Integer::intValue).sum();
+        System.out.println("  Total unassigned shifts filled manually: " + unassignedTotal);
         
-        System.out.println("  Total unassigned shifts filled manually: " + unassignedCorrections.size());
-        
-        if (unassignedCorrections.isEmpty()) {
+        if (unassignedTotal == 0) {
             System.out.println("  ✓ No unassigned patterns detected (good!)");
             return learnings;
         }
         
-        // Group by location
-        Map<String, Long> unassignedByLocation = unassignedCorrections.stream()
-            .collect(Collectors.groupingBy(RotaCorrection::getLocation, Collectors.counting()));
-        
         // Flag locations with high unassigned counts
-        for (Map.Entry<String, Long> entry : unassignedByLocation.entrySet()) {
+        for (Map.Entry<String, Integer> entry : unassignedByLocation.entrySet()) {
             String location = entry.getKey();
-            Long count = entry.getValue();
+            int count = entry.getValue();
             
             if (count >= MIN_UNASSIGNED_FOR_FLAG) {
                 Learning learning = new Learning();
@@ -387,7 +440,7 @@ public class PatternAnalyzer {
                 learning.setParameter("unassigned_" + location);
                 learning.setNewValue("Needs attention");
                 learning.setConfidence(0.80); // Medium-high confidence
-                learning.setSupportingEvidence(count.intValue());
+                learning.setSupportingEvidence(count);
                 learning.setDescription(String.format(
                     "Location %s had %d shifts left unassigned by OptaPlanner. " +
                     "Consider: 1) Adding more employees with this location preference, " +
@@ -407,4 +460,4 @@ public class PatternAnalyzer {
         
         return learnings;
     }
-}
\ No newline at end of file
+}
@@ -2,20 +2,21 @@ package com.midco.rota.service;
 
 import java.time.LocalDate;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Service;
 
 import com.midco.rota.model.DeferredSolveRequest;
-import com.midco.rota.model.Rota;
 import com.midco.rota.repository.DeferredSolveRequestRepository;
-import com.midco.rota.repository.RotaRepository;
 import com.midco.rota.util.PayCycleRow;
 import com.midco.rota.util.ShiftType;
 
@@ -28,9 +29,6 @@ public class PayCycleDataService {
 	@Autowired
 	private DeferredSolveRequestRepository deferredSolveRequestRepository;
 
-	@Autowired
-	private RotaRepository rotaRepository;
-
 	public record PeriodKey(LocalDate start, LocalDate end, String region) {
 		@Override
 		public boolean equals(Object o) {
@@ -79,6 +77,15 @@ public class PayCycleDataService {
 
 	}
 
+	/**
+	 * Counts shown on the pay cycle screen for one rota. Same numbers as
+	 * Rota.empCount / loctionCount / shiftCount / shiftTypeSummary /
+	 * shiftAssignmentStats, computed in SQL.
+	 */
+	private record RotaStats(int empCount, int locCount, int shiftCount, Map<ShiftType, Integer> shiftStats,
+			Map<String, Integer> shiftAssignmentStats) {
+	}
+
 	private List<PayCycleRow> enrichPayCycleRow(List<PayCycleRow> pcr, String location) {
 
 		List<DeferredSolveRequest> dsr = deferredSolveRequestRepository.findByRegion(location);
@@ -86,6 +93,18 @@ public class PayCycleDataService {
 		Map<PeriodKey, List<DeferredSolveRequest>> requestsByPeriod = dsr.stream()
 				.collect(Collectors.groupingBy(r -> new PeriodKey(r.getStartDate(), r.getEndDate(),location)));
 
+		// ✅ Stats for every rota on screen in three grouped queries instead of loading each rota
+		Set<Long> rotaIds = new HashSet<>();
+		for (PayCycleRow row : pcr) {
+			for (DeferredSolveRequest req : requestsByPeriod.getOrDefault(
+					new PeriodKey(row.getStartDate(), row.getEndDate(), location), List.of())) {
+				if (req.getRotaId() != null) {
+					rotaIds.add(req.getRotaId());
+				}
+			}
+		}
+		Map<Long, RotaStats> statsByRota = fetchRotaStats(rotaIds);
+
 		List<PayCycleRow> enriched = pcr.stream().map(row -> {
 
 			PeriodKey key = new PeriodKey(row.getStartDate(), row.getEndDate(),location);
@@ -106,15 +125,14 @@ public class PayCycleDataService {
 			for (DeferredSolveRequest req : matches) {
 				Long rotaIdLong = req.getRotaId();
 				if (rotaIdLong != null) {
-					Optional<Rota> rotaOpt = rotaRepository.findById(req.getRotaId());
-
-					if (rotaOpt.isPresent()) {
-						Rota rota = rotaOpt.get();
-						empCount = rota.empCount();
-						locCount = rota.loctionCount();
-						shiftCount = rota.shiftCount();
-						shiftStats = rota.shiftTypeSummary();
-						shiftAssignmentStats = rota.shiftAssignmentStats();
+					RotaStats stats = statsByRota.get(rotaIdLong);
+
+					if (stats != null) {
+						empCount = stats.empCount();
+						locCount = stats.locCount();
+						shiftCount = stats.shiftCount();
+						shiftStats = stats.shiftStats();
+						shiftAssignmentStats = stats.shiftAssignmentStats();
 						rotaId = req.getRotaId();
 						reqStatus = (req.getCompletedAt() == null) ? "PENDING" : "COMPLETED";
 					}
@@ -129,4 +147,76 @@ public class PayCycleDataService {
 		}).toList();
 		return enriched;
 	}
+
+	private Map<Long, RotaStats> fetchRotaStats(Set<Long> rotaIds) {
+		if (rotaIds.isEmpty()) {
+			return Map.of();
+		}
+		NamedParameterJdbcTemplate namedJdbc = new NamedParameterJdbcTemplate(jdbcTemplate);
+		MapSqlParameterSource params = new MapSqlParameterSource("rotaIds", rotaIds);
+
+		// Existing rotas with distinct location / shift counts
+		Map<Long, int[]> counts = new HashMap<>();
+		namedJdbc.query("""
+				SELECT r.id AS rota_id, COUNT(DISTINCT st.location) AS locations, COUNT(DISTINCT rsa.shift_id) AS shifts
+				FROM rota r
+				LEFT JOIN rota_shift_assignment rsa ON rsa.rota_id = r.id
+				LEFT JOIN shift s ON s.id = rsa.shift_id
+				LEFT JOIN shift_templates st ON st.id = s.shift_template_id
+				WHERE r.id IN (:rotaIds)
+				GROUP BY r.id
+				""", params, rs -> {
+			counts.put(rs.getLong("rota_id"), new int[] { 0, rs.getInt("locations"), rs.getInt("shifts") });
+		});
+
+		namedJdbc.query("SELECT rota_id, COUNT(*) AS employees FROM rota_employee WHERE rota_id IN (:rotaIds) GROUP BY rota_id",
+				params, rs -> {
+					int[] c = counts.get(rs.getLong("rota_id"));
+					if (c != null) {
+						c[0] = rs.getInt("employees");
+					}
+				});
+
+		// Per shift type: all assignments and assigned ones
+		Map<Long, Map<ShiftType, Integer>> shiftStats = new HashMap<>();
+		Map<Long, Map<ShiftType, Integer>> assignedStats = new HashMap<>();
+		namedJdbc.query("""
+				SELECT rsa.rota_id, st.shift_type, COUNT(*) AS total, COUNT(rsa.employee_id) AS assigned
+				FROM rota_shift_assignment rsa
+				JOIN shift s ON s.id = rsa.shift_id
+				JOIN shift_templates st ON st.id = s.shift_template_id
+				WHERE rsa.rota_id IN (:rotaIds) AND st.shift_type IS NOT NULL
+				GROUP BY rsa.rota_id, st.shift_type
+				""", params, rs -> {
+			ShiftType type;
+			try {
+				type = ShiftType.valueOf(rs.getString("shift_type"));
+			} catch (IllegalArgumentException e) {
+				return;
+			}
+			Long id = rs.getLong("rota_id");
+			shiftStats.computeIfAbsent(id, k -> new HashMap<>()).put(type, rs.getInt("total"));
+			if (rs.getInt("assigned") > 0) {
+				assignedStats.computeIfAbsent(id, k -> new HashMap<>()).put(type, rs.getInt("assigned"));
+			}
+		});
+
+		Map<Long, RotaStats> result = new HashMap<>();
+		counts.forEach((id, c) -> {
+			// Same shape as Rota.shiftAssignmentStats: every type (0s included) plus TotalAssigned
+			Map<String, Integer> assignmentStats = new HashMap<>();
+			Map<ShiftType, Integer> assigned = assignedStats.getOrDefault(id, Map.of());
+			int total = 0;
+			for (ShiftType type : ShiftType.values()) {
+				int count = assigned.getOrDefault(type, 0);
+				assignmentStats.put(type.name(), count);
+				total += count;
+			}
+			assignmentStats.put("TotalAssigned", total);
+
+			result.put(id, new RotaStats(c[0], c[1], c[2], shiftStats.getOrDefault(id, new HashMap<>()),
+					assignmentStats));
+		});
+		return result;
+	}
 }
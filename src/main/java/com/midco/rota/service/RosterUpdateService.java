@@ -1,7 +1,6 @@
 package com.midco.rota.service;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
 
 import org.optaplanner.core.api.score.constraint.ConstraintMatchTotal;
@@ -14,10 +13,10 @@ import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 
 import com.midco.rota.RotaUpdatePayload;
-import com.midco.rota.dto.SaveScheduleRequest;
 import com.midco.rota.model.DeferredSolveRequest;
 import com.midco.rota.model.Rota;
 import com.midco.rota.repository.DeferredSolveRequestRepository;
+import com.midco.rota.repository.RotaJdbcRepository;
 import com.midco.rota.repository.RotaRepository;
 import com.midco.rota.util.PayCycleRow;
 
@@ -41,6 +40,14 @@ public class RosterUpdateService {
 	private RosterAnalysisService rosterAnalysisService;
 	@Autowired
 	private ScheduleVersionService scheduleVersionService;
+	@Autowired
+	private SolveProgressPublisher progressPublisher;
+	@Autowired
+	private RotaJdbcRepository rotaJdbcRepository;
+	@Autowired
+	private RotaStatsCubeService rotaStatsCubeService;
+	@Autowired
+	private SolverMetrics solverMetrics;
 
 	public RosterUpdateService(SimpMessagingTemplate messagingTemplate, RotaRepository rotaRepository,
 			DeferredSolveRequestRepository deferredSolveRequestRepository, RosterAnalysisService rosterAnalysisService,
@@ -60,7 +67,8 @@ public class RosterUpdateService {
 		payload.setStatus("SOLVED"); // TODO:
 
 		logger.info(" Rota ", payload.toString());
-		messagingTemplate.convertAndSendToUser(user, "/queue/rotaUpdate", rota);
+		// ✅ Compact SNAPSHOT message instead of serialising the whole Rota graph
+		progressPublisher.finish(progressPublisher.track(rota.getPlanningId(), user), rota);
 
 	}
 
@@ -79,23 +87,24 @@ public class RosterUpdateService {
 
 	@Transactional
 	public void persistSolvedRota(Rota bestSolution, DeferredSolveRequest deferredSolveRequest) {
+		long startTime = System.currentTimeMillis();
 
-		Rota managedRota = rotaRepository.save(bestSolution);
+		// ✅ Batched JDBC inserts instead of cascading rotaRepository.save() row by row
+		Rota managedRota = rotaJdbcRepository.insertRota(bestSolution);
 		deferredSolveRequest.setScheduleSummary(managedRota.rotaSummaryStats());
 		deferredSolveRequest.setCompleted(true);
 		deferredSolveRequest.setCompletedAt(LocalDateTime.now());
 		deferredSolveRequest.setRotaId(managedRota.getId());
 		deferredSolveRequestRepository.save(deferredSolveRequest);
 
-		// ✅ Create Version 1 immediately after generation
-		SaveScheduleRequest versionRequest = new SaveScheduleRequest();
-		versionRequest.setRotaId(deferredSolveRequest.getRotaId());
-		versionRequest.setVersionLabel("Initial Schedule");
-		versionRequest.setComment("Auto-generated initial version");
-		versionRequest.setUsername(deferredSolveRequest.getCreatedBy());
-		versionRequest.setChanges(new ArrayList<>()); // Empty changes
+		// ✅ Create Version 1 immediately after generation, snapshot taken from the solution in memory
+		scheduleVersionService.createInitialVersion(managedRota, deferredSolveRequest.getCreatedBy());
+		rotaStatsCubeService.rotaSaved(managedRota, deferredSolveRequest);
 
-		scheduleVersionService.createVersion(versionRequest);
+		long elapsedMs = System.currentTimeMillis() - startTime;
+		solverMetrics.recordPersist(deferredSolveRequest.getRegion(), elapsedMs);
+		logger.info("Persisted rota {} ({} assignments) in {} ms", managedRota.getId(),
+				managedRota.getShiftAssignmentList().size(), elapsedMs);
 
 		this.pushUpdate(payCycleDataService.fetchRows(deferredSolveRequest), deferredSolveRequest.getCreatedBy());
 
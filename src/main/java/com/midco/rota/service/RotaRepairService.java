@@ -0,0 +1,226 @@
+package com.midco.rota.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.optaplanner.core.api.score.buildin.hardsoftlong.HardSoftLongScore;
+import org.optaplanner.core.api.solver.SolutionManager;
+import org.optaplanner.core.api.solver.SolverFactory;
+import org.optaplanner.core.config.localsearch.LocalSearchPhaseConfig;
+import org.optaplanner.core.config.localsearch.decider.acceptor.LocalSearchAcceptorConfig;
+import org.optaplanner.core.config.heuristic.selector.move.generic.ChangeMoveSelectorConfig;
+import org.optaplanner.core.config.solver.EnvironmentMode;
+import org.optaplanner.core.config.solver.SolverConfig;
+import org.optaplanner.core.config.solver.termination.TerminationConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.midco.rota.dto.RepairResultDTO;
+import com.midco.rota.dto.ShiftAssignmentChangeDTO;
+import com.midco.rota.model.DeferredSolveRequest;
+import com.midco.rota.model.Employee;
+import com.midco.rota.model.Rota;
+import com.midco.rota.model.Shift;
+import com.midco.rota.model.ShiftAssignment;
+import com.midco.rota.repository.DeferredSolveRequestRepository;
+import com.midco.rota.repository.EmployeeRepository;
+import com.midco.rota.repository.ShiftAssignmentRepository;
+import com.midco.rota.util.AvailabilityIndex;
+import com.midco.rota.util.ShiftType;
+
+/**
+ * Incremental repair after manual edits.
+ *
+ * Instead of re-solving the whole period, everything is pinned except the
+ * neighbourhood of the edited shifts: the same employees within a day either
+ * side, and the rest of the edited location-week. A short local search then
+ * fixes the knock-on violations. The edited assignments themselves stay
+ * pinned - they are the planner's decision.
+ *
+ * Nothing is persisted; the proposed changes are returned in the same shape
+ * as SaveScheduleRequest changes so the client can review and save them.
+ */
+@Service
+public class RotaRepairService {
+
+	private static final Logger logger = LoggerFactory.getLogger(RotaRepairService.class);
+
+	private final ShiftAssignmentRepository shiftAssignmentRepository;
+	private final EmployeeRepository employeeRepository;
+	private final DeferredSolveRequestRepository deferredSolveRequestRepository;
+	private final PeriodService periodService;
+
+	@Value("${rota.repair.seconds-spent-limit:10}")
+	private long secondsSpentLimit;
+
+	private volatile SolverFactory<Rota> solverFactory;
+
+	public RotaRepairService(ShiftAssignmentRepository shiftAssignmentRepository,
+			EmployeeRepository employeeRepository, DeferredSolveRequestRepository deferredSolveRequestRepository,
+			PeriodService periodService) {
+		this.shiftAssignmentRepository = shiftAssignmentRepository;
+		this.employeeRepository = employeeRepository;
+		this.deferredSolveRequestRepository = deferredSolveRequestRepository;
+		this.periodService = periodService;
+	}
+
+	public RepairResultDTO repair(Long rotaId, List<ShiftAssignmentChangeDTO> edits) {
+		long startTime = System.currentTimeMillis();
+
+		List<ShiftAssignment> stored = shiftAssignmentRepository.findByRotaId(rotaId);
+		if (stored.isEmpty()) {
+			throw new IllegalArgumentException("Rota not found or empty: " + rotaId);
+		}
+
+		// ========== NEIGHBOURHOOD ==========
+		Set<Long> editedShiftIds = new HashSet<>();
+		Set<Integer> editedEmployeeIds = new HashSet<>();
+		for (ShiftAssignmentChangeDTO edit : edits) {
+			editedShiftIds.add(edit.getShiftId());
+			if (edit.getOldEmployeeId() != null) {
+				editedEmployeeIds.add(edit.getOldEmployeeId());
+			}
+			if (edit.getNewEmployeeId() != null) {
+				editedEmployeeIds.add(edit.getNewEmployeeId());
+			}
+		}
+
+		Set<Integer> editedDays = new HashSet<>();
+		Set<Long> editedLocationWeeks = new HashSet<>();
+		for (ShiftAssignment sa : stored) {
+			Shift shift = sa.getShift();
+			if (shift == null || !editedShiftIds.contains(shift.getId())) {
+				continue;
+			}
+			shift.precomputeSolverFacts();
+			editedDays.add(shift.getEpochDay());
+			editedLocationWeeks.add(locationWeek(shift));
+			if (sa.getEmployee() != null) {
+				editedEmployeeIds.add(sa.getEmployee().getId());
+			}
+		}
+
+		// ========== PROBLEM ==========
+		DeferredSolveRequest request = deferredSolveRequestRepository.findByRotaId(rotaId);
+		List<Employee> employees = request != null
+				? new ArrayList<>(employeeRepository.findByPreferredRegion(request.getRegion()))
+				: new ArrayList<>();
+		Set<Integer> employeeIds = new HashSet<>();
+		employees.forEach(emp -> employeeIds.add(emp.getId()));
+
+		List<ShiftAssignment> assignments = new ArrayList<>(stored.size());
+		Map<String, ShiftAssignment> storedByPlanningId = new HashMap<>();
+		int unpinned = 0;
+		for (ShiftAssignment sa : stored) {
+			Shift shift = sa.getShift();
+			if (shift == null || shift.getShiftTemplate() == null) {
+				continue;
+			}
+			shift.precomputeSolverFacts();
+
+			ShiftAssignment copy = new ShiftAssignment(shift);
+			copy.setId(sa.getId());
+			copy.setEmployee(sa.getEmployee());
+			if (sa.getEmployee() != null && employeeIds.add(sa.getEmployee().getId())) {
+				employees.add(sa.getEmployee()); // Keep out-of-region staff in the value range
+			}
+
+			boolean movable = !sa.isPinned() && !editedShiftIds.contains(shift.getId())
+					&& isInNeighbourhood(copy, editedEmployeeIds, editedDays, editedLocationWeeks);
+			copy.setPinned(!movable);
+			if (movable) {
+				unpinned++;
+			}
+
+			assignments.add(copy);
+			storedByPlanningId.put(copy.getPlanningId(), sa);
+		}
+
+		if (employees.isEmpty()) {
+			throw new IllegalStateException("No employees available to repair rota " + rotaId);
+		}
+
+		Rota problem = new Rota(employees, assignments);
+		problem.setId(rotaId);
+		problem.setPlanningId(rotaId);
+		problem.setAvailabilityIndex(AvailabilityIndex.build(employees, assignments, periodService));
+
+		// ========== SOLVE ==========
+		SolverFactory<Rota> factory = getSolverFactory();
+		HardSoftLongScore scoreBefore = SolutionManager.<Rota, HardSoftLongScore>create(factory).update(problem);
+		logger.info("Repairing rota {}: {} of {} assignments unpinned around {} edits, score {}", rotaId, unpinned,
+				assignments.size(), edits.size(), scoreBefore);
+
+		Rota repaired = unpinned == 0 ? problem : factory.buildSolver().solve(problem);
+
+		List<ShiftAssignmentChangeDTO> changes = new ArrayList<>();
+		for (ShiftAssignment sa : repaired.getShiftAssignmentList()) {
+			ShiftAssignment original = storedByPlanningId.get(sa.getPlanningId());
+			Integer before = original.getEmployee() != null ? original.getEmployee().getId() : null;
+			Integer after = sa.getEmployee() != null ? sa.getEmployee().getId() : null;
+			if (!Objects.equals(before, after)) {
+				changes.add(new ShiftAssignmentChangeDTO(sa.getShift().getId(), before, after, "Repair"));
+			}
+		}
+
+		long durationMs = System.currentTimeMillis() - startTime;
+		logger.info("Repair of rota {} done in {} ms: {} -> {}, {} changes", rotaId, durationMs, scoreBefore,
+				repaired.getScore(), changes.size());
+
+		return new RepairResultDTO(rotaId, String.valueOf(scoreBefore), String.valueOf(repaired.getScore()),
+				unpinned, assignments.size(), durationMs, changes);
+	}
+
+	private static boolean isInNeighbourhood(ShiftAssignment sa, Set<Integer> editedEmployeeIds,
+			Set<Integer> editedDays, Set<Long> editedLocationWeeks) {
+		Shift shift = sa.getShift();
+		if (shift.getShiftTemplate().getShiftType() == ShiftType.SLEEP_IN) {
+			return false; // Paired with LONG_DAY after solving, never moved directly
+		}
+		if (editedLocationWeeks.contains(locationWeek(shift))) {
+			return true;
+		}
+		if (sa.getEmployee() == null || !editedEmployeeIds.contains(sa.getEmployee().getId())) {
+			return false;
+		}
+		int day = shift.getEpochDay();
+		return editedDays.contains(day - 1) || editedDays.contains(day) || editedDays.contains(day + 1);
+	}
+
+	private static long locationWeek(Shift shift) {
+		return ((long) shift.getLocationIndex() << 32) | (shift.getYearWeek() & 0xffffffffL);
+	}
+
+	/**
+	 * solverConfig.xml reduced to one short local search. No entity filter
+	 * here: the neighbourhood is already small and permanent staff may be the
+	 * ones that need moving.
+	 */
+	private SolverFactory<Rota> getSolverFactory() {
+		if (solverFactory == null) {
+			synchronized (this) {
+				if (solverFactory == null) {
+					SolverConfig config = SolverConfig.createFromXmlResource("solverConfig.xml",
+							getClass().getClassLoader());
+					config.setEnvironmentMode(EnvironmentMode.REPRODUCIBLE);
+					config.setMoveThreadCount(SolverConfig.MOVE_THREAD_COUNT_NONE);
+					config.setTerminationConfig(new TerminationConfig().withSecondsSpentLimit(secondsSpentLimit)
+							.withUnimprovedSecondsSpentLimit(Math.max(1L, secondsSpentLimit / 3)));
+					config.setPhaseConfigList(List.of(new LocalSearchPhaseConfig()
+							.withAcceptorConfig(new LocalSearchAcceptorConfig().withEntityTabuSize(7)
+									.withLateAcceptanceSize(400))
+							.withMoveSelectorConfig(new ChangeMoveSelectorConfig())));
+					solverFactory = SolverFactory.create(config);
+				}
+			}
+		}
+		return solverFactory;
+	}
+}
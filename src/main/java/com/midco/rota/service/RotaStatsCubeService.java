@@ -0,0 +1,148 @@
+package com.midco.rota.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.midco.rota.model.DeferredSolveRequest;
+import com.midco.rota.model.Rota;
+import com.midco.rota.model.Shift;
+import com.midco.rota.repository.DeferredSolveRequestRepository;
+import com.midco.rota.repository.RotaRepository;
+import com.midco.rota.util.RotaStatsCube;
+
+/**
+ * Keeps a {@link RotaStatsCube} per rota for the stats endpoints.
+ *
+ * The cube is built from the in-memory solution when a rota is persisted, or
+ * from the database on first read, and then kept up to date by the write
+ * paths reporting each assignment change. Updates are applied after the
+ * surrounding transaction commits, so a rolled back save never reaches the
+ * cube. At most rota.stats.cube-cache-size rotas are kept (least recently
+ * used first out); 0 disables caching.
+ */
+@Service
+public class RotaStatsCubeService {
+
+	private static final Logger logger = LoggerFactory.getLogger(RotaStatsCubeService.class);
+
+	private final RotaRepository rotaRepository;
+	private final DeferredSolveRequestRepository deferredSolveRequestRepository;
+
+	@Value("${rota.stats.cube-cache-size:50}")
+	private int cacheSize;
+
+	private final Map<Long, RotaStatsCube> cubes = new LinkedHashMap<>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Long, RotaStatsCube> eldest) {
+			return size() > cacheSize;
+		}
+	};
+
+	public RotaStatsCubeService(RotaRepository rotaRepository,
+			DeferredSolveRequestRepository deferredSolveRequestRepository) {
+		this.rotaRepository = rotaRepository;
+		this.deferredSolveRequestRepository = deferredSolveRequestRepository;
+	}
+
+	/**
+	 * Cube for the rota, built from the database if not cached. null if the
+	 * rota or its request does not exist.
+	 */
+	public RotaStatsCube get(Long rotaId) {
+		RotaStatsCube cube = cached(rotaId);
+		if (cube != null) {
+			return cube;
+		}
+
+		DeferredSolveRequest request = deferredSolveRequestRepository.findByRotaId(rotaId);
+		Rota rota = rotaRepository.findById(rotaId).orElse(null);
+		if (request == null || rota == null) {
+			return null;
+		}
+
+		long startTime = System.currentTimeMillis();
+		cube = build(rota, request);
+		logger.debug("Built stats cube for rota {} in {} ms", rotaId, System.currentTimeMillis() - startTime);
+		store(rotaId, cube);
+		return cube;
+	}
+
+	/**
+	 * A rota was just persisted; build its cube from the solution in memory.
+	 */
+	public void rotaSaved(Rota rota, DeferredSolveRequest request) {
+		RotaStatsCube cube = build(rota, request);
+		afterCommit(() -> store(rota.getId(), cube));
+	}
+
+	/**
+	 * An existing assignment of the shift moved between employees (either
+	 * may be null).
+	 */
+	public void assignmentChanged(Long rotaId, Long shiftId, Integer fromEmployeeId, Integer toEmployeeId) {
+		afterCommit(() -> {
+			RotaStatsCube cube = cached(rotaId);
+			if (cube != null && !cube.reassign(shiftId, fromEmployeeId, toEmployeeId)) {
+				evict(rotaId);
+			}
+		});
+	}
+
+	/**
+	 * A new assignment row was created for the shift.
+	 */
+	public void assignmentAdded(Long rotaId, Shift shift, Integer employeeId) {
+		afterCommit(() -> {
+			RotaStatsCube cube = cached(rotaId);
+			if (cube != null) {
+				cube.addAssignment(shift, employeeId);
+			}
+		});
+	}
+
+	public void evict(Long rotaId) {
+		synchronized (cubes) {
+			cubes.remove(rotaId);
+		}
+	}
+
+	private static RotaStatsCube build(Rota rota, DeferredSolveRequest request) {
+		return RotaStatsCube.build(request.getRegion(), request.getStartDate(), request.getEndDate(),
+				rota.getEmployeeList(), rota.getShiftAssignmentList());
+	}
+
+	private RotaStatsCube cached(Long rotaId) {
+		synchronized (cubes) {
+			return cubes.get(rotaId);
+		}
+	}
+
+	private void store(Long rotaId, RotaStatsCube cube) {
+		if (cacheSize <= 0) {
+			return;
+		}
+		synchronized (cubes) {
+			cubes.put(rotaId, cube);
+		}
+	}
+
+	private static void afterCommit(Runnable action) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			action.run();
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				action.run();
+			}
+		});
+	}
+}
@@ -1,9 +1,13 @@
 package com.midco.rota.service;
 
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -69,6 +73,8 @@ public class ScheduleVersionService {
 	private final EmployeeRepository employeeRepository;
 	private final ShiftTemplateRepository shiftTemplatesRepository;
 	private final RotaRepository rotaRepository;
+	private final ScheduleVersionStore versionStore;
+	private final RotaStatsCubeService rotaStatsCubeService;
 
 	private final PinValidationService pinValidationService;
 	private final PinnedTemplateAssignmentRepository pinnedTemplateAssignmentRepository;
@@ -80,8 +86,9 @@ public class ScheduleVersionService {
 			ScheduleVersionAuditRepository auditRepository, ShiftAssignmentRepository rotaShiftAssignmentRepository,
 			ShiftRepository shiftRepository, EmployeeRepository employeeRepository,
 			ShiftTemplateRepository shiftTemplatesRepository, RotaRepository rotaRepository,
-			PinValidationService pinValidationService,
-			PinnedTemplateAssignmentRepository pinnedTemplateAssignmentRepository) {
+			ScheduleVersionStore versionStore, PinValidationService pinValidationService,
+			PinnedTemplateAssignmentRepository pinnedTemplateAssignmentRepository,
+			RotaStatsCubeService rotaStatsCubeService) {
 
 		this.versionRepository = versionRepository;
 		this.assignmentVersionRepository = assignmentVersionRepository;
@@ -92,8 +99,10 @@ public class ScheduleVersionService {
 		this.employeeRepository = employeeRepository;
 		this.shiftTemplatesRepository = shiftTemplatesRepository;
 		this.rotaRepository = rotaRepository;
+		this.versionStore = versionStore;
 		this.pinnedTemplateAssignmentRepository = pinnedTemplateAssignmentRepository;
 		this.pinValidationService = pinValidationService;
+		this.rotaStatsCubeService = rotaStatsCubeService;
 	}
 
 	/**
@@ -158,31 +167,14 @@ public class ScheduleVersionService {
 			createPinsFromAllAssignments(request.getRotaId(), request.getUsername());
 		}
 
-		// Create assignment version snapshots
-		List<ShiftAssignmentVersion> assignmentVersions = new ArrayList<>();
-		for (ShiftAssignment assignment : currentAssignments) {
-			Integer employeeId = null;
-			if (assignment.getEmployee() != null) {
-				employeeId = assignment.getEmployee().getId();
-			}
-
-			Long shiftId = null;
-			if (assignment.getShift() != null) {
-				shiftId = assignment.getShift().getId();
-			}
-
-			Long rotaId = null;
-			if (assignment.getRota() != null) {
-				rotaId = assignment.getRota().getId();
-			}
+		// ✅ Full snapshot every N versions, otherwise only the shifts that changed
+		Map<Long, List<Integer>> state = toVersionState(currentAssignments);
 
-			ShiftAssignmentVersion av = ShiftAssignmentVersion.builder().versionId(newVersion.getId()).shiftId(shiftId)
-					.employeeId(employeeId).rotaId(rotaId).build();
-			assignmentVersions.add(av);
-		}
-
-		assignmentVersionRepository.saveAll(assignmentVersions);
-		log.info("Saved {} assignment snapshots", assignmentVersions.size());
+		Map<Long, List<ShiftAssignmentVersion>> previousState = previousVersion != null
+				? versionStore.loadState(previousVersion)
+				: null;
+		int saved = versionStore.save(newVersion, state, previousState);
+		log.info("Saved {} assignment rows for {} assignments", saved, newVersion.getTotalAssignments());
 
 		// Track changes if there was a previous version
 		int changeCount = 0;
@@ -191,8 +183,7 @@ public class ScheduleVersionService {
 			log.info("Tracked {} changes", changeCount);
 		}
 
-		// Update statistics
-		newVersion.setTotalAssignments(assignmentVersions.size());
+		// Update statistics (totalAssignments set by the version store)
 		newVersion.setChangesFromPrevious(changeCount);
 		versionRepository.save(newVersion);
 
@@ -210,6 +201,28 @@ public class ScheduleVersionService {
 		return buildVersionDetail(newVersion);
 	}
 
+	/**
+	 * Version 1 for a freshly persisted rota. The snapshot is taken from the
+	 * in-memory solution instead of re-reading the assignments, so the shift
+	 * ids must already be set.
+	 */
+	@Transactional
+	public ScheduleVersion createInitialVersion(Rota rota, String username) {
+		ScheduleVersion version = ScheduleVersion.builder().rotaId(rota.getId()).versionNumber(1)
+				.versionLabel("Initial Schedule").isCurrent(true).createdBy(username)
+				.comment("Auto-generated initial version").changesFromPrevious(0).build();
+		version = versionRepository.save(version);
+
+		int saved = versionStore.save(version, toVersionState(rota.getShiftAssignmentList()), null);
+		versionRepository.save(version);
+
+		createAuditLog(version.getId(), ScheduleVersionAudit.AuditAction.CREATED, username, null, null);
+
+		log.info("Created initial version (id={}) for rota {} with {} assignment snapshots", version.getId(),
+				rota.getId(), saved);
+		return version;
+	}
+
 	/**
 	 * Get version history for a rota
 	 */
@@ -247,17 +260,36 @@ public class ScheduleVersionService {
 		ScheduleVersion targetVersion = versionRepository.findById(request.getTargetVersionId())
 				.orElseThrow(() -> new RuntimeException("Target version not found"));
 
-		// Get target version's assignments
-		List<ShiftAssignmentVersion> targetAssignments = assignmentVersionRepository
-				.findByVersionId(request.getTargetVersionId());
-
-		// BUSINESS LOGIC: Mark current version as not current
 		ScheduleVersion currentVersion = versionRepository.findCurrentVersionByRotaId(targetVersion.getRotaId())
 				.orElse(null);
 
+		// ✅ Target and current state in one pass over the version deltas
+		Map<Long, List<ShiftAssignmentVersion>> targetState;
+		Map<Long, List<ShiftAssignmentVersion>> currentState;
+		Set<Long> candidateShiftIds;
 		if (currentVersion != null) {
+			ScheduleVersionStore.VersionPair pair = versionStore.loadPair(targetVersion, currentVersion);
+			targetState = pair.stateA();
+			currentState = pair.stateB();
+			candidateShiftIds = pair.candidateShiftIds();
+
+			// BUSINESS LOGIC: Mark current version as not current
 			currentVersion.setIsCurrent(false);
 			versionRepository.save(currentVersion);
+		} else {
+			targetState = versionStore.loadState(targetVersion);
+			currentState = Map.of();
+			candidateShiftIds = targetState.keySet();
+		}
+
+		// Shifts whose employees differ between the current and the target version
+		List<ShiftAssignmentVersion> changedAssignments = new ArrayList<>();
+		for (Long shiftId : candidateShiftIds) {
+			List<ShiftAssignmentVersion> target = targetState.get(shiftId);
+			if (target != null && !ScheduleVersionStore.sameEmployees(ScheduleVersionStore.employeeIds(target),
+					currentState.get(shiftId))) {
+				changedAssignments.addAll(target);
+			}
 		}
 
 		// BUSINESS LOGIC: Calculate next version number
@@ -274,22 +306,15 @@ public class ScheduleVersionService {
 
 		rollbackVersion = versionRepository.save(rollbackVersion);
 
-		// Copy target version's assignments
-		List<ShiftAssignmentVersion> newAssignments = new ArrayList<>();
-		for (ShiftAssignmentVersion oldAssignment : targetAssignments) {
-			ShiftAssignmentVersion newAssignment = ShiftAssignmentVersion.builder().versionId(rollbackVersion.getId())
-					.shiftId(oldAssignment.getShiftId()).employeeId(oldAssignment.getEmployeeId())
-					.rotaId(oldAssignment.getRotaId()).build();
-			newAssignments.add(newAssignment);
-		}
-
-		assignmentVersionRepository.saveAll(newAssignments);
+		// Store target version's state as the new version
+		versionStore.save(rollbackVersion, ScheduleVersionStore.employeeIds(targetState),
+				currentVersion != null ? currentState : null);
 
-		// BUSINESS LOGIC: Update live rota_shift_assignment table
-		updateLiveAssignments(targetVersion.getRotaId(), targetAssignments);
+		// BUSINESS LOGIC: Update live rota_shift_assignment table (changed shifts only)
+		updateLiveAssignments(targetVersion.getRotaId(), changedAssignments);
 
 		// Update statistics
-		rollbackVersion.setTotalAssignments(newAssignments.size());
+		rollbackVersion.setChangesFromPrevious(changedAssignments.size());
 		versionRepository.save(rollbackVersion);
 
 		// Create audit logs
@@ -309,73 +334,130 @@ public class ScheduleVersionService {
 	 */
 	@Transactional(readOnly = true)
 	public VersionComparisonDTO compareVersions(Long versionAId, Long versionBId) {
+		return compareVersions(versionAId, versionBId, 0, null);
+	}
+
+	/**
+	 * Compare two versions, one page of differences at a time (ordered by shift
+	 * id). Statistics always cover the whole diff; size null or <= 0 returns
+	 * every difference. Shift, template and employee details are bulk loaded
+	 * for the returned page only.
+	 */
+	@Transactional(readOnly = true)
+	public VersionComparisonDTO compareVersions(Long versionAId, Long versionBId, int page, Integer size) {
 		ScheduleVersion versionA = versionRepository.findById(versionAId)
 				.orElseThrow(() -> new RuntimeException("Version A not found"));
 		ScheduleVersion versionB = versionRepository.findById(versionBId)
 				.orElseThrow(() -> new RuntimeException("Version B not found"));
 
-		List<ShiftAssignmentVersion> assignmentsA = assignmentVersionRepository.findByVersionId(versionAId);
-		List<ShiftAssignmentVersion> assignmentsB = assignmentVersionRepository.findByVersionId(versionBId);
-
-		// Build maps for comparison
-		Map<Long, ShiftAssignmentVersion> mapA = assignmentsA.stream()
-				.collect(Collectors.toMap(ShiftAssignmentVersion::getShiftId, a -> a));
-		Map<Long, ShiftAssignmentVersion> mapB = assignmentsB.stream()
-				.collect(Collectors.toMap(ShiftAssignmentVersion::getShiftId, a -> a));
+		// ✅ Only shifts touched by the deltas between A and B can differ
+		ScheduleVersionStore.VersionPair pair = versionStore.loadPair(versionA, versionB);
+		Map<Long, List<ShiftAssignmentVersion>> mapA = pair.stateA();
+		Map<Long, List<ShiftAssignmentVersion>> mapB = pair.stateB();
 
 		// Find all unique shift IDs
 		Set<Long> allShiftIds = new HashSet<>();
 		allShiftIds.addAll(mapA.keySet());
 		allShiftIds.addAll(mapB.keySet());
 
-		// Compare
-		List<AssignmentDiffDTO> differences = new ArrayList<>();
-		int unchangedCount = 0;
+		// A shift has one slot per assignment; count slots, not shifts
+		int totalShifts = 0;
+		for (Long shiftId : allShiftIds) {
+			totalShifts += Math.max(mapA.getOrDefault(shiftId, List.of()).size(),
+					mapB.getOrDefault(shiftId, List.of()).size());
+		}
+
+		// Compare - ids and change types only, no lookups yet
+		List<SlotDiff> changes = new ArrayList<>();
 		int addedCount = 0;
 		int removedCount = 0;
 		int reassignedCount = 0;
 
-		for (Long shiftId : allShiftIds) {
-			ShiftAssignmentVersion assignmentA = mapA.get(shiftId);
-			ShiftAssignmentVersion assignmentB = mapB.get(shiftId);
-
-			String changeType;
-			Integer empAId = assignmentA != null ? assignmentA.getEmployeeId() : null;
-			Integer empBId = assignmentB != null ? assignmentB.getEmployeeId() : null;
-
-			if (assignmentA == null) {
-				changeType = "ADDED";
-				addedCount++;
-			} else if (assignmentB == null) {
-				changeType = "REMOVED";
-				removedCount++;
-			} else if (!Objects.equals(empAId, empBId)) {
-				changeType = "REASSIGNED";
-				reassignedCount++;
-			} else {
-				changeType = "UNCHANGED";
-				unchangedCount++;
-				continue; // Skip unchanged assignments
+		for (Long shiftId : pair.candidateShiftIds()) {
+			List<ShiftAssignmentVersion> assignmentsA = mapA.get(shiftId);
+			List<ShiftAssignmentVersion> assignmentsB = mapB.get(shiftId);
+
+			// Employees on both sides are unchanged, whatever their slot order
+			List<Integer> onlyA = assignmentsA != null ? ScheduleVersionStore.employeeIds(assignmentsA)
+					: new ArrayList<>();
+			List<Integer> onlyB = new ArrayList<>();
+			if (assignmentsB != null) {
+				for (ShiftAssignmentVersion assignment : assignmentsB) {
+					if (!onlyA.remove(assignment.getEmployeeId())) {
+						onlyB.add(assignment.getEmployeeId());
+					}
+				}
 			}
 
-			// Get shift details
-			Shift shift = shiftRepository.findById(shiftId).orElse(null);
-			ShiftTemplate template = shift != null && shift.getShiftTemplate() != null
-					? shiftTemplatesRepository.findById(shift.getShiftTemplate().getId().intValue()).orElse(null)
-					: null;
+			for (int i = 0; i < Math.max(onlyA.size(), onlyB.size()); i++) {
+				boolean inA = i < onlyA.size();
+				boolean inB = i < onlyB.size();
+
+				String changeType;
+				if (assignmentsA == null || !inA) {
+					changeType = "ADDED";
+					addedCount++;
+				} else if (assignmentsB == null || !inB) {
+					changeType = "REMOVED";
+					removedCount++;
+				} else {
+					changeType = "REASSIGNED";
+					reassignedCount++;
+				}
 
-			differences.add(AssignmentDiffDTO.builder().shiftId(shiftId)
+				changes.add(new SlotDiff(shiftId, changeType, inA ? onlyA.get(i) : null, inB ? onlyB.get(i) : null));
+			}
+		}
+
+		// Requested page
+		changes.sort(Comparator.comparing(SlotDiff::shiftId));
+		List<SlotDiff> pageChanges = changes;
+		if (size != null && size > 0) {
+			int from = Math.min(changes.size(), Math.max(0, page) * size);
+			pageChanges = changes.subList(from, Math.min(changes.size(), from + size));
+		}
+
+		// ✅ Dictionaries for the page: one query for shifts (template is eager), one for employees
+		Set<Long> pageShiftIds = new HashSet<>();
+		Set<Integer> employeeIds = new HashSet<>();
+		for (SlotDiff change : pageChanges) {
+			pageShiftIds.add(change.shiftId());
+			if (change.employeeAId() != null) {
+				employeeIds.add(change.employeeAId());
+			}
+			if (change.employeeBId() != null) {
+				employeeIds.add(change.employeeBId());
+			}
+		}
+		Map<Long, Shift> shiftsById = new HashMap<>();
+		for (Shift shift : shiftRepository.findAllById(pageShiftIds)) {
+			shiftsById.put(shift.getId(), shift);
+		}
+		Map<Integer, String> employeeNames = new HashMap<>();
+		for (Employee employee : employeeRepository.findAllById(employeeIds)) {
+			employeeNames.put(employee.getId(), employee.getFirstName() + " " + employee.getLastName());
+		}
+
+		List<AssignmentDiffDTO> differences = new ArrayList<>(pageChanges.size());
+		for (SlotDiff change : pageChanges) {
+			Integer empAId = change.employeeAId();
+			Integer empBId = change.employeeBId();
+			Shift shift = shiftsById.get(change.shiftId());
+			ShiftTemplate template = shift != null ? shift.getShiftTemplate() : null;
+
+			differences.add(AssignmentDiffDTO.builder().shiftId(change.shiftId())
 					.location(template != null ? template.getLocation() : null)
 					.shiftType(template != null ? template.getShiftType().name() : null)
 					.shiftStart(shift != null && shift.getShiftStart() != null ? shift.getShiftStart().atStartOfDay()
 							: null)
-					.changeType(changeType).employeeAId(empAId).employeeAName(getEmployeeName(empAId))
-					.employeeBId(empBId).employeeBName(getEmployeeName(empBId)).build());
+					.changeType(change.changeType()).employeeAId(empAId)
+					.employeeAName(empAId != null ? employeeNames.get(empAId) : null).employeeBId(empBId)
+					.employeeBName(empBId != null ? employeeNames.get(empBId) : null).build());
 		}
 
 		// Calculate statistics
-		int totalShifts = allShiftIds.size();
 		int changedShifts = addedCount + removedCount + reassignedCount;
+		int unchangedCount = totalShifts - changedShifts;
 		double changePercentage = totalShifts > 0 ? (changedShifts * 100.0 / totalShifts) : 0.0;
 
 		ComparisonStatisticsDTO statistics = ComparisonStatisticsDTO.builder().totalShifts(totalShifts)
@@ -384,7 +466,32 @@ public class ScheduleVersionService {
 				.changePercentage(Math.round(changePercentage * 100.0) / 100.0).build();
 
 		return VersionComparisonDTO.builder().versionA(toSummaryDTO(versionA)).versionB(toSummaryDTO(versionB))
-				.differences(differences).statistics(statistics).build();
+				.differences(differences).statistics(statistics).page(size != null && size > 0 ? page : null)
+				.pageSize(size != null && size > 0 ? size : null).totalDifferences(changes.size()).build();
+	}
+
+	/**
+	 * One changed slot of a shift between two versions.
+	 */
+	private record SlotDiff(Long shiftId, String changeType, Integer employeeAId, Integer employeeBId) {
+	}
+
+	/**
+	 * Version state of live assignments: shift id -> employee id per
+	 * assignment, in assignment id order.
+	 */
+	private static Map<Long, List<Integer>> toVersionState(List<ShiftAssignment> assignments) {
+		List<ShiftAssignment> ordered = new ArrayList<>(assignments);
+		ordered.sort(Comparator.comparing(ShiftAssignment::getId, Comparator.nullsLast(Comparator.naturalOrder())));
+
+		Map<Long, List<Integer>> state = new LinkedHashMap<>();
+		for (ShiftAssignment assignment : ordered) {
+			if (assignment.getShift() != null) {
+				state.computeIfAbsent(assignment.getShift().getId(), k -> new ArrayList<>())
+						.add(assignment.getEmployee() != null ? assignment.getEmployee().getId() : null);
+			}
+		}
+		return state;
 	}
 
 	// ===== PRIVATE HELPER METHODS =====
@@ -433,32 +540,78 @@ public class ScheduleVersionService {
 		}
 	}
 
+	/**
+	 * Make the live assignments of each shift in versionAssignments hold
+	 * exactly that shift's employees. Assignments already holding one of them
+	 * are left alone, the others are reused in order; missing ones are
+	 * created and surplus ones cleared.
+	 */
 	private void updateLiveAssignments(Long rotaId, List<ShiftAssignmentVersion> versionAssignments) {
 		// ✅ Don't delete - update existing assignments
-		List<ShiftAssignment> existingAssignments = rotaShiftAssignmentRepository.findByRotaId(rotaId);
-		Map<Long, ShiftAssignment> existingMap = existingAssignments.stream()
-				.collect(Collectors.toMap(sa -> sa.getShift().getId(), sa -> sa));
+		Map<Long, List<ShiftAssignment>> existingByShift = new HashMap<>();
+		for (ShiftAssignment sa : rotaShiftAssignmentRepository.findByRotaId(rotaId)) {
+			if (sa.getShift() != null) {
+				existingByShift.computeIfAbsent(sa.getShift().getId(), k -> new ArrayList<>()).add(sa);
+			}
+		}
 
+		Map<Long, List<ShiftAssignmentVersion>> targetByShift = new LinkedHashMap<>();
+		Set<Integer> employeeIds = new HashSet<>();
 		for (ShiftAssignmentVersion va : versionAssignments) {
-			ShiftAssignment assignment = existingMap.get(va.getShiftId());
-
-			if (assignment == null) {
-				assignment = new ShiftAssignment();
-				Shift shift = shiftRepository.findById(va.getShiftId()).orElseThrow();
-				Rota rota = rotaRepository.findById(va.getRotaId()).orElseThrow();
-				assignment.setShift(shift);
-				assignment.setRota(rota);
+			targetByShift.computeIfAbsent(va.getShiftId(), k -> new ArrayList<>()).add(va);
+			if (va.getEmployeeId() != null) {
+				employeeIds.add(va.getEmployeeId());
 			}
+		}
+		Map<Integer, Employee> employees = new HashMap<>();
+		for (Employee employee : employeeRepository.findAllById(employeeIds)) {
+			employees.put(employee.getId(), employee);
+		}
 
-			// ✅ Set or clear employee
-			if (va.getEmployeeId() != null) {
-				Employee employee = employeeRepository.findById(va.getEmployeeId()).orElseThrow();
-				assignment.setEmployee(employee);
-			} else {
-				assignment.setEmployee(null);
+		Rota rota = null;
+		for (Map.Entry<Long, List<ShiftAssignmentVersion>> entry : targetByShift.entrySet()) {
+			List<Integer> remaining = ScheduleVersionStore.employeeIds(entry.getValue());
+			List<ShiftAssignment> reusable = new ArrayList<>();
+			for (ShiftAssignment sa : existingByShift.getOrDefault(entry.getKey(), List.of())) {
+				if (!remaining.remove(sa.getEmployee() != null ? sa.getEmployee().getId() : null)) {
+					reusable.add(sa);
+				}
 			}
 
-			rotaShiftAssignmentRepository.save(assignment);
+			for (int i = 0; i < Math.max(remaining.size(), reusable.size()); i++) {
+				ShiftAssignment assignment;
+				if (i < reusable.size()) {
+					assignment = reusable.get(i);
+				} else {
+					if (rota == null) {
+						rota = rotaRepository.findById(rotaId).orElseThrow();
+					}
+					assignment = new ShiftAssignment();
+					assignment.setShift(shiftRepository.findById(entry.getKey()).orElseThrow());
+					assignment.setRota(rota);
+				}
+
+				// ✅ Set or clear employee
+				boolean created = assignment.getId() == null;
+				Integer previousEmployeeId = assignment.getEmployee() != null ? assignment.getEmployee().getId() : null;
+				Integer employeeId = i < remaining.size() ? remaining.get(i) : null;
+				if (employeeId != null) {
+					Employee employee = employees.get(employeeId);
+					if (employee == null) {
+						throw new NoSuchElementException("Employee not found: " + employeeId);
+					}
+					assignment.setEmployee(employee);
+				} else {
+					assignment.setEmployee(null);
+				}
+
+				rotaShiftAssignmentRepository.save(assignment);
+				if (created) {
+					rotaStatsCubeService.assignmentAdded(rotaId, assignment.getShift(), employeeId);
+				} else {
+					rotaStatsCubeService.assignmentChanged(rotaId, entry.getKey(), previousEmployeeId, employeeId);
+				}
+			}
 		}
 	}
 
@@ -475,7 +628,7 @@ public class ScheduleVersionService {
 	}
 
 	private VersionDetailDTO buildVersionDetail(ScheduleVersion version, boolean includeChanges) {
-		List<ShiftAssignmentVersion> assignments = assignmentVersionRepository.findByVersionId(version.getId());
+		List<ShiftAssignmentVersion> assignments = versionStore.loadAssignments(version);
 
 		// Convert to DTOs with shift details
 		List<AssignmentVersionDTO> assignmentDTOs = assignments.stream().map(this::toAssignmentDTO)
@@ -577,15 +730,6 @@ public class ScheduleVersionService {
 				.allocationRate(Math.round(allocationRate * 100.0) / 100.0).build();
 	}
 
-	private String getEmployeeName(Integer employeeId) {
-		if (employeeId == null)
-			return null;
-		Employee employee = employeeRepository.findById(employeeId).orElse(null);
-		if (employee == null)
-			return null;
-		return employee.getFirstName() + " " + employee.getLastName();
-	}
-
 	private void applyChangesToDatabase(Long rotaId, List<ShiftAssignmentChangeDTO> changes) {
 		for (ShiftAssignmentChangeDTO change : changes) {
 			Long shiftId = change.getShiftId();
@@ -597,12 +741,16 @@ public class ScheduleVersionService {
 				// ✅ FIXED: Set employee to NULL instead of deleting row
 				if (!existing.isEmpty()) {
 					ShiftAssignment assignment = existing.get(0);
+					Integer previousEmployeeId = assignment.getEmployee() != null ? assignment.getEmployee().getId()
+							: null;
 					assignment.setEmployee(null);
 					rotaShiftAssignmentRepository.save(assignment);
+					rotaStatsCubeService.assignmentChanged(rotaId, shiftId, previousEmployeeId, null);
 				}
 			} else {
 				// ASSIGN/REASSIGN
 				ShiftAssignment assignment = existing.isEmpty() ? new ShiftAssignment() : existing.get(0);
+				Integer previousEmployeeId = assignment.getEmployee() != null ? assignment.getEmployee().getId() : null;
 
 				Shift shift = shiftRepository.findById(shiftId).orElseThrow();
 				Employee employee = employeeRepository.findById(newEmployeeId).orElseThrow();
@@ -613,6 +761,11 @@ public class ScheduleVersionService {
 				assignment.setRota(rota);
 
 				rotaShiftAssignmentRepository.save(assignment);
+				if (existing.isEmpty()) {
+					rotaStatsCubeService.assignmentAdded(rotaId, shift, newEmployeeId);
+				} else {
+					rotaStatsCubeService.assignmentChanged(rotaId, shiftId, previousEmployeeId, newEmployeeId);
+				}
 			}
 		}
 	}
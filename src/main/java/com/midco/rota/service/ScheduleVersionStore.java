@@ -0,0 +1,282 @@
+package com.midco.rota.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.midco.rota.model.ScheduleVersion;
+import com.midco.rota.model.ShiftAssignmentVersion;
+import com.midco.rota.repository.RotaJdbcRepository;
+import com.midco.rota.repository.ScheduleVersionRepository;
+import com.midco.rota.repository.ShiftAssignmentVersionRepository;
+
+/**
+ * Delta storage for schedule versions.
+ *
+ * shift_assignment_version keeps a full snapshot (one row per assignment) only
+ * every rota.versions.snapshot-interval versions; the versions in between only
+ * store the shifts whose employees changed since the previous version number,
+ * with all of their assignments (a shift can have several).
+ * A version is a snapshot when its row count equals its totalAssignments, so
+ * versions written before this (all full) read back unchanged and no schema
+ * change is needed.
+ *
+ * Reconstruction loads the nearest snapshot at or below the version plus the
+ * deltas on top of it, in one query.
+ */
+@Service
+public class ScheduleVersionStore {
+
+	private static final Logger log = LoggerFactory.getLogger(ScheduleVersionStore.class);
+
+	private final ScheduleVersionRepository versionRepository;
+	private final ShiftAssignmentVersionRepository assignmentVersionRepository;
+	private final RotaJdbcRepository rotaJdbcRepository;
+
+	@Value("${rota.versions.snapshot-interval:10}")
+	private int snapshotInterval;
+
+	public ScheduleVersionStore(ScheduleVersionRepository versionRepository,
+			ShiftAssignmentVersionRepository assignmentVersionRepository, RotaJdbcRepository rotaJdbcRepository) {
+		this.versionRepository = versionRepository;
+		this.assignmentVersionRepository = assignmentVersionRepository;
+		this.rotaJdbcRepository = rotaJdbcRepository;
+	}
+
+	/**
+	 * Two version states plus the shift ids that may differ between them. For
+	 * versions of the same rota these are only the shifts touched by the deltas
+	 * in between; everything else is known to be unchanged.
+	 */
+	public record VersionPair(Map<Long, List<ShiftAssignmentVersion>> stateA,
+			Map<Long, List<ShiftAssignmentVersion>> stateB, Set<Long> candidateShiftIds) {
+	}
+
+	/**
+	 * Write the rows for a new version. state is the full shift id -> employee
+	 * ids map of the new version (one entry per assignment, null for
+	 * unassigned; templates with empCount > 1 share a shift), previous the
+	 * state of the version before it (null if none). A delta always carries
+	 * every assignment of a changed shift. Sets totalAssignments on the
+	 * version; the caller saves it.
+	 *
+	 * @return number of rows written
+	 */
+	public int save(ScheduleVersion version, Map<Long, List<Integer>> state,
+			Map<Long, List<ShiftAssignmentVersion>> previous) {
+		int total = 0;
+		for (List<Integer> employeeIds : state.values()) {
+			total += employeeIds.size();
+		}
+
+		Map<Long, List<Integer>> rows = state;
+		if (!isSnapshotDue(version, previous)) {
+			Map<Long, List<Integer>> delta = new LinkedHashMap<>();
+			int deltaRows = 0;
+			for (Map.Entry<Long, List<Integer>> entry : state.entrySet()) {
+				if (!sameEmployees(entry.getValue(), previous.get(entry.getKey()))) {
+					delta.put(entry.getKey(), entry.getValue());
+					deltaRows += entry.getValue().size();
+				}
+			}
+			// A delta cannot express removed shifts, and a large one saves little
+			boolean removed = !state.keySet().containsAll(previous.keySet());
+			if (!removed && deltaRows * 2 <= total) {
+				rows = delta;
+			}
+		}
+
+		version.setTotalAssignments(total);
+		int written = rotaJdbcRepository.insertAssignmentVersions(version.getId(), version.getRotaId(), rows);
+		log.debug("Version {} of rota {}: {} {} rows", version.getVersionNumber(), version.getRotaId(), written,
+				rows == state ? "snapshot" : "delta");
+		return written;
+	}
+
+	private boolean isSnapshotDue(ScheduleVersion version, Map<Long, List<ShiftAssignmentVersion>> previous) {
+		return previous == null || snapshotInterval <= 1 || version.getVersionNumber() == null
+				|| (version.getVersionNumber() - 1) % snapshotInterval == 0;
+	}
+
+	/**
+	 * Same employees on a shift, ignoring slot order.
+	 */
+	public static boolean sameEmployees(List<Integer> employeeIds, List<ShiftAssignmentVersion> rows) {
+		if (rows == null || rows.size() != employeeIds.size()) {
+			return false;
+		}
+		List<Integer> remaining = new ArrayList<>(employeeIds);
+		for (ShiftAssignmentVersion row : rows) {
+			if (!remaining.remove(row.getEmployeeId())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	public static List<Integer> employeeIds(List<ShiftAssignmentVersion> rows) {
+		List<Integer> ids = new ArrayList<>(rows.size());
+		rows.forEach(row -> ids.add(row.getEmployeeId()));
+		return ids;
+	}
+
+	public static Map<Long, List<Integer>> employeeIds(Map<Long, List<ShiftAssignmentVersion>> state) {
+		Map<Long, List<Integer>> employeeIds = new LinkedHashMap<>();
+		state.forEach((shiftId, rows) -> employeeIds.put(shiftId, employeeIds(rows)));
+		return employeeIds;
+	}
+
+	/**
+	 * Full state of a version, shift id -> the rows that last set it.
+	 */
+	public Map<Long, List<ShiftAssignmentVersion>> loadState(ScheduleVersion version) {
+		List<ScheduleVersion> chain = chainTo(version, version);
+		Map<Long, List<ShiftAssignmentVersion>> state = new LinkedHashMap<>();
+		fold(chain, loadRows(chain), state, null);
+		return state;
+	}
+
+	public List<ShiftAssignmentVersion> loadAssignments(ScheduleVersion version) {
+		List<ShiftAssignmentVersion> assignments = new ArrayList<>();
+		loadState(version).values().forEach(assignments::addAll);
+		return assignments;
+	}
+
+	public VersionPair loadPair(ScheduleVersion versionA, ScheduleVersion versionB) {
+		if (!Objects.equals(versionA.getRotaId(), versionB.getRotaId())) {
+			Map<Long, List<ShiftAssignmentVersion>> stateA = loadState(versionA);
+			Map<Long, List<ShiftAssignmentVersion>> stateB = loadState(versionB);
+			Set<Long> candidates = new HashSet<>(stateA.keySet());
+			candidates.addAll(stateB.keySet());
+			return new VersionPair(stateA, stateB, candidates);
+		}
+
+		boolean aFirst = versionA.getVersionNumber() <= versionB.getVersionNumber();
+		ScheduleVersion lower = aFirst ? versionA : versionB;
+		ScheduleVersion upper = aFirst ? versionB : versionA;
+
+		List<ScheduleVersion> chain = chainTo(lower, upper);
+		Map<Long, List<ShiftAssignmentVersion>> rows = loadRows(chain);
+
+		int split = 0;
+		while (split < chain.size() && chain.get(split).getVersionNumber() <= lower.getVersionNumber()) {
+			split++;
+		}
+		Map<Long, List<ShiftAssignmentVersion>> lowerState = new LinkedHashMap<>();
+		fold(chain.subList(0, split), rows, lowerState, null);
+
+		Map<Long, List<ShiftAssignmentVersion>> upperState = new LinkedHashMap<>(lowerState);
+		Set<Long> candidates = new HashSet<>();
+		fold(chain.subList(split, chain.size()), rows, upperState, candidates);
+		if (candidates.contains(null)) {
+			// A snapshot in between - every shift may have changed
+			candidates = new HashSet<>(lowerState.keySet());
+			candidates.addAll(upperState.keySet());
+		}
+
+		return aFirst ? new VersionPair(lowerState, upperState, candidates)
+				: new VersionPair(upperState, lowerState, candidates);
+	}
+
+	/**
+	 * Versions from the snapshot at or below 'from' up to 'to', ascending.
+	 */
+	private List<ScheduleVersion> chainTo(ScheduleVersion from, ScheduleVersion to) {
+		List<ScheduleVersion> history = versionRepository.findByRotaIdOrderByVersionNumberDesc(from.getRotaId());
+
+		List<ScheduleVersion> chain = new ArrayList<>();
+		for (ScheduleVersion v : history) {
+			if (v.getVersionNumber() > from.getVersionNumber() && v.getVersionNumber() <= to.getVersionNumber()) {
+				chain.add(v);
+			}
+		}
+
+		// Walk down from 'from' in windows until a snapshot is found
+		List<ScheduleVersion> older = new ArrayList<>();
+		for (ScheduleVersion v : history) {
+			if (v.getVersionNumber() <= from.getVersionNumber()) {
+				older.add(v);
+			}
+		}
+		int window = Math.max(1, snapshotInterval);
+		boolean found = false;
+		for (int start = 0; start < older.size() && !found; start += window) {
+			List<ScheduleVersion> slice = older.subList(start, Math.min(older.size(), start + window));
+			Map<Long, Long> counts = countRows(slice);
+			for (ScheduleVersion v : slice) {
+				chain.add(v);
+				if (isSnapshot(v, counts.getOrDefault(v.getId(), 0L))) {
+					found = true;
+					break;
+				}
+			}
+		}
+		if (!found) {
+			log.warn("No snapshot found below version {} of rota {}, reconstructing from deltas only",
+					from.getVersionNumber(), from.getRotaId());
+		}
+
+		chain.sort(Comparator.comparing(ScheduleVersion::getVersionNumber));
+		return chain;
+	}
+
+	private Map<Long, Long> countRows(List<ScheduleVersion> versions) {
+		Map<Long, Long> counts = new HashMap<>();
+		for (Object[] row : assignmentVersionRepository
+				.countRowsByVersionIds(versions.stream().map(ScheduleVersion::getId).toList())) {
+			counts.put((Long) row[0], ((Number) row[1]).longValue());
+		}
+		return counts;
+	}
+
+	private static boolean isSnapshot(ScheduleVersion version, long rowCount) {
+		Integer total = version.getTotalAssignments();
+		return total == null || rowCount >= total;
+	}
+
+	private Map<Long, List<ShiftAssignmentVersion>> loadRows(List<ScheduleVersion> chain) {
+		Map<Long, List<ShiftAssignmentVersion>> rows = new HashMap<>();
+		for (ShiftAssignmentVersion row : assignmentVersionRepository
+				.findByVersionIdIn(chain.stream().map(ScheduleVersion::getId).toList())) {
+			rows.computeIfAbsent(row.getVersionId(), k -> new ArrayList<>()).add(row);
+		}
+		return rows;
+	}
+
+	/**
+	 * Apply versions in order. A snapshot replaces the state, a delta replaces
+	 * the rows of the shifts it contains. Touched shift ids go into 'touched';
+	 * a snapshot adds null to mark that all shifts are affected.
+	 */
+	private static void fold(List<ScheduleVersion> versions, Map<Long, List<ShiftAssignmentVersion>> rows,
+			Map<Long, List<ShiftAssignmentVersion>> state, Set<Long> touched) {
+		for (ScheduleVersion v : versions) {
+			List<ShiftAssignmentVersion> versionRows = rows.getOrDefault(v.getId(), List.of());
+			if (isSnapshot(v, versionRows.size())) {
+				state.clear();
+				if (touched != null) {
+					touched.add(null);
+				}
+			}
+			Map<Long, List<ShiftAssignmentVersion>> byShift = new LinkedHashMap<>();
+			for (ShiftAssignmentVersion row : versionRows) {
+				byShift.computeIfAbsent(row.getShiftId(), k -> new ArrayList<>()).add(row);
+			}
+			state.putAll(byShift);
+			if (touched != null) {
+				touched.addAll(byShift.keySet());
+			}
+		}
+	}
+}
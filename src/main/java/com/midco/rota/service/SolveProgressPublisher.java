@@ -0,0 +1,402 @@
+package com.midco.rota.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import com.midco.rota.dto.AssignmentSlotDTO;
+import com.midco.rota.dto.AssignmentUpdateDTO;
+import com.midco.rota.dto.SolveProgressDTO;
+import com.midco.rota.model.Employee;
+import com.midco.rota.model.Rota;
+import com.midco.rota.model.ShiftAssignment;
+import com.midco.rota.model.ShiftTemplate;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Streams rota updates to /user/queue/rotaUpdate as a snapshot + delta
+ * protocol (see {@link SolveProgressDTO}).
+ *
+ * Each solve gets a {@link SolveTracker} holding the last known employee per
+ * slot and a sequence number. The first message is a SNAPSHOT, after that only
+ * DELTAs of (slot id, employee id). Updates are coalesced per user: whatever
+ * arrives within one interval (rota.solver.progress-interval-ms) is merged
+ * and sent as a single message, a list with one entry per running solve of
+ * that user.
+ */
+@Service
+public class SolveProgressPublisher {
+
+	private static final Logger logger = LoggerFactory.getLogger(SolveProgressPublisher.class);
+
+	private static final String DESTINATION = "/queue/rotaUpdate";
+
+	private final SimpMessagingTemplate messagingTemplate;
+	private final SolverMetrics solverMetrics;
+	private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+		Thread thread = new Thread(r, "solve-progress");
+		thread.setDaemon(true);
+		return thread;
+	});
+	private final Map<String, UserChannel> channels = new ConcurrentHashMap<>();
+
+	// Streaming solves by request id, for resync
+	private final Map<Long, SolveTracker> trackers = new ConcurrentHashMap<>();
+
+	@Value("${rota.solver.progress-interval-ms:1000}")
+	private long intervalMs;
+
+	public SolveProgressPublisher(SimpMessagingTemplate messagingTemplate, SolverMetrics solverMetrics) {
+		this.messagingTemplate = messagingTemplate;
+		this.solverMetrics = solverMetrics;
+	}
+
+	public SolveTracker track(Long requestId, String user) {
+		return track(requestId, user, null);
+	}
+
+	/**
+	 * region only tags the push latency metric. Without a user nothing is
+	 * streamed, so the tracker isn't registered.
+	 */
+	public SolveTracker track(Long requestId, String user, String region) {
+		SolveTracker tracker = new SolveTracker(requestId, user, region);
+		if (user == null) {
+			return tracker;
+		}
+		if (requestId != null) {
+			trackers.put(requestId, tracker);
+		}
+		channels.compute(user, (k, channel) -> {
+			UserChannel c = channel != null ? channel : new UserChannel();
+			synchronized (c) {
+				c.solving++;
+			}
+			return c;
+		});
+		return tracker;
+	}
+
+	/**
+	 * New best solution from the solver. Called on OptaPlanner's consumer
+	 * thread; the solution is a planning clone, safe to read here.
+	 */
+	public void publish(SolveTracker tracker, Rota bestSolution) {
+		offer(tracker, bestSolution, false);
+	}
+
+	/**
+	 * Final solution, after persisting. Marks the solve finished for the client
+	 * and stops tracking it once sent.
+	 */
+	public void finish(SolveTracker tracker, Rota finalSolution) {
+		offer(tracker, finalSolution, true);
+	}
+
+	/**
+	 * Solve failed or its result couldn't be processed: stop tracking it, drop
+	 * anything not yet sent and tell the client it ENDED.
+	 */
+	public void abort(SolveTracker tracker) {
+		if (tracker.requestId != null) {
+			trackers.remove(tracker.requestId, tracker);
+		}
+		if (tracker.user == null || !tracker.end()) {
+			return;
+		}
+		release(tracker.user, tracker);
+		send(tracker.user,
+				List.of(new SolveProgressDTO(tracker.requestId, SolveProgressDTO.ENDED, null, LocalDateTime.now())));
+	}
+
+	/**
+	 * Client saw a sequence gap: send a fresh SNAPSHOT on the next flush, or
+	 * ENDED straight away if the solve is no longer streaming.
+	 */
+	public void resync(Long requestId, String user) {
+		SolveTracker tracker = requestId != null ? trackers.get(requestId) : null;
+		if (tracker == null || !Objects.equals(tracker.user, user)) {
+			send(user, List.of(new SolveProgressDTO(requestId, SolveProgressDTO.ENDED, null, LocalDateTime.now())));
+			return;
+		}
+		synchronized (tracker) {
+			if (!tracker.dirty && !tracker.snapshotRequested) {
+				tracker.pendingSince = System.nanoTime();
+			}
+			tracker.snapshotRequested = true;
+		}
+		schedule(tracker);
+	}
+
+	private void offer(SolveTracker tracker, Rota solution, boolean finished) {
+		if (tracker.user == null || !tracker.update(solution, finished)) {
+			return;
+		}
+		schedule(tracker);
+	}
+
+	private void schedule(SolveTracker tracker) {
+		// Under compute so a channel being pruned can't swallow the tracker
+		channels.compute(tracker.user, (user, existing) -> {
+			UserChannel channel = existing != null ? existing : new UserChannel();
+			synchronized (channel) {
+				channel.pending.add(tracker);
+				if (!channel.flushScheduled) {
+					long delay = Math.max(0, channel.lastSentAt + intervalMs - System.currentTimeMillis());
+					channel.flushScheduled = true;
+					scheduler.schedule(() -> flush(user, channel), delay, TimeUnit.MILLISECONDS);
+				}
+			}
+			return channel;
+		});
+	}
+
+	/**
+	 * One solve of the user is over. The channel goes once no solve is
+	 * running and nothing is pending; it is kept until then so the interval
+	 * between messages still holds.
+	 */
+	private void release(String user, SolveTracker tracker) {
+		channels.computeIfPresent(user, (k, channel) -> {
+			synchronized (channel) {
+				channel.pending.remove(tracker);
+				channel.solving--;
+				return channel.solving <= 0 && channel.pending.isEmpty() && !channel.flushScheduled ? null : channel;
+			}
+		});
+	}
+
+	private void flush(String user, UserChannel channel) {
+		List<SolveTracker> due;
+		synchronized (channel) {
+			due = new ArrayList<>(channel.pending);
+			channel.pending.clear();
+			channel.flushScheduled = false;
+			channel.lastSentAt = System.currentTimeMillis();
+		}
+
+		List<SolveProgressDTO> messages = new ArrayList<>(due.size());
+		List<SolveTracker> sent = new ArrayList<>(due.size());
+		List<Long> pendingSince = new ArrayList<>(due.size());
+		for (SolveTracker tracker : due) {
+			long since;
+			SolveProgressDTO message;
+			synchronized (tracker) {
+				since = tracker.pendingSince;
+				message = tracker.nextMessage();
+			}
+			if (message != null) {
+				messages.add(message);
+				sent.add(tracker);
+				pendingSince.add(since);
+			}
+			if (message != null && message.isFinished()) {
+				if (tracker.requestId != null) {
+					trackers.remove(tracker.requestId, tracker);
+				}
+				if (tracker.end()) {
+					release(user, tracker);
+				}
+			}
+		}
+		if (send(user, messages)) {
+			long now = System.nanoTime();
+			for (int i = 0; i < sent.size(); i++) {
+				solverMetrics.recordPush(sent.get(i).region, now - pendingSince.get(i));
+			}
+		}
+	}
+
+	private boolean send(String user, List<SolveProgressDTO> messages) {
+		if (messages.isEmpty()) {
+			return false;
+		}
+		try {
+			messagingTemplate.convertAndSendToUser(user, DESTINATION, messages);
+			return true;
+		} catch (Exception e) {
+			logger.warn("Failed to push rota update to {}", user, e);
+			return false;
+		}
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		scheduler.shutdownNow();
+	}
+
+	/**
+	 * Per-solve stream state. Slot ids are the assignment's position in the
+	 * first solution seen; planning clones keep the list order.
+	 */
+	public static class SolveTracker {
+
+		private final Long requestId;
+		private final String user;
+		private final String region;
+
+		private Map<String, Integer> slotIds;
+		private List<AssignmentSlotDTO> slots;
+		private Integer[] employeeIds;
+		private Map<Integer, String> employeeNames;
+
+		private long seq;
+		private boolean snapshotSent;
+		private boolean snapshotRequested;
+		private boolean dirty;
+		private boolean finished;
+		// Finished message sent or solve aborted, nothing more goes out
+		private boolean ended;
+		// System.nanoTime() of the oldest change not yet sent
+		private long pendingSince;
+		private String score;
+		private Map<String, Long> unassignedByShiftType;
+		private final Map<Integer, Integer> changes = new LinkedHashMap<>();
+
+		private SolveTracker(Long requestId, String user, String region) {
+			this.requestId = requestId;
+			this.user = user;
+			this.region = region;
+		}
+
+		/**
+		 * false once the solve has ended, the update is then dropped.
+		 */
+		private synchronized boolean update(Rota solution, boolean last) {
+			if (ended) {
+				return false;
+			}
+			List<ShiftAssignment> assignments = solution.getShiftAssignmentList();
+			if (slots == null) {
+				initSlots(solution);
+			}
+
+			Map<String, Long> unassigned = new TreeMap<>();
+			for (ShiftAssignment sa : assignments) {
+				Integer id = slotIds.get(sa.getPlanningId());
+				if (id == null) {
+					continue;
+				}
+				Integer employeeId = sa.getEmployee() != null ? sa.getEmployee().getId() : null;
+				if (!Objects.equals(employeeIds[id], employeeId)) {
+					employeeIds[id] = employeeId;
+					// Later change of the same slot within one window wins
+					changes.put(id, employeeId);
+				}
+				if (employeeId == null && sa.getShift().getShiftTemplate().getShiftType() != null) {
+					unassigned.merge(sa.getShift().getShiftTemplate().getShiftType().name(), 1L, Long::sum);
+				}
+			}
+
+			score = solution.getScore() != null ? solution.getScore().toString() : null;
+			unassignedByShiftType = unassigned;
+			finished |= last;
+			if (!dirty) {
+				pendingSince = System.nanoTime();
+			}
+			dirty = true;
+			return true;
+		}
+
+		/**
+		 * true for the first caller only.
+		 */
+		private synchronized boolean end() {
+			if (ended) {
+				return false;
+			}
+			ended = true;
+			return true;
+		}
+
+		private void initSlots(Rota solution) {
+			List<ShiftAssignment> assignments = solution.getShiftAssignmentList();
+			slotIds = new HashMap<>(assignments.size() * 2);
+			slots = new ArrayList<>(assignments.size());
+			employeeIds = new Integer[assignments.size()];
+			for (ShiftAssignment sa : assignments) {
+				int id = slots.size();
+				ShiftTemplate template = sa.getShift().getShiftTemplate();
+				slotIds.put(sa.getPlanningId(), id);
+				slots.add(new AssignmentSlotDTO(id, template.getLocation(), sa.getShift().getShiftStart(),
+						template.getShiftType() != null ? template.getShiftType().name() : null,
+						template.getStartTime(), null));
+			}
+			employeeNames = new HashMap<>();
+			for (Employee emp : solution.getEmployeeList()) {
+				employeeNames.put(emp.getId(), emp.getName());
+			}
+		}
+
+		/**
+		 * SNAPSHOT first and on resync, otherwise a DELTA of what changed
+		 * since the previous message. null when there is nothing to send.
+		 */
+		private synchronized SolveProgressDTO nextMessage() {
+			if (slots == null || ended || (!dirty && !snapshotRequested)) {
+				return null;
+			}
+
+			boolean snapshot = !snapshotSent || snapshotRequested;
+			SolveProgressDTO message = new SolveProgressDTO(requestId,
+					snapshot ? SolveProgressDTO.SNAPSHOT : SolveProgressDTO.DELTA, ++seq, LocalDateTime.now());
+			message.setScore(score);
+			message.setUnassignedByShiftType(unassignedByShiftType);
+			message.setFinished(finished);
+
+			if (snapshot) {
+				List<AssignmentSlotDTO> current = new ArrayList<>(slots.size());
+				for (AssignmentSlotDTO slot : slots) {
+					current.add(new AssignmentSlotDTO(slot.getId(), slot.getLocation(), slot.getDate(),
+							slot.getShiftType(), slot.getStartTime(), employeeIds[slot.getId()]));
+				}
+				message.setSlots(current);
+				message.setEmployees(employeeNames);
+			} else {
+				List<AssignmentUpdateDTO> updates = new ArrayList<>(changes.size());
+				changes.forEach((id, employeeId) -> updates.add(new AssignmentUpdateDTO(id, employeeId)));
+				message.setChanges(updates);
+			}
+
+			changes.clear();
+			snapshotSent = true;
+			snapshotRequested = false;
+			dirty = false;
+			return message;
+		}
+
+		public Long getRequestId() {
+			return requestId;
+		}
+
+		public String getUser() {
+			return user;
+		}
+	}
+
+	private static class UserChannel {
+		private final Set<SolveTracker> pending = new LinkedHashSet<>();
+		private long lastSentAt;
+		private boolean flushScheduled;
+		// Solves of this user not yet finished or aborted
+		private int solving;
+	}
+}
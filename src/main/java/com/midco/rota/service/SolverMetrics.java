@@ -0,0 +1,187 @@
+package com.midco.rota.service;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.optaplanner.core.api.score.buildin.hardsoftlong.HardSoftLongScore;
+import org.springframework.stereotype.Service;
+
+import com.midco.rota.model.DeferredSolveRequest;
+import com.midco.rota.model.Rota;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Measurement;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.config.MeterFilter;
+
+/**
+ * Solver telemetry, every meter tagged by region (/actuator/metrics).
+ *
+ * rota.solver.solve - time from solve start to persisted (outcome=success) or
+ * failed; rota.solver.time-to-feasible - time to the first best solution with
+ * no hard penalty; rota.solver.best-score (level=hard|soft) - latest best
+ * score per region; rota.solver.score-calculation-speed - per solve, score
+ * calculations/sec as of its last new best solution; rota.solver.queue.pending
+ * - DeferredSolveRequests waiting or running, refreshed on every dispatch;
+ * rota.solver.persist - RosterUpdateService.persistSolvedRota;
+ * rota.solver.progress.push - from a best solution reaching the publisher to
+ * its message being handed to the broker.
+ *
+ * OptaPlanner's own meters (optaplanner.solver.*, enabled by the monitoring
+ * section of the solver configs) only carry solver.id, the request id;
+ * {@link RegionTagFilter} adds the region of that request while it runs.
+ */
+@Service
+public class SolverMetrics {
+
+	private static final String OPTAPLANNER_PREFIX = "optaplanner.solver.";
+	private static final String SCORE_CALCULATION_COUNT = "optaplanner.solver.score.calculation.count";
+
+	private final MeterRegistry registry;
+	private final RegionTagFilter regionTagFilter;
+
+	private final Map<String, AtomicLong[]> bestScores = new ConcurrentHashMap<>();
+	private final Map<String, AtomicLong> pendingByRegion = new ConcurrentHashMap<>();
+
+	public SolverMetrics(MeterRegistry registry, RegionTagFilter regionTagFilter) {
+		this.registry = registry;
+		this.regionTagFilter = regionTagFilter;
+	}
+
+	public SolveRun start(Long requestId, String region) {
+		String tag = regionTag(region);
+		if (requestId != null) {
+			regionTagFilter.regionsBySolverId.put(requestId.toString(), tag);
+		}
+		return new SolveRun(requestId, tag);
+	}
+
+	/**
+	 * Pending requests as read by the dispatcher; regions with none left drop
+	 * to 0.
+	 */
+	public void pendingRequests(List<DeferredSolveRequest> pending) {
+		Map<String, Long> counts = new HashMap<>();
+		for (DeferredSolveRequest request : pending) {
+			counts.merge(regionTag(request.getRegion()), 1L, Long::sum);
+		}
+		pendingByRegion.forEach((region, gauge) -> gauge.set(counts.getOrDefault(region, 0L)));
+		counts.forEach((region, count) -> pendingByRegion.computeIfAbsent(region,
+				k -> registry.gauge("rota.solver.queue.pending", Tags.of("region", k), new AtomicLong()))
+				.set(count));
+	}
+
+	public void recordPersist(String region, long elapsedMs) {
+		Timer.builder("rota.solver.persist").tag("region", regionTag(region)).register(registry)
+				.record(elapsedMs, TimeUnit.MILLISECONDS);
+	}
+
+	public void recordPush(String region, long latencyNanos) {
+		Timer.builder("rota.solver.progress.push").tag("region", regionTag(region)).register(registry)
+				.record(latencyNanos, TimeUnit.NANOSECONDS);
+	}
+
+	private AtomicLong bestScoreGauge(String region, String level) {
+		return registry.gauge("rota.solver.best-score", Tags.of("region", region, "level", level), new AtomicLong());
+	}
+
+	private static String regionTag(String region) {
+		return region != null ? region : "none";
+	}
+
+	/**
+	 * One solve. bestSolution is called from OptaPlanner's consumer thread,
+	 * finished once from the final consumer or the exception handler.
+	 */
+	public final class SolveRun {
+
+		private final Long requestId;
+		private final String region;
+		private final long startNanos = System.nanoTime();
+		private volatile boolean feasibleSeen;
+		private volatile double scoreCalculationSpeed = -1;
+
+		private SolveRun(Long requestId, String region) {
+			this.requestId = requestId;
+			this.region = region;
+		}
+
+		public void bestSolution(Rota solution) {
+			long elapsedNanos = System.nanoTime() - startNanos;
+			HardSoftLongScore score = solution.getScore();
+			if (score != null) {
+				AtomicLong[] gauges = bestScores.computeIfAbsent(region,
+						k -> new AtomicLong[] { bestScoreGauge(k, "hard"), bestScoreGauge(k, "soft") });
+				gauges[0].set(score.hardScore());
+				gauges[1].set(score.softScore());
+
+				if (!feasibleSeen && score.isFeasible()) {
+					feasibleSeen = true;
+					Timer.builder("rota.solver.time-to-feasible").tag("region", region).register(registry)
+							.record(Duration.ofNanos(elapsedNanos));
+				}
+			}
+
+			// The count meter is removed when solving ends, so sample it here
+			Double count = scoreCalculationCount();
+			if (count != null && elapsedNanos > 0) {
+				scoreCalculationSpeed = count * 1_000_000_000d / elapsedNanos;
+			}
+		}
+
+		public void finished(boolean succeeded) {
+			Timer.builder("rota.solver.solve").tag("region", region).tag("outcome", succeeded ? "success" : "failure")
+					.register(registry).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+			if (scoreCalculationSpeed >= 0) {
+				DistributionSummary.builder("rota.solver.score-calculation-speed").baseUnit("calculations/s")
+						.tag("region", region).register(registry).record(scoreCalculationSpeed);
+			}
+			if (requestId != null) {
+				regionTagFilter.regionsBySolverId.remove(requestId.toString());
+			}
+		}
+
+		private Double scoreCalculationCount() {
+			if (requestId == null) {
+				return null;
+			}
+			Meter meter = registry.find(SCORE_CALCULATION_COUNT).tag("solver.id", requestId.toString()).meter();
+			if (meter == null) {
+				return null;
+			}
+			for (Measurement measurement : meter.measure()) {
+				return measurement.getValue();
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * Adds region to OptaPlanner's meters. A bean of its own (MetricsConfig)
+	 * so it is applied to the registry before any solver meter exists.
+	 */
+	public static class RegionTagFilter implements MeterFilter {
+
+		// Request id -> region of running solves
+		private final Map<String, String> regionsBySolverId = new ConcurrentHashMap<>();
+
+		@Override
+		public Meter.Id map(Meter.Id id) {
+			if (!id.getName().startsWith(OPTAPLANNER_PREFIX) || id.getTag("region") != null) {
+				return id;
+			}
+			String solverId = id.getTag("solver.id");
+			String region = solverId != null ? regionsBySolverId.get(solverId) : null;
+			return region != null ? id.withTag(Tag.of("region", region)) : id;
+		}
+	}
+}
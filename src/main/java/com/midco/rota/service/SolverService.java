@@ -4,12 +4,15 @@ import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
 
 import org.optaplanner.core.api.solver.SolverJob;
 import org.optaplanner.core.api.solver.SolverManager;
 import org.optaplanner.core.api.solver.SolverStatus;
+import org.optaplanner.core.config.solver.SolverConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import com.midco.rota.controller.AuthController;
@@ -17,8 +20,12 @@ import com.midco.rota.model.DeferredSolveRequest;
 import com.midco.rota.model.Rota;
 import com.midco.rota.model.ShiftAssignment;
 import com.midco.rota.repository.RotaRepository;
+import com.midco.rota.service.SolveProgressPublisher.SolveTracker;
+import com.midco.rota.service.SolverMetrics.SolveRun;
 import com.midco.rota.util.ShiftType;
 
+import jakarta.annotation.PreDestroy;
+
 @Service
 public class SolverService {
 
@@ -26,27 +33,70 @@ public class SolverService {
 	private static final Logger logger = LoggerFactory.getLogger(SolverService.class);
 
 	private final SolverManager<Rota, Long> solverManager;
+
+	// ✅ Opt-in: rotas with at least this many assignments use solverConfigPartitioned.xml (0 = off)
+	@Value("${rota.solver.partitioned.min-assignments:0}")
+	private int partitionedMinAssignments;
+
+	// Built on first use so the default setup doesn't pay for a second solver pool
+	private volatile SolverManager<Rota, Long> partitionedSolverManager;
 	private final RosterUpdateService rosterUpdateService;
 	private final ConstraintExplanationService explanationService;
 //	private final DeferredSolveRequestRepository deferredSolveRequestRepository;
 	private final RosterAnalysisService rosterAnalysisService;
+	private final SolveProgressPublisher progressPublisher;
+	private final SolverMetrics solverMetrics;
 //	private final RotaRepository rotaRepository;
 
 	public SolverService(SolverManager<Rota, Long> solverManager, RosterUpdateService rosterUpdateService,
 			ConstraintExplanationService explanationService, RosterAnalysisService rosterAnalysisService,
-			RotaRepository rotaRepository, AuthController authController) {
+			RotaRepository rotaRepository, AuthController authController, SolveProgressPublisher progressPublisher,
+			SolverMetrics solverMetrics) {
 		this.solverManager = solverManager;
 		this.rosterUpdateService = rosterUpdateService;
 		this.explanationService = explanationService;
 //		this.deferredSolveRequestRepository = deferredSolveRequestRepository;
 		this.rosterAnalysisService = rosterAnalysisService;
+		this.progressPublisher = progressPublisher;
+		this.solverMetrics = solverMetrics;
 //		this.rotaRepository = rotaRepository;
 //		this.pasetoAuthenticationFilter = pasetoAuthenticationFilter;
 
 	}
 
 	public SolverStatus getSolverStatus(long id) {
-		return this.solverManager.getSolverStatus(id);
+		SolverStatus status = this.solverManager.getSolverStatus(id);
+		if (status == SolverStatus.NOT_SOLVING && partitionedSolverManager != null) {
+			status = partitionedSolverManager.getSolverStatus(id);
+		}
+		return status;
+	}
+
+	/**
+	 * Large rotas (see rota.solver.partitioned.min-assignments) are solved per
+	 * location cluster in parallel, everything else with solverConfig.xml.
+	 */
+	private SolverManager<Rota, Long> solverManagerFor(Rota schedule) {
+		if (partitionedMinAssignments <= 0 || schedule.getShiftAssignmentList().size() < partitionedMinAssignments) {
+			return solverManager;
+		}
+		if (partitionedSolverManager == null) {
+			synchronized (this) {
+				if (partitionedSolverManager == null) {
+					partitionedSolverManager = SolverManager.create(SolverConfig
+							.createFromXmlResource("solverConfigPartitioned.xml", getClass().getClassLoader()));
+				}
+			}
+		}
+		logger.info("Using partitioned solving for {} assignments", schedule.getShiftAssignmentList().size());
+		return partitionedSolverManager;
+	}
+
+	@PreDestroy
+	public void close() {
+		if (partitionedSolverManager != null) {
+			partitionedSolverManager.close();
+		}
 	}
 
 //	public void solveAsync(Rota schedule, Long problemId, DeferredSolveRequest deferredSolveRequest) {
@@ -61,6 +111,16 @@ public class SolverService {
 //		});
 //	}
 	public void solveAsync(Rota schedule, Long problemId, DeferredSolveRequest deferredSolveRequest) {
+		solveAsync(schedule, problemId, deferredSolveRequest, succeeded -> {
+		});
+	}
+
+	/**
+	 * Same as above; onFinished is called once the solve has been persisted
+	 * (true) or has failed (false), so the caller can release its slot.
+	 */
+	public void solveAsync(Rota schedule, Long problemId, DeferredSolveRequest deferredSolveRequest,
+			Consumer<Boolean> onFinished) {
 
 		// Initialize SLEEP_IN as unassigned (pinned via isPinned())
 		for (ShiftAssignment sa : schedule.getShiftAssignmentList()) {
@@ -69,7 +129,19 @@ public class SolverService {
 			}
 		}
 
-		solverManager.solve(problemId, id -> schedule, bestSolution -> {
+		// ✅ Stream throttled intermediate best solutions to the requester
+		SolveTracker progress = progressPublisher.track(problemId, deferredSolveRequest.getCreatedBy(),
+				deferredSolveRequest.getRegion());
+		SolveRun metrics = solverMetrics.start(problemId, deferredSolveRequest.getRegion());
+
+		solverManagerFor(schedule).solveAndListen(problemId, id -> schedule, bestSolution -> {
+			try {
+				metrics.bestSolution(bestSolution);
+				progressPublisher.publish(progress, bestSolution);
+			} catch (Exception e) {
+				logger.warn("Failed to publish progress for problemId: {}", problemId, e);
+			}
+		}, bestSolution -> {
 			try {
 
 				// ========== SLEEP_IN PAIRING ==========
@@ -147,6 +219,9 @@ public class SolverService {
 
 				rosterUpdateService.persistSolvedRota(bestSolution, deferredSolveRequest);
 				logger.info("Solve complete for problemId: {}", problemId);
+				progressPublisher.finish(progress, bestSolution);
+				metrics.finished(true);
+				onFinished.accept(true);
 
 			} catch (Exception e) {
 				logger.error("Error processing solved rota for problemId: {}", problemId, e);
@@ -154,6 +229,11 @@ public class SolverService {
 				deferredSolveRequest.setCompletedAt(LocalDateTime.now());
 				throw new RuntimeException("Failed to process solved rota", e);
 			}
+		}, (id, throwable) -> {
+			logger.error("Solver failed for problemId: {}", id, throwable);
+			progressPublisher.abort(progress);
+			metrics.finished(false);
+			onFinished.accept(false);
 		});
 	}
 
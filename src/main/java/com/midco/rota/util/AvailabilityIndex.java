@@ -0,0 +1,220 @@
+package com.midco.rota.util;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.midco.rota.model.Employee;
+import com.midco.rota.model.EmployeeSchedulePattern;
+import com.midco.rota.model.Shift;
+import com.midco.rota.model.ShiftAssignment;
+import com.midco.rota.service.PeriodService;
+
+/**
+ * Precomputed schedule pattern availability for one solve / export.
+ *
+ * Same answer as {@link Employee#canWorkShift(String, LocalDate, ShiftType)}
+ * but resolved once up front: each employee with schedule patterns gets a
+ * bitset over location x day x shift type where a set bit means "forbidden".
+ * Locations are the rota's own, numbered densely (Shift location indexes are
+ * JVM-wide and keep growing across regions). Employees without patterns have
+ * no row and are always available, as are shifts outside the indexed
+ * date/location range.
+ *
+ * Lookups are O(1) and allocation free, so this is safe to call per move from
+ * the constraint streams (it is exposed as a problem fact on Rota).
+ */
+public class AvailabilityIndex {
+
+	private static final int SHIFT_TYPE_COUNT = ShiftType.values().length;
+
+	private final Map<Employee, long[]> forbiddenByEmployee;
+	private final Range range;
+
+	private AvailabilityIndex(Map<Employee, long[]> forbiddenByEmployee, Range range) {
+		this.forbiddenByEmployee = forbiddenByEmployee;
+		this.range = range;
+	}
+
+	/**
+	 * Dates and locations covered by the assignments. slotByLocation maps a
+	 * Shift location index to its dense slot here, -1 when not in the rota.
+	 */
+	private record Range(int firstEpochDay, int dayCount, int[] slotByLocation, int locationCount) {
+
+		static final Range EMPTY = new Range(0, 0, new int[0], 0);
+
+		static Range of(List<ShiftAssignment> assignments) {
+			int minDay = Integer.MAX_VALUE;
+			int maxDay = Integer.MIN_VALUE;
+			int maxLocation = -1;
+			for (ShiftAssignment sa : assignments) {
+				Shift shift = sa.getShift();
+				if (shift == null || shift.getShiftStart() == null) {
+					continue;
+				}
+				minDay = Math.min(minDay, shift.getEpochDay());
+				maxDay = Math.max(maxDay, shift.getEpochDay());
+				maxLocation = Math.max(maxLocation, shift.getLocationIndex());
+			}
+			if (minDay > maxDay) {
+				return EMPTY;
+			}
+
+			int[] slotByLocation = new int[maxLocation + 1];
+			Arrays.fill(slotByLocation, -1);
+			int locationCount = 0;
+			for (ShiftAssignment sa : assignments) {
+				Shift shift = sa.getShift();
+				if (shift == null || shift.getShiftStart() == null || shift.getLocationIndex() < 0) {
+					continue;
+				}
+				if (slotByLocation[shift.getLocationIndex()] < 0) {
+					slotByLocation[shift.getLocationIndex()] = locationCount++;
+				}
+			}
+			return new Range(minDay, maxDay - minDay + 1, slotByLocation, locationCount);
+		}
+
+		/**
+		 * Dense slot of a Shift location index, -1 when not in the rota
+		 */
+		int slot(int locationIndex) {
+			return locationIndex >= 0 && locationIndex < slotByLocation.length ? slotByLocation[locationIndex] : -1;
+		}
+
+		int bitCount() {
+			return locationCount * dayCount * SHIFT_TYPE_COUNT;
+		}
+	}
+
+	/**
+	 * Build the index for the given employees over the dates/locations covered
+	 * by the assignments. PeriodService is consulted once per date, not per
+	 * lookup.
+	 */
+	public static AvailabilityIndex build(Collection<Employee> employees, List<ShiftAssignment> assignments,
+			PeriodService periodService) {
+		Range range = Range.of(assignments);
+		Map<Employee, long[]> forbidden = new IdentityHashMap<>();
+		if (range.locationCount() == 0) {
+			return new AvailabilityIndex(forbidden, range);
+		}
+
+		int days = range.dayCount();
+
+		// Week-within-period and day name per date, resolved once. Without a
+		// PeriodService canWorkShift looks patterns up under week 0, so do the same.
+		int[] weekNumbers = new int[days];
+		boolean[] outsidePeriods = new boolean[days];
+		String[] dayNames = new String[days];
+		for (int d = 0; d < days; d++) {
+			LocalDate date = LocalDate.ofEpochDay(range.firstEpochDay() + d);
+			weekNumbers[d] = periodService != null ? periodService.calculateWeekNumber(date) : 0;
+			outsidePeriods[d] = periodService != null && weekNumbers[d] == 0;
+			dayNames[d] = date.getDayOfWeek().name();
+		}
+
+		for (Employee emp : employees) {
+			List<EmployeeSchedulePattern> patterns = emp.getSchedulePatterns();
+			if (patterns == null || patterns.isEmpty()) {
+				continue; // No pattern = unrestricted
+			}
+
+			long[] bits = new long[(range.bitCount() + 63) >>> 6];
+			for (Map.Entry<String, Map<Integer, Map<String, EmployeeSchedulePattern>>> byLocation : emp
+					.getPatternCache().entrySet()) {
+				int location = range.slot(Shift.indexOfLocation(byLocation.getKey()));
+				if (location < 0) {
+					continue; // Location not in this rota
+				}
+
+				for (int d = 0; d < days; d++) {
+					if (outsidePeriods[d]) {
+						continue; // Date not in any period - allowed
+					}
+					Map<String, EmployeeSchedulePattern> byDay = byLocation.getValue().get(weekNumbers[d]);
+					EmployeeSchedulePattern pattern = byDay != null ? byDay.get(dayNames[d]) : null;
+					if (pattern == null) {
+						continue; // No specific pattern = allowed
+					}
+
+					for (ShiftType type : ShiftType.values()) {
+						boolean allowed = pattern.getIsAvailable()
+								&& (pattern.getShiftType() == null || pattern.getShiftType() == type);
+						if (!allowed) {
+							int bit = bitIndex(location, d, type.ordinal(), days);
+							bits[bit >>> 6] |= 1L << bit;
+						}
+					}
+				}
+			}
+			forbidden.put(emp, bits);
+		}
+
+		return new AvailabilityIndex(forbidden, range);
+	}
+
+	/**
+	 * Index from already resolved availability: every shift listed for an
+	 * employee is forbidden, everything else allowed. Used to replay recorded
+	 * benchmark datasets without schedule patterns or PeriodService.
+	 */
+	public static AvailabilityIndex fromUnavailable(List<ShiftAssignment> assignments,
+			Map<Employee, ? extends Collection<Shift>> unavailable) {
+		Range range = Range.of(assignments);
+		Map<Employee, long[]> forbidden = new IdentityHashMap<>();
+		if (range.locationCount() == 0) {
+			return new AvailabilityIndex(forbidden, range);
+		}
+
+		for (Map.Entry<Employee, ? extends Collection<Shift>> entry : unavailable.entrySet()) {
+			long[] bits = new long[(range.bitCount() + 63) >>> 6];
+			for (Shift shift : entry.getValue()) {
+				int location = range.slot(shift.getLocationIndex());
+				int day = shift.getEpochDay() - range.firstEpochDay();
+				if (location < 0 || day < 0 || day >= range.dayCount()) {
+					continue;
+				}
+				int bit = bitIndex(location, day, shift.getShiftTypeOrdinal(), range.dayCount());
+				bits[bit >>> 6] |= 1L << bit;
+			}
+			forbidden.put(entry.getKey(), bits);
+		}
+
+		return new AvailabilityIndex(forbidden, range);
+	}
+
+	private static int bitIndex(int location, int day, int shiftType, int days) {
+		return (location * days + day) * SHIFT_TYPE_COUNT + shiftType;
+	}
+
+	public boolean isAvailable(Employee employee, Shift shift) {
+		long[] bits = forbiddenByEmployee.get(employee);
+		if (bits == null) {
+			return true;
+		}
+
+		int location = range.slot(shift.getLocationIndex());
+		int day = shift.getEpochDay() - range.firstEpochDay();
+		if (location < 0 || day < 0 || day >= range.dayCount()) {
+			return true;
+		}
+
+		int bit = bitIndex(location, day, shift.getShiftTypeOrdinal(), range.dayCount());
+		return (bits[bit >>> 6] & (1L << bit)) == 0;
+	}
+
+	public int getRestrictedEmployeeCount() {
+		return forbiddenByEmployee.size();
+	}
+
+	@Override
+	public String toString() {
+		return "AvailabilityIndex(" + forbiddenByEmployee.size() + " restricted employees, " + range.dayCount()
+				+ " days, " + range.locationCount() + " locations)";
+	}
+}
@@ -0,0 +1,134 @@
+package com.midco.rota.util;
+
+import java.time.DayOfWeek;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.midco.rota.model.RotaCorrection;
+
+/**
+ * Running correction histograms for PatternAnalyzer.
+ *
+ * Per corrected employee: number of corrections and how they spread over
+ * locations, days of week and shift types; per location: shifts OptaPlanner
+ * left unassigned that were filled manually. Adding a correction is O(1), so
+ * the counters can follow every save instead of regrouping a month of
+ * corrections per pattern.
+ *
+ * Not thread safe; the owner synchronises and hands out copies.
+ */
+public class CorrectionCounters {
+
+	/**
+	 * Shift types that never count (always assigned manually after solving)
+	 */
+	public static final List<ShiftType> EXCLUDED_SHIFT_TYPES = List.of(ShiftType.SLEEP_IN);
+
+	// Initial allocation recorded on a rota's first save, not a correction
+	private static final String AUTO_SOURCE = "Auto";
+
+	private final Map<Integer, EmployeeCounts> employees = new HashMap<>();
+	private final Map<String, Integer> unassignedByLocation = new LinkedHashMap<>();
+	private int correctionCount;
+
+	public static class EmployeeCounts {
+		private int total;
+		private final Map<String, Integer> locations = new LinkedHashMap<>();
+		private final EnumMap<DayOfWeek, Integer> days = new EnumMap<>(DayOfWeek.class);
+		private final EnumMap<ShiftType, Integer> shiftTypes = new EnumMap<>(ShiftType.class);
+
+		public int getTotal() {
+			return total;
+		}
+
+		public Map<String, Integer> getLocations() {
+			return locations;
+		}
+
+		public Map<DayOfWeek, Integer> getDays() {
+			return days;
+		}
+
+		public Map<ShiftType, Integer> getShiftTypes() {
+			return shiftTypes;
+		}
+
+		private EmployeeCounts copy() {
+			EmployeeCounts copy = new EmployeeCounts();
+			copy.total = total;
+			copy.locations.putAll(locations);
+			copy.days.putAll(days);
+			copy.shiftTypes.putAll(shiftTypes);
+			return copy;
+		}
+	}
+
+	public static CorrectionCounters of(Iterable<RotaCorrection> corrections) {
+		CorrectionCounters counters = new CorrectionCounters();
+		counters.addAll(corrections);
+		return counters;
+	}
+
+	public void addAll(Iterable<RotaCorrection> corrections) {
+		for (RotaCorrection correction : corrections) {
+			add(correction);
+		}
+	}
+
+	/**
+	 * Count one correction. Returns false for the ones that never count
+	 * (excluded shift types, initial allocations).
+	 */
+	public boolean add(RotaCorrection correction) {
+		if (EXCLUDED_SHIFT_TYPES.contains(correction.getShiftType()) || AUTO_SOURCE.equals(correction.getSource())) {
+			return false;
+		}
+		correctionCount++;
+
+		if (correction.getCorrectedEmployee() != null) {
+			EmployeeCounts counts = employees.computeIfAbsent(correction.getCorrectedEmployee().getId(),
+					id -> new EmployeeCounts());
+			counts.total++;
+			if (correction.getLocation() != null) {
+				counts.locations.merge(correction.getLocation(), 1, Integer::sum);
+			}
+			if (correction.getDayOfWeek() != null) {
+				counts.days.merge(correction.getDayOfWeek(), 1, Integer::sum);
+			}
+			if (correction.getShiftType() != null) {
+				counts.shiftTypes.merge(correction.getShiftType(), 1, Integer::sum);
+			}
+		}
+
+		if (correction.wasUnassigned() && correction.getLocation() != null) {
+			unassignedByLocation.merge(correction.getLocation(), 1, Integer::sum);
+		}
+		return true;
+	}
+
+	public CorrectionCounters copy() {
+		CorrectionCounters copy = new CorrectionCounters();
+		employees.forEach((id, counts) -> copy.employees.put(id, counts.copy()));
+		copy.unassignedByLocation.putAll(unassignedByLocation);
+		copy.correctionCount = correctionCount;
+		return copy;
+	}
+
+	/**
+	 * Corrected employee id -> counts
+	 */
+	public Map<Integer, EmployeeCounts> getEmployees() {
+		return employees;
+	}
+
+	public Map<String, Integer> getUnassignedByLocation() {
+		return unassignedByLocation;
+	}
+
+	public int getCorrectionCount() {
+		return correctionCount;
+	}
+}
@@ -0,0 +1,38 @@
+package com.midco.rota.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Parsed column values shared between entities.
+ *
+ * The same preference strings are stored on many employees, and every load
+ * (a region for a solve, a stats export) used to parse them again. Each
+ * distinct value is parsed once here and the result handed to every entity
+ * that holds it, so values must be immutable. Distinct values are few; past
+ * maxSize the cache is simply cleared.
+ */
+public final class ParsedValueCache<K, V> {
+
+	private final int maxSize;
+	private final Function<K, V> parser;
+	private final Map<K, V> values = new ConcurrentHashMap<>();
+
+	public ParsedValueCache(int maxSize, Function<K, V> parser) {
+		this.maxSize = maxSize;
+		this.parser = parser;
+	}
+
+	public V get(K key) {
+		V value = values.get(key);
+		if (value == null) {
+			value = parser.apply(key);
+			if (values.size() >= maxSize) {
+				values.clear();
+			}
+			values.put(key, value);
+		}
+		return value;
+	}
+}
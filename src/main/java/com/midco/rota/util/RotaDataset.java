@@ -0,0 +1,270 @@
+package com.midco.rota.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.midco.rota.model.Employee;
+import com.midco.rota.model.Rota;
+import com.midco.rota.model.Shift;
+import com.midco.rota.model.ShiftAssignment;
+import com.midco.rota.model.ShiftTemplate;
+
+/**
+ * Anonymised, self-contained copy of a solver problem, for offline solver
+ * benchmarks (src/jmh/java, SolverBenchmarkRunner).
+ *
+ * Holds everything the constraints read: employees with their contract,
+ * hours and preferences, the templates, every shift and assignment slot with
+ * its pin or warm start seed, and the schedule pattern availability resolved
+ * per employee and shift (so no PeriodService or patterns are needed to
+ * replay it). Names, ids, region and locations are replaced by stable
+ * placeholders; dates are kept since weeks and rest days depend on them.
+ */
+public record RotaDataset(String name, LocalDate startDate, LocalDate endDate, List<EmployeeData> employees,
+		List<TemplateData> templates, List<ShiftData> shifts, List<AssignmentData> assignments) {
+
+	private static final String REGION = "REGION";
+
+	private static final ObjectMapper MAPPER = JsonMapper.builder().findAndAddModules()
+			.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+
+	/**
+	 * unavailableShifts are indexes into shifts.
+	 */
+	public record EmployeeData(int id, Gender gender, ContractType contractType, BigDecimal minHrs,
+			BigDecimal maxHrs, RateCode rateCode, Integer restDays, List<String> preferredService,
+			List<String> restrictedService, List<DayOfWeek> preferredDays, List<DayOfWeek> restrictedDays,
+			List<ShiftType> preferredShifts, List<ShiftType> restrictedShifts, List<String> skills, Integer daysOn,
+			Integer daysOff, Integer weekOn, Integer weekOff, Boolean invertPattern, boolean active,
+			List<Integer> unavailableShifts) {
+	}
+
+	public record TemplateData(int id, String location, ShiftType shiftType, DayOfWeek dayOfWeek,
+			LocalTime startTime, LocalTime endTime, LocalTime breakStart, LocalTime breakEnd, BigDecimal totalHours,
+			Gender requiredGender, List<String> requiredSkills, int empCount, int priority) {
+	}
+
+	public record ShiftData(int templateId, LocalDate date, Integer absoluteWeek) {
+	}
+
+	/**
+	 * shift is an index into shifts, employeeId an EmployeeData id or null.
+	 */
+	public record AssignmentData(int shift, Integer employeeId, boolean pinned) {
+	}
+
+	// ===== RECORDING =====
+
+	/**
+	 * Record a problem as assembled for the solver (SolverTrigger.loadData).
+	 */
+	public static RotaDataset record(String name, LocalDate startDate, LocalDate endDate, Rota problem) {
+		Anonymiser anonymiser = new Anonymiser();
+		AvailabilityIndex availability = problem.getAvailabilityIndex();
+
+		// Locations in a stable order, so placeholders don't depend on list order
+		TreeSet<String> locations = new TreeSet<>();
+		for (ShiftAssignment sa : problem.getShiftAssignmentList()) {
+			locations.add(sa.getShift().getShiftTemplate().getLocation());
+		}
+		locations.forEach(anonymiser::location);
+
+		Map<ShiftTemplate, Integer> templateIds = new IdentityHashMap<>();
+		Map<Shift, Integer> shiftIndexes = new IdentityHashMap<>();
+		List<TemplateData> templates = new ArrayList<>();
+		List<ShiftData> shifts = new ArrayList<>();
+		List<Shift> shiftList = new ArrayList<>();
+		for (ShiftAssignment sa : problem.getShiftAssignmentList()) {
+			Shift shift = sa.getShift();
+			ShiftTemplate t = shift.getShiftTemplate();
+			Integer templateId = templateIds.get(t);
+			if (templateId == null) {
+				templateId = templates.size() + 1;
+				templateIds.put(t, templateId);
+				templates.add(new TemplateData(templateId, anonymiser.location(t.getLocation()), t.getShiftType(),
+						t.getDayOfWeek(), t.getStartTime(), t.getEndTime(), t.getBreakStart(), t.getBreakEnd(),
+						t.getTotalHours(), t.getRequiredGender(), t.getRequiredSkills(), t.getEmpCount(),
+						t.getPriority()));
+			}
+			if (!shiftIndexes.containsKey(shift)) {
+				shiftIndexes.put(shift, shifts.size());
+				shifts.add(new ShiftData(templateId, shift.getShiftStart(), shift.getAbsoluteWeek()));
+				shiftList.add(shift);
+			}
+		}
+
+		Map<Employee, Integer> employeeIds = new IdentityHashMap<>();
+		List<EmployeeData> employees = new ArrayList<>();
+		for (Employee e : problem.getEmployeeList()) {
+			int id = employees.size() + 1;
+			employeeIds.put(e, id);
+
+			List<Integer> unavailable = new ArrayList<>();
+			if (availability != null) {
+				for (int i = 0; i < shiftList.size(); i++) {
+					if (!availability.isAvailable(e, shiftList.get(i))) {
+						unavailable.add(i);
+					}
+				}
+			}
+			employees.add(new EmployeeData(id, e.getGender(), e.getContractType(), e.getMinHrs(), e.getMaxHrs(),
+					e.getRateCode(), e.getRestDays(), anonymiser.services(e.getPreferredService()),
+					anonymiser.services(e.getRestrictedService()), e.getPreferredDays(), e.getRestrictedDays(),
+					e.getPreferredShifts(), e.getRestrictedShifts(), e.getSkills(), e.getDaysOn(), e.getDaysOff(),
+					e.getWeekOn(), e.getWeekOff(), e.getInvertPattern(), e.isActive(), unavailable));
+		}
+
+		List<AssignmentData> assignments = new ArrayList<>(problem.getShiftAssignmentList().size());
+		for (ShiftAssignment sa : problem.getShiftAssignmentList()) {
+			assignments.add(new AssignmentData(shiftIndexes.get(sa.getShift()),
+					sa.getEmployee() != null ? employeeIds.get(sa.getEmployee()) : null, sa.isPinned()));
+		}
+
+		return new RotaDataset(name, startDate, endDate, employees, templates, shifts, assignments);
+	}
+
+	// ===== REPLAY =====
+
+	/**
+	 * Fresh, unsolved Rota with the recorded pins and seeds.
+	 */
+	public Rota toRota() {
+		List<Employee> employeeList = new ArrayList<>(employees.size());
+		Map<Integer, Employee> employeesById = new HashMap<>();
+		for (EmployeeData d : employees) {
+			Employee e = new Employee();
+			e.setId(d.id());
+			e.setFirstName("Employee");
+			e.setLastName(String.valueOf(d.id()));
+			e.setGender(d.gender());
+			e.setContractType(d.contractType());
+			e.setMinHrs(d.minHrs());
+			e.setMaxHrs(d.maxHrs());
+			e.setRateCode(d.rateCode());
+			e.setRestDays(d.restDays());
+			e.setPreferredRegion(REGION);
+			e.setPreferredService(d.preferredService());
+			e.setRestrictedService(d.restrictedService());
+			e.setPreferredDays(d.preferredDays());
+			e.setRestrictedDays(d.restrictedDays());
+			e.setPreferredShifts(d.preferredShifts());
+			e.setRestrictedShifts(d.restrictedShifts());
+			e.setSkills(d.skills());
+			e.setDaysOn(d.daysOn());
+			e.setDaysOff(d.daysOff());
+			e.setWeekOn(d.weekOn());
+			e.setWeekOff(d.weekOff());
+			e.setInvertPattern(d.invertPattern());
+			e.setActive(d.active());
+			employeeList.add(e);
+			employeesById.put(d.id(), e);
+		}
+
+		Map<Integer, ShiftTemplate> templatesById = new HashMap<>();
+		for (TemplateData d : templates) {
+			ShiftTemplate t = new ShiftTemplate(d.location(), REGION, d.dayOfWeek(), d.startTime(), d.endTime(),
+					d.requiredGender(), d.requiredSkills(), d.empCount(), d.priority());
+			t.setId(d.id());
+			t.setShiftType(d.shiftType());
+			t.setBreakStart(d.breakStart());
+			t.setBreakEnd(d.breakEnd());
+			t.setTotalHours(d.totalHours());
+			templatesById.put(d.id(), t);
+		}
+
+		List<Shift> shiftList = new ArrayList<>(shifts.size());
+		for (ShiftData d : shifts) {
+			Shift shift = new Shift(d.date(), templatesById.get(d.templateId()), d.absoluteWeek());
+			// ✅ ShiftAssignmentDifficultyComparator breaks ties on the shift id
+			shift.setId((long) shiftList.size() + 1);
+			shift.precomputeSolverFacts();
+			shiftList.add(shift);
+		}
+
+		List<ShiftAssignment> assignmentList = new ArrayList<>(assignments.size());
+		for (AssignmentData d : assignments) {
+			ShiftAssignment sa = new ShiftAssignment(shiftList.get(d.shift()));
+			sa.setId((long) assignmentList.size() + 1);
+			sa.setEmployee(d.employeeId() != null ? employeesById.get(d.employeeId()) : null);
+			sa.setPinned(d.pinned());
+			assignmentList.add(sa);
+		}
+
+		Map<Employee, List<Shift>> unavailable = new IdentityHashMap<>();
+		for (EmployeeData d : employees) {
+			if (d.unavailableShifts() != null && !d.unavailableShifts().isEmpty()) {
+				List<Shift> list = new ArrayList<>(d.unavailableShifts().size());
+				d.unavailableShifts().forEach(i -> list.add(shiftList.get(i)));
+				unavailable.put(employeesById.get(d.id()), list);
+			}
+		}
+
+		Rota rota = new Rota(employeeList, assignmentList);
+		rota.setAvailabilityIndex(AvailabilityIndex.fromUnavailable(assignmentList, unavailable));
+		return rota;
+	}
+
+	// ===== FILES =====
+
+	public void write(Path file) throws IOException {
+		MAPPER.writerWithDefaultPrettyPrinter().writeValue(file.toFile(), this);
+	}
+
+	public void write(OutputStream out) throws IOException {
+		MAPPER.writerWithDefaultPrettyPrinter().writeValue(out, this);
+	}
+
+	public static RotaDataset read(Path file) throws IOException {
+		return MAPPER.readValue(file.toFile(), RotaDataset.class);
+	}
+
+	/**
+	 * Location placeholders, consistent between templates and employee
+	 * preferences. Locations outside the rota still get one, so restrictions
+	 * keep pointing at "somewhere else".
+	 */
+	private static class Anonymiser {
+		private final Map<String, String> locations = new LinkedHashMap<>();
+
+		String location(String location) {
+			if (location == null) {
+				return null;
+			}
+			return locations.computeIfAbsent(location, k -> "LOCATION_" + (locations.size() + 1));
+		}
+
+		/**
+		 * preferred/restricted service entries, "Location" or "Location:60"
+		 */
+		List<String> services(List<String> services) {
+			if (services == null) {
+				return null;
+			}
+			List<String> result = new ArrayList<>(services.size());
+			for (String entry : services) {
+				if (entry == null || entry.isBlank()) {
+					continue;
+				}
+				int colon = entry.indexOf(':');
+				result.add(colon < 0 ? location(entry.trim())
+						: location(entry.substring(0, colon).trim()) + entry.substring(colon));
+			}
+			return result;
+		}
+	}
+}
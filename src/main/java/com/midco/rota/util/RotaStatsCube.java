@@ -0,0 +1,274 @@
+package com.midco.rota.util;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import com.midco.rota.model.Employee;
+import com.midco.rota.model.EmployeeShiftStatDTO;
+import com.midco.rota.model.PaycycleStatsDTO;
+import com.midco.rota.model.ServiceStatsDTO;
+import com.midco.rota.model.Shift;
+import com.midco.rota.model.ShiftAssignment;
+import com.midco.rota.model.ShiftSummaryDTO;
+import com.midco.rota.model.ShiftTemplate;
+import com.midco.rota.model.ShiftTypeStatsDTO;
+import com.midco.rota.model.WeekStatsDTO;
+import com.midco.rota.model.WeeklyShiftStatDTO;
+
+/**
+ * Pre-aggregated statistics for one rota.
+ *
+ * Two cubes, both excluding SLEEP_IN like the stats they replace:
+ * region -> location -> pay cycle week -> shift type (hours and counts, for
+ * the service summary) and employee -> Monday week start -> shift type (for
+ * the employee summary and projected pay). Each shift's coordinates are kept
+ * so a reassignment is applied in O(1) without reloading the rota.
+ *
+ * Mutators and readers synchronise on the cube; the summaries are built as
+ * fresh DTOs on every call.
+ */
+public class RotaStatsCube {
+
+	private static final Comparator<String> NULLS_FIRST = Comparator.nullsFirst(Comparator.naturalOrder());
+
+	private final String region;
+	private final LocalDate startDate;
+	private final LocalDate endDate;
+	private final Map<Integer, EmployeeInfo> employees;
+
+	private final Map<Long, ShiftFact> shifts = new HashMap<>();
+	private final Map<String, Map<String, Map<Integer, EnumMap<ShiftType, ServiceCell>>>> serviceCube = new TreeMap<>(
+			NULLS_FIRST);
+	private final Map<Integer, TreeMap<LocalDate, EnumMap<ShiftType, EmployeeCell>>> employeeCube = new HashMap<>();
+
+	private RotaStatsCube(String region, LocalDate startDate, LocalDate endDate, Map<Integer, EmployeeInfo> employees) {
+		this.region = region;
+		this.startDate = startDate;
+		this.endDate = endDate;
+		this.employees = employees;
+	}
+
+	/**
+	 * Build the cube for a rota. region and the dates come from the rota's
+	 * DeferredSolveRequest; employees are the rota's employees, in the order
+	 * the employee summary lists them.
+	 */
+	public static RotaStatsCube build(String region, LocalDate startDate, LocalDate endDate, List<Employee> employees,
+			List<ShiftAssignment> assignments) {
+		Map<Integer, EmployeeInfo> employeeInfo = new LinkedHashMap<>();
+		for (Employee emp : employees) {
+			employeeInfo.put(emp.getId(), new EmployeeInfo(emp.getName(), emp.getContractType(), emp.getRateCode()));
+		}
+
+		RotaStatsCube cube = new RotaStatsCube(region, startDate, endDate, employeeInfo);
+		for (ShiftAssignment sa : assignments) {
+			if (sa.getShift() != null) {
+				cube.addAssignment(sa.getShift(), sa.getEmployee() != null ? sa.getEmployee().getId() : null);
+			}
+		}
+		return cube;
+	}
+
+	/**
+	 * A new assignment row for the shift.
+	 */
+	public synchronized void addAssignment(Shift shift, Integer employeeId) {
+		if (!shifts.containsKey(shift.getId())) {
+			shifts.put(shift.getId(), toFact(shift));
+		}
+		ShiftFact fact = shifts.get(shift.getId());
+		if (fact == null) {
+			return;
+		}
+
+		ServiceCell cell = serviceCell(fact);
+		cell.totalHours = cell.totalHours.add(fact.hours.multiply(BigDecimal.valueOf(fact.empCount)));
+		cell.shiftCount++;
+		if (employeeId != null) {
+			cell.allocatedHours = cell.allocatedHours.add(fact.hours);
+			cell.allocationCount++;
+			addEmployee(fact, employeeId, 1);
+		}
+	}
+
+	/**
+	 * One assignment of the shift moved from one employee to another (either
+	 * may be null for unassigned).
+	 *
+	 * @return false if the shift is not part of this cube; the caller should
+	 *         rebuild it
+	 */
+	public synchronized boolean reassign(Long shiftId, Integer fromEmployeeId, Integer toEmployeeId) {
+		if (!shifts.containsKey(shiftId)) {
+			return false;
+		}
+		ShiftFact fact = shifts.get(shiftId);
+		if (fact == null || Objects.equals(fromEmployeeId, toEmployeeId)) {
+			return true; // SLEEP_IN or template-less, not counted
+		}
+
+		ServiceCell cell = serviceCell(fact);
+		if (fromEmployeeId != null) {
+			cell.allocatedHours = cell.allocatedHours.subtract(fact.hours);
+			cell.allocationCount--;
+			addEmployee(fact, fromEmployeeId, -1);
+		}
+		if (toEmployeeId != null) {
+			cell.allocatedHours = cell.allocatedHours.add(fact.hours);
+			cell.allocationCount++;
+			addEmployee(fact, toEmployeeId, 1);
+		}
+		return true;
+	}
+
+	/**
+	 * Region -> service -> week -> shift type tree for /serviceStats, ordered
+	 * by region, location, week and shift type.
+	 */
+	public synchronized List<PaycycleStatsDTO> toServiceSummary() {
+		String periodId = "PC-" + startDate.getYear() + "-" + startDate.getMonthValue();
+
+		List<PaycycleStatsDTO> result = new ArrayList<>(serviceCube.size());
+		serviceCube.forEach((regionName, locations) -> {
+			PaycycleStatsDTO regionStats = new PaycycleStatsDTO();
+			regionStats.region = regionName;
+			regionStats.period = startDate + ":" + endDate;
+			regionStats.periodId = periodId;
+
+			locations.forEach((location, weeks) -> {
+				ServiceStatsDTO serviceStats = new ServiceStatsDTO();
+				serviceStats.location = location;
+
+				weeks.forEach((weekIndex, types) -> {
+					WeekStatsDTO weekStats = new WeekStatsDTO();
+					weekStats.weekNumber = weekIndex + 1;
+					weekStats.start = startDate.plusWeeks(weekIndex);
+					weekStats.end = weekStats.start.plusDays(6);
+
+					types.forEach((type, cell) -> {
+						ShiftTypeStatsDTO shiftStats = new ShiftTypeStatsDTO();
+						shiftStats.shiftType = type;
+						shiftStats.totalHours = cell.totalHours;
+						shiftStats.allocatedHours = cell.allocatedHours;
+						shiftStats.unallocatedHours = cell.totalHours.subtract(cell.allocatedHours);
+						shiftStats.shiftCount = cell.shiftCount;
+						shiftStats.allocationCount = cell.allocationCount;
+						weekStats.shiftStats.add(shiftStats);
+					});
+					serviceStats.weeks.add(weekStats);
+				});
+				regionStats.services.add(serviceStats);
+			});
+			result.add(regionStats);
+		});
+		return result;
+	}
+
+	/**
+	 * One entry per rota employee; week numbers are sequential over every
+	 * week anyone worked in.
+	 */
+	public synchronized List<EmployeeShiftStatDTO> toEmployeeSummary() {
+		TreeSet<LocalDate> allWeeks = new TreeSet<>();
+		employeeCube.values().forEach(weeks -> allWeeks.addAll(weeks.keySet()));
+		Map<LocalDate, Integer> weekNumbers = new HashMap<>();
+		for (LocalDate weekStart : allWeeks) {
+			weekNumbers.put(weekStart, weekNumbers.size() + 1);
+		}
+
+		List<EmployeeShiftStatDTO> result = new ArrayList<>(employees.size());
+		employees.forEach((employeeId, info) -> {
+			List<WeeklyShiftStatDTO> weeklyStats = new ArrayList<>();
+			employeeCube.getOrDefault(employeeId, new TreeMap<>()).forEach((weekStart, types) -> {
+				Map<ShiftType, ShiftSummaryDTO> summary = new HashMap<>();
+				types.forEach((type, cell) -> {
+					ShiftSummaryDTO dto = new ShiftSummaryDTO();
+					dto.count = cell.count;
+					dto.hours = cell.hours;
+					summary.put(type, dto);
+				});
+				weeklyStats.add(new WeeklyShiftStatDTO(weekNumbers.get(weekStart), weekStart, weekStart.plusDays(6),
+						summary));
+			});
+			result.add(new EmployeeShiftStatDTO(info.name(), info.contractType(), region, info.rateCode(),
+					weeklyStats));
+		});
+		return result;
+	}
+
+	// ===== PRIVATE HELPERS =====
+
+	/**
+	 * Coordinates of a shift in both cubes, null if the shift is not counted.
+	 */
+	private ShiftFact toFact(Shift shift) {
+		ShiftTemplate template = shift.getShiftTemplate();
+		if (template == null || template.getShiftType() == ShiftType.SLEEP_IN) {
+			return null;
+		}
+		return new ShiftFact(template.getRegion(), template.getLocation(),
+				(int) ChronoUnit.WEEKS.between(startDate, shift.getShiftStart()),
+				shift.getShiftStart().with(DayOfWeek.MONDAY), template.getShiftType(), shift.getDurationInHours(),
+				template.getEmpCount());
+	}
+
+	private ServiceCell serviceCell(ShiftFact fact) {
+		return serviceCube.computeIfAbsent(fact.region, k -> new TreeMap<>(NULLS_FIRST))
+				.computeIfAbsent(fact.location, k -> new TreeMap<>())
+				.computeIfAbsent(fact.weekIndex, k -> new EnumMap<>(ShiftType.class))
+				.computeIfAbsent(fact.type, k -> new ServiceCell());
+	}
+
+	private void addEmployee(ShiftFact fact, Integer employeeId, int delta) {
+		TreeMap<LocalDate, EnumMap<ShiftType, EmployeeCell>> weeks = employeeCube.computeIfAbsent(employeeId,
+				k -> new TreeMap<>());
+		EnumMap<ShiftType, EmployeeCell> types = weeks.computeIfAbsent(fact.weekStart,
+				k -> new EnumMap<>(ShiftType.class));
+		EmployeeCell cell = types.computeIfAbsent(fact.type, k -> new EmployeeCell());
+
+		cell.count += delta;
+		cell.hours = delta > 0 ? cell.hours.add(fact.hours) : cell.hours.subtract(fact.hours);
+
+		// Drop emptied cells so they don't show up as zero rows or extra weeks
+		if (cell.count <= 0) {
+			types.remove(fact.type);
+			if (types.isEmpty()) {
+				weeks.remove(fact.weekStart);
+			}
+			if (weeks.isEmpty()) {
+				employeeCube.remove(employeeId);
+			}
+		}
+	}
+
+	private record EmployeeInfo(String name, ContractType contractType, RateCode rateCode) {
+	}
+
+	private record ShiftFact(String region, String location, int weekIndex, LocalDate weekStart, ShiftType type,
+			BigDecimal hours, int empCount) {
+	}
+
+	private static class ServiceCell {
+		private BigDecimal totalHours = BigDecimal.ZERO;
+		private BigDecimal allocatedHours = BigDecimal.ZERO;
+		private int shiftCount;
+		private int allocationCount;
+	}
+
+	private static class EmployeeCell {
+		private int count;
+		private BigDecimal hours = BigDecimal.ZERO;
+	}
+}
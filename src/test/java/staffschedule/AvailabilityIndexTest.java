@@ -0,0 +1,155 @@
+package staffschedule;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.midco.rota.model.Employee;
+import com.midco.rota.model.EmployeeSchedulePattern;
+import com.midco.rota.model.Shift;
+import com.midco.rota.model.ShiftAssignment;
+import com.midco.rota.model.ShiftTemplate;
+import com.midco.rota.service.PeriodService;
+import com.midco.rota.util.AvailabilityIndex;
+import com.midco.rota.util.ShiftType;
+
+/**
+ * AvailabilityIndex must give the same answer as Employee.canWorkShift.
+ */
+class AvailabilityIndexTest {
+
+	private static final LocalDate START = LocalDate.of(2025, 3, 3);
+	private static final int DAYS = 21;
+	private static final List<String> ROTA_LOCATIONS = List.of("Availability Alpha", "Availability Beta");
+	// Patterns may name locations the rota doesn't have
+	private static final List<String> PATTERN_LOCATIONS = List.of("Availability Alpha", "Availability Beta",
+			"Availability Elsewhere");
+
+	@AfterEach
+	void resetPeriodService() {
+		Employee.setPeriodService(null);
+	}
+
+	@Test
+	void matchesCanWorkShiftWithPeriods() {
+		// First two days fall outside any period, then a 4-week rotation
+		PeriodService periodService = mock(PeriodService.class);
+		when(periodService.calculateWeekNumber(any(LocalDate.class))).thenAnswer(invocation -> {
+			long day = ChronoUnit.DAYS.between(START, invocation.getArgument(0));
+			return day < 2 ? 0 : (int) ((day - 2) / 7 % 4) + 1;
+		});
+		assertParity(periodService, 1);
+	}
+
+	@Test
+	void matchesCanWorkShiftWithoutPeriodService() {
+		// canWorkShift then looks patterns up under week 0
+		assertParity(null, 0);
+	}
+
+	@Test
+	void locationSlotsAreDensePerRota() {
+		// Push the JVM-wide location indexes up, as other regions would
+		for (int i = 0; i < 500; i++) {
+			Shift.indexOfLocation("Availability other region " + i);
+		}
+		List<ShiftAssignment> assignments = new ArrayList<>();
+		assignments.add(new ShiftAssignment(shift("Availability late location", START, ShiftType.DAY)));
+		Employee employee = employee(1, new Random(1), 1);
+
+		AvailabilityIndex index = AvailabilityIndex.build(List.of(employee), assignments, null);
+
+		assertEquals("AvailabilityIndex(1 restricted employees, 1 days, 1 locations)", index.toString());
+	}
+
+	private void assertParity(PeriodService periodService, int firstWeek) {
+		Employee.setPeriodService(periodService);
+
+		List<ShiftAssignment> assignments = new ArrayList<>();
+		for (String location : ROTA_LOCATIONS) {
+			for (int d = 0; d < DAYS; d++) {
+				for (ShiftType type : ShiftType.values()) {
+					assignments.add(new ShiftAssignment(shift(location, START.plusDays(d), type)));
+				}
+			}
+		}
+
+		Random random = new Random(42);
+		List<Employee> employees = new ArrayList<>();
+		for (int i = 1; i <= 20; i++) {
+			employees.add(employee(i, random, firstWeek));
+		}
+		Employee unrestricted = new Employee();
+		unrestricted.setId(99);
+		employees.add(unrestricted);
+
+		AvailabilityIndex index = AvailabilityIndex.build(employees, assignments, periodService);
+
+		int forbidden = 0;
+		for (Employee employee : employees) {
+			for (ShiftAssignment sa : assignments) {
+				Shift shift = sa.getShift();
+				boolean expected = employee.canWorkShift(shift.getShiftTemplate().getLocation(),
+						shift.getShiftStart(), shift.getShiftTemplate().getShiftType());
+				assertEquals(expected, index.isAvailable(employee, shift),
+						() -> "employee " + employee.getId() + " on " + shift.getShiftStart() + " "
+								+ shift.getShiftTemplate().getLocation() + " "
+								+ shift.getShiftTemplate().getShiftType());
+				if (!expected) {
+					forbidden++;
+				}
+			}
+		}
+		assertTrue(forbidden > 0, "patterns should forbid some shifts");
+	}
+
+	/**
+	 * Employee with random patterns over weeks firstWeek..4, some days off,
+	 * some restricted to one shift type and some available for anything
+	 */
+	private static Employee employee(int id, Random random, int firstWeek) {
+		Employee employee = new Employee();
+		employee.setId(id);
+		List<EmployeeSchedulePattern> patterns = new ArrayList<>();
+		for (String location : PATTERN_LOCATIONS) {
+			for (int week = firstWeek; week <= 4; week++) {
+				for (DayOfWeek day : DayOfWeek.values()) {
+					if (random.nextInt(3) == 0) {
+						continue; // No pattern for this day
+					}
+					EmployeeSchedulePattern pattern = new EmployeeSchedulePattern();
+					pattern.setEmployee(employee);
+					pattern.setLocation(location);
+					pattern.setWeekNumber(week);
+					pattern.setDayOfWeek(day.name());
+					pattern.setIsAvailable(random.nextInt(4) != 0);
+					pattern.setShiftType(random.nextBoolean() ? null
+							: ShiftType.values()[random.nextInt(ShiftType.values().length)]);
+					patterns.add(pattern);
+				}
+			}
+		}
+		employee.setSchedulePatterns(patterns);
+		return employee;
+	}
+
+	private static Shift shift(String location, LocalDate date, ShiftType type) {
+		ShiftTemplate template = new ShiftTemplate(location, "Region", date.getDayOfWeek(), LocalTime.of(8, 0),
+				LocalTime.of(16, 0), null, List.of(), 1, 1);
+		template.setShiftType(type);
+		return new Shift(date, template, 1);
+	}
+}
@@ -0,0 +1,131 @@
+package staffschedule;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.DayOfWeek;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.optaplanner.core.api.score.buildin.hardsoftlong.HardSoftLongScore;
+
+import com.midco.rota.dto.ConstraintProfileDTO;
+import com.midco.rota.dto.ConstraintProfileDTO.ConstraintStat;
+import com.midco.rota.model.DeferredSolveRequest;
+import com.midco.rota.model.Employee;
+import com.midco.rota.model.Rota;
+import com.midco.rota.model.ShiftAssignment;
+import com.midco.rota.repository.DeferredSolveRequestRepository;
+import com.midco.rota.repository.EmployeeRepository;
+import com.midco.rota.repository.RotaJdbcRepository;
+import com.midco.rota.repository.ShiftAssignmentRepository;
+import com.midco.rota.service.ConstraintProfileService;
+
+/**
+ * The profile lists every constraint once, the per-constraint impacts add up
+ * to the full score, and stored assignments are scored against the rota's
+ * employee list.
+ */
+class ConstraintProfileServiceTest {
+
+	private static final Long ROTA_ID = 42L;
+	private static final String RESTRICTED_DAY_CONSTRAINT = "Restricted day of week";
+
+	private final ShiftAssignmentRepository shiftAssignmentRepository = mock(ShiftAssignmentRepository.class);
+	private final EmployeeRepository employeeRepository = mock(EmployeeRepository.class);
+	private final DeferredSolveRequestRepository deferredSolveRequestRepository = mock(
+			DeferredSolveRequestRepository.class);
+	private final RotaJdbcRepository rotaJdbcRepository = mock(RotaJdbcRepository.class);
+
+	@Test
+	void constraintImpactsSumToFullScore() {
+		Rota rota = assignedFixture();
+
+		// No rota_employee rows: falls back to the region's staff
+		DeferredSolveRequest request = new DeferredSolveRequest();
+		request.setRegion("FIXTURE");
+		when(shiftAssignmentRepository.findByRotaId(ROTA_ID)).thenReturn(rota.getShiftAssignmentList());
+		when(deferredSolveRequestRepository.findByRotaId(ROTA_ID)).thenReturn(request);
+		when(employeeRepository.findByPreferredRegion("FIXTURE")).thenReturn(rota.getEmployeeList());
+
+		ConstraintProfileDTO profile = profile();
+
+		long hard = 0;
+		long soft = 0;
+		Set<String> names = new HashSet<>();
+		for (ConstraintStat stat : profile.getConstraints()) {
+			assertTrue(names.add(stat.getConstraintName()), "listed twice: " + stat.getConstraintName());
+			hard += stat.getHardScore();
+			soft += stat.getSoftScore();
+		}
+		assertEquals(HardSoftLongScore.parseScore(profile.getScore()), HardSoftLongScore.of(hard, soft));
+
+		// Constraints without a match are listed too
+		assertTrue(names.contains("Unassigned shift"), names::toString);
+		assertTrue(names.contains("Duplicate assignment of employee to same shift"), names::toString);
+		assertTrue(profile.getConstraints().stream().anyMatch(stat -> stat.getMatchCount() == 0));
+	}
+
+	@Test
+	void assignmentsUseTheRotaEmployeeInstances() {
+		// Same seed, so the same employees - but separate instances, as two
+		// queries without a shared session return them. Only the listed ones
+		// carry the restriction, so it counts only if the assignments are
+		// resolved to them.
+		List<Employee> listed = RotaFixtures.build(3, 10, 14, 8L).getEmployeeList();
+		Rota stored = assignedFixture();
+		for (Employee employee : listed) {
+			employee.setRestrictedDays(List.of(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY));
+		}
+		assertNotSame(listed.get(0), stored.getEmployeeList().get(0));
+
+		List<Integer> ids = listed.stream().map(Employee::getId).toList();
+		when(shiftAssignmentRepository.findByRotaId(ROTA_ID)).thenReturn(stored.getShiftAssignmentList());
+		when(rotaJdbcRepository.findEmployeeIds(ROTA_ID)).thenReturn(ids);
+		when(employeeRepository.findAllById(ids)).thenReturn(listed);
+
+		int expected = 0;
+		for (ShiftAssignment sa : stored.getShiftAssignmentList()) {
+			DayOfWeek day = sa.getShift().getShiftTemplate().getDay();
+			if (sa.getEmployee() != null && (day == DayOfWeek.SATURDAY || day == DayOfWeek.SUNDAY)) {
+				expected++;
+			}
+		}
+		assertTrue(expected > 0);
+
+		ConstraintStat restrictedDays = profile().getConstraints().stream()
+				.filter(stat -> RESTRICTED_DAY_CONSTRAINT.equals(stat.getConstraintName())).findFirst().orElseThrow();
+		assertEquals(expected, restrictedDays.getMatchCount());
+	}
+
+	private ConstraintProfileDTO profile() {
+		ConstraintProfileService service = new ConstraintProfileService(shiftAssignmentRepository,
+				employeeRepository, deferredSolveRequestRepository, rotaJdbcRepository, null);
+		try {
+			return service.profile(ROTA_ID, false);
+		} finally {
+			service.shutdown();
+		}
+	}
+
+	/**
+	 * Fixture rota with about two thirds of the open assignments filled.
+	 */
+	private static Rota assignedFixture() {
+		Random random = new Random(8);
+		Rota rota = RotaFixtures.build(3, 10, 14, 8L);
+		List<Employee> employees = rota.getEmployeeList();
+		for (ShiftAssignment sa : rota.getShiftAssignmentList()) {
+			if (sa.getEmployee() == null && random.nextInt(3) != 0) {
+				sa.setEmployee(employees.get(random.nextInt(employees.size())));
+			}
+		}
+		return rota;
+	}
+}
@@ -0,0 +1,133 @@
+package staffschedule;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.midco.rota.model.Employee;
+import com.midco.rota.model.RotaCorrection;
+import com.midco.rota.util.CorrectionCounters;
+import com.midco.rota.util.CorrectionCounters.EmployeeCounts;
+import com.midco.rota.util.ShiftType;
+
+/**
+ * Histograms PatternAnalyzer reads its learnings from.
+ */
+class CorrectionCountersTest {
+
+	private static final String LOCATION_A = "FIXTURE_LOCATION_0";
+	private static final String LOCATION_B = "FIXTURE_LOCATION_1";
+
+	private final Employee alice = employee(1);
+	private final Employee bob = employee(2);
+
+	@Test
+	void sleepInAndInitialAllocationsAreNotCounted() {
+		CorrectionCounters counters = new CorrectionCounters();
+
+		assertFalse(counters.add(correction(null, alice, LOCATION_A, ShiftType.SLEEP_IN, DayOfWeek.MONDAY)));
+		RotaCorrection initial = correction(null, alice, LOCATION_A, ShiftType.DAY, DayOfWeek.MONDAY);
+		initial.setSource("Auto");
+		assertFalse(counters.add(initial));
+
+		assertEquals(0, counters.getCorrectionCount());
+		assertTrue(counters.getEmployees().isEmpty());
+		assertTrue(counters.getUnassignedByLocation().isEmpty());
+
+		assertTrue(counters.add(correction(null, alice, LOCATION_A, ShiftType.DAY, DayOfWeek.MONDAY)));
+		RotaCorrection manual = correction(bob, alice, LOCATION_A, ShiftType.DAY, DayOfWeek.MONDAY);
+		manual.setSource("Manual");
+		assertTrue(counters.add(manual));
+		assertEquals(2, counters.getCorrectionCount());
+	}
+
+	@Test
+	void histogramsPerCorrectedEmployee() {
+		CorrectionCounters counters = CorrectionCounters.of(List.of(
+				correction(bob, alice, LOCATION_A, ShiftType.DAY, DayOfWeek.MONDAY),
+				correction(bob, alice, LOCATION_A, ShiftType.WAKING_NIGHT, DayOfWeek.MONDAY),
+				correction(null, alice, LOCATION_B, ShiftType.DAY, DayOfWeek.FRIDAY),
+				correction(alice, bob, LOCATION_B, ShiftType.DAY, DayOfWeek.FRIDAY),
+				// Unassigned by the editor: counts, but not for any employee
+				correction(alice, null, LOCATION_B, ShiftType.DAY, DayOfWeek.SUNDAY)));
+
+		assertEquals(5, counters.getCorrectionCount());
+		assertEquals(2, counters.getEmployees().size());
+
+		EmployeeCounts aliceCounts = counters.getEmployees().get(alice.getId());
+		assertEquals(3, aliceCounts.getTotal());
+		assertEquals(Map.of(LOCATION_A, 2, LOCATION_B, 1), aliceCounts.getLocations());
+		assertEquals(Map.of(DayOfWeek.MONDAY, 2, DayOfWeek.FRIDAY, 1), aliceCounts.getDays());
+		assertEquals(Map.of(ShiftType.DAY, 2, ShiftType.WAKING_NIGHT, 1), aliceCounts.getShiftTypes());
+
+		EmployeeCounts bobCounts = counters.getEmployees().get(bob.getId());
+		assertEquals(1, bobCounts.getTotal());
+		assertEquals(Map.of(LOCATION_B, 1), bobCounts.getLocations());
+	}
+
+	@Test
+	void unassignedShiftsFilledManuallyAreCountedByLocation() {
+		CorrectionCounters counters = CorrectionCounters.of(List.of(
+				correction(null, alice, LOCATION_A, ShiftType.DAY, DayOfWeek.MONDAY),
+				correction(null, bob, LOCATION_A, ShiftType.WAKING_NIGHT, DayOfWeek.TUESDAY),
+				correction(null, bob, LOCATION_B, ShiftType.DAY, DayOfWeek.TUESDAY),
+				// Reassigned, not unassigned
+				correction(alice, bob, LOCATION_B, ShiftType.DAY, DayOfWeek.WEDNESDAY),
+				// Excluded shift type, unassigned or not
+				correction(null, bob, LOCATION_B, ShiftType.SLEEP_IN, DayOfWeek.WEDNESDAY),
+				// No location to count it under
+				correction(null, bob, null, ShiftType.DAY, DayOfWeek.THURSDAY)));
+
+		assertEquals(Map.of(LOCATION_A, 2, LOCATION_B, 1), counters.getUnassignedByLocation());
+		assertEquals(5, counters.getCorrectionCount());
+	}
+
+	@Test
+	void copyIsIndependentOfTheOriginal() {
+		CorrectionCounters counters = CorrectionCounters.of(List.of(
+				correction(null, alice, LOCATION_A, ShiftType.DAY, DayOfWeek.MONDAY)));
+		CorrectionCounters copy = counters.copy();
+
+		counters.add(correction(null, alice, LOCATION_A, ShiftType.DAY, DayOfWeek.MONDAY));
+		counters.add(correction(null, bob, LOCATION_B, ShiftType.DAY, DayOfWeek.MONDAY));
+
+		assertEquals(1, copy.getCorrectionCount());
+		assertEquals(1, copy.getEmployees().size());
+		assertNull(copy.getEmployees().get(bob.getId()));
+		EmployeeCounts aliceCopy = copy.getEmployees().get(alice.getId());
+		assertEquals(1, aliceCopy.getTotal());
+		assertEquals(Map.of(LOCATION_A, 1), aliceCopy.getLocations());
+		assertEquals(Map.of(DayOfWeek.MONDAY, 1), aliceCopy.getDays());
+		assertEquals(Map.of(ShiftType.DAY, 1), aliceCopy.getShiftTypes());
+		assertEquals(Map.of(LOCATION_A, 1), copy.getUnassignedByLocation());
+
+		// And the other way round
+		copy.add(correction(null, alice, LOCATION_B, ShiftType.WAKING_NIGHT, DayOfWeek.SUNDAY));
+		assertEquals(3, counters.getCorrectionCount());
+		assertEquals(2, counters.getEmployees().get(alice.getId()).getTotal());
+		assertFalse(counters.getEmployees().get(alice.getId()).getDays().containsKey(DayOfWeek.SUNDAY));
+		assertEquals(Map.of(LOCATION_A, 2, LOCATION_B, 1), counters.getUnassignedByLocation());
+	}
+
+	private static RotaCorrection correction(Employee original, Employee corrected, String location,
+			ShiftType shiftType, DayOfWeek day) {
+		return new RotaCorrection(original, corrected, location, shiftType, day,
+				RotaFixtures.START_DATE.with(day));
+	}
+
+	private static Employee employee(int id) {
+		Employee employee = new Employee();
+		employee.setId(id);
+		employee.setFirstName("First" + id);
+		employee.setLastName("Last" + id);
+		return employee;
+	}
+}
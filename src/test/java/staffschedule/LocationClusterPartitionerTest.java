@@ -0,0 +1,108 @@
+package staffschedule;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.optaplanner.core.api.score.director.ScoreDirector;
+import org.optaplanner.core.api.solver.Solver;
+import org.optaplanner.core.api.solver.SolverFactory;
+import org.optaplanner.core.config.localsearch.LocalSearchPhaseConfig;
+import org.optaplanner.core.config.partitionedsearch.PartitionedSearchPhaseConfig;
+import org.optaplanner.core.config.solver.SolverConfig;
+import org.optaplanner.core.config.solver.termination.TerminationConfig;
+
+import com.midco.rota.model.Employee;
+import com.midco.rota.model.Rota;
+import com.midco.rota.model.ShiftAssignment;
+import com.midco.rota.opt.LocationClusterPartitioner;
+
+/**
+ * solverConfigPartitioned.xml must actually run the partitioner, and parts
+ * must not be able to schedule each other's employees.
+ */
+class LocationClusterPartitionerTest {
+
+	@Test
+	void partitionedConfigSplitsTheWorkingSolution() {
+		SolverConfig solverConfig = SolverConfig.createFromXmlResource("solverConfigPartitioned.xml");
+		assertEquals(2, solverConfig.getPhaseConfigList().size());
+		assertInstanceOf(PartitionedSearchPhaseConfig.class, solverConfig.getPhaseConfigList().get(0));
+		assertInstanceOf(LocalSearchPhaseConfig.class, solverConfig.getPhaseConfigList().get(1));
+
+		PartitionedSearchPhaseConfig partitioned = (PartitionedSearchPhaseConfig) solverConfig.getPhaseConfigList()
+				.get(0);
+		partitioned.setSolutionPartitionerClass(CountingPartitioner.class);
+		partitioned.setRunnablePartThreadLimit("2");
+		partitioned.setTerminationConfig(new TerminationConfig().withSecondsSpentLimit(2L));
+		solverConfig.setTerminationConfig(new TerminationConfig().withSecondsSpentLimit(4L));
+
+		CountingPartitioner.SPLITS.set(0);
+		Solver<Rota> solver = SolverFactory.<Rota>create(solverConfig).buildSolver();
+		Rota best = solver.solve(RotaFixtures.build(4, 12, 7, 5L));
+
+		assertEquals(1, CountingPartitioner.SPLITS.get());
+		assertNotNull(best.getScore());
+	}
+
+	@Test
+	void foreignPinnedEmployeeStaysOutOfThePartValueRange() {
+		Rota rota = RotaFixtures.build(4, 12, 7, 11L);
+		LocationClusterPartitioner partitioner = new LocationClusterPartitioner();
+		partitioner.setPartCount(2);
+
+		// Pin every DAY assignment to employee 1, whichever part it lands in
+		Employee pinnedEmployee = rota.getEmployeeList().get(0);
+		for (ShiftAssignment sa : rota.getShiftAssignmentList()) {
+			if (sa.getShift().getShiftTemplate().getEmpCount() > 1) {
+				sa.setEmployee(pinnedEmployee);
+				sa.setPinned(true);
+			}
+		}
+
+		@SuppressWarnings("unchecked")
+		ScoreDirector<Rota> scoreDirector = mock(ScoreDirector.class);
+		when(scoreDirector.getWorkingSolution()).thenReturn(rota);
+		List<Rota> parts = partitioner.splitWorkingSolution(scoreDirector, 2);
+		assertEquals(2, parts.size());
+
+		int foreignParts = 0;
+		for (Rota part : parts) {
+			boolean owner = part.getEmployeeList().contains(pinnedEmployee);
+			boolean pinnedOnly = part.getPinnedOnlyEmployeeList().contains(pinnedEmployee);
+			assertFalse(owner && pinnedOnly);
+			if (pinnedOnly) {
+				foreignParts++;
+			}
+			for (ShiftAssignment sa : part.getShiftAssignmentList()) {
+				if (sa.isPinned() && sa.getShift().getShiftTemplate().getEmpCount() > 1) {
+					assertSame(pinnedEmployee, sa.getEmployee());
+				} else if (sa.getEmployee() != null) {
+					assertTrue(part.getEmployeeList().contains(sa.getEmployee())
+							|| part.getPinnedOnlyEmployeeList().contains(sa.getEmployee()));
+				}
+			}
+		}
+		assertEquals(1, foreignParts);
+	}
+
+	public static class CountingPartitioner extends LocationClusterPartitioner {
+
+		static final AtomicInteger SPLITS = new AtomicInteger();
+
+		@Override
+		public List<Rota> splitWorkingSolution(ScoreDirector<Rota> scoreDirector, Integer runnablePartThreadLimit) {
+			SPLITS.incrementAndGet();
+			return super.splitWorkingSolution(scoreDirector, runnablePartThreadLimit);
+		}
+	}
+}
@@ -0,0 +1,168 @@
+package staffschedule;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.midco.rota.TokenValidationException;
+import com.midco.rota.service.PasetoTokenService;
+
+import dev.paseto.jpaseto.Pasetos;
+
+/**
+ * Verified-token cache: answered while the token lives and the keys it was
+ * verified with are current, bounded in size.
+ */
+class PasetoTokenServiceTest {
+
+	private static final String ISSUER = "test-issuer";
+	private static final String AUDIENCE = "test-audience";
+
+	private Path keyDir;
+	private Path publicKeyFile;
+	private Path privateKeyFile;
+	private KeyPair keyPair;
+	private PasetoTokenService service;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		keyDir = Files.createTempDirectory("paseto-keys");
+		publicKeyFile = keyDir.resolve("public.key");
+		privateKeyFile = keyDir.resolve("private.key");
+		keyPair = writeKeys();
+
+		// No init(): keys load on first use and no watcher thread reloads behind the test
+		service = new PasetoTokenService();
+		ReflectionTestUtils.setField(service, "issuer", ISSUER);
+		ReflectionTestUtils.setField(service, "audience", AUDIENCE);
+		ReflectionTestUtils.setField(service, "publicKeyPath", publicKeyFile.toString());
+		ReflectionTestUtils.setField(service, "privateKeyPath", privateKeyFile.toString());
+		ReflectionTestUtils.setField(service, "tokenCacheMaxSize", 3);
+	}
+
+	@AfterEach
+	void tearDown() throws IOException {
+		Files.deleteIfExists(publicKeyFile);
+		Files.deleteIfExists(privateKeyFile);
+		Files.deleteIfExists(keyDir);
+	}
+
+	@Test
+	void verifiedTokenIsAnsweredFromTheCache() {
+		String token = service.generateToken("alice", Set.of("admin"));
+
+		UsernamePasswordAuthenticationToken first = service.parseToken(token);
+		Object entry = onlyEntry();
+		UsernamePasswordAuthenticationToken second = service.parseToken(token);
+
+		// A miss would have verified again and stored a new entry
+		assertSame(entry, onlyEntry());
+		assertNotSame(first, second);
+		assertEquals("alice", second.getPrincipal());
+		assertEquals(first.getAuthorities(), second.getAuthorities());
+		assertEquals("ROLE_ADMIN", second.getAuthorities().iterator().next().getAuthority());
+	}
+
+	@Test
+	void expiredTokenIsNotAnsweredFromTheCache() throws InterruptedException {
+		String token = token("bob", Instant.now().plusSeconds(1));
+		service.parseToken(token);
+		assertEquals(1, cache().size());
+
+		Thread.sleep(1500);
+		assertThrows(TokenValidationException.class, () -> service.parseToken(token));
+		assertTrue(cache().isEmpty());
+	}
+
+	@Test
+	void cacheStaysWithinItsBound() {
+		List<String> tokens = new ArrayList<>();
+		for (int i = 0; i < 7; i++) {
+			tokens.add(service.generateToken("user" + i, Set.of("user")));
+		}
+		for (String token : tokens) {
+			service.parseToken(token);
+			assertTrue(cache().size() <= 3, () -> "cache size " + cache().size());
+		}
+
+		// The latest token is still served; the earliest are verified again
+		Object latest = cache().values().stream().filter(v -> v.toString().contains("user6")).findFirst().orElseThrow();
+		service.parseToken(tokens.get(6));
+		assertTrue(cache().containsValue(latest));
+		assertEquals("user0", service.parseToken(tokens.get(0)).getPrincipal());
+	}
+
+	@Test
+	void reloadClearsTheCache() throws Exception {
+		String token = service.generateToken("carol", Set.of("user"));
+		service.parseToken(token);
+		assertEquals(1, cache().size());
+
+		writeKeys();
+		ReflectionTestUtils.invokeMethod(service, "reloadKeys");
+
+		assertTrue(cache().isEmpty());
+		assertThrows(TokenValidationException.class, () -> service.parseToken(token));
+	}
+
+	@Test
+	void entryVerifiedWithReplacedKeysIsNotAnswered() throws Exception {
+		// As a parse that verified with the old keys caching its result after
+		// the reload cleared the cache: the entry is there, stamped with the old keys
+		String token = service.generateToken("dave", Set.of("user"));
+		service.parseToken(token);
+
+		writeKeys();
+		Object reloaded = ReflectionTestUtils.invokeMethod(service, "loadKeyMaterial");
+		ReflectionTestUtils.setField(service, "keyMaterial", reloaded);
+		assertEquals(1, cache().size());
+
+		assertThrows(TokenValidationException.class, () -> service.parseToken(token));
+		assertTrue(cache().isEmpty());
+	}
+
+	private String token(String username, Instant expiresAt) {
+		return Pasetos.V2.PUBLIC.builder().setPrivateKey(keyPair.getPrivate()).setIssuedAt(Instant.now())
+				.setExpiration(expiresAt).setSubject(username).setIssuer(ISSUER).setAudience(AUDIENCE)
+				.claim("roles", Set.of("user")).compact();
+	}
+
+	private KeyPair writeKeys() throws Exception {
+		KeyPair pair = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+		Files.write(publicKeyFile, Base64.getEncoder().encode(pair.getPublic().getEncoded()));
+		Files.write(privateKeyFile, Base64.getEncoder().encode(pair.getPrivate().getEncoded()));
+		keyPair = pair;
+		return pair;
+	}
+
+	@SuppressWarnings("unchecked")
+	private Map<String, Object> cache() {
+		return (Map<String, Object>) ReflectionTestUtils.getField(service, "verifiedTokens");
+	}
+
+	private Object onlyEntry() {
+		assertEquals(1, cache().size());
+		return cache().values().iterator().next();
+	}
+}
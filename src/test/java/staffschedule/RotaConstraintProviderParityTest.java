@@ -0,0 +1,154 @@
+package staffschedule;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.DayOfWeek;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.Test;
+import org.optaplanner.core.api.score.buildin.hardsoftlong.HardSoftLongScore;
+import org.optaplanner.core.api.score.constraint.ConstraintMatchTotal;
+import org.optaplanner.core.api.score.stream.ConstraintProvider;
+import org.optaplanner.core.api.solver.SolverFactory;
+import org.optaplanner.core.config.solver.SolverConfig;
+import org.optaplanner.core.impl.score.director.InnerScoreDirector;
+import org.optaplanner.core.impl.solver.DefaultSolverFactory;
+
+import com.midco.rota.model.Employee;
+import com.midco.rota.model.Rota;
+import com.midco.rota.model.ShiftAssignment;
+import com.midco.rota.model.ShiftTemplate;
+import com.midco.rota.opt.RotaConstraintProvider;
+import com.midco.rota.util.Gender;
+import com.midco.rota.util.ShiftType;
+
+/**
+ * RotaConstraintProvider must score exactly as LegacyRotaConstraintProvider,
+ * constraint by constraint, from the initial solution through random
+ * employee changes.
+ */
+class RotaConstraintProviderParityTest {
+
+	private static final int MOVES = 2000;
+	private static final int CHECK_EVERY = 100;
+
+	@Test
+	void smallRota() {
+		assertParity(2, 6, 7, 21L);
+	}
+
+	@Test
+	void multiWeekRota() {
+		assertParity(3, 12, 14, 22L);
+	}
+
+	@Test
+	void crowdedRota() {
+		// Few employees for many shifts: weekly hours, back to back and overloading all fire
+		assertParity(4, 8, 28, 23L);
+	}
+
+	private static void assertParity(int locationCount, int employeeCount, int dayCount, long seed) {
+		// Same seed, so identical rotas - one working solution per score director
+		Rota current = RotaFixtures.build(locationCount, employeeCount, dayCount, seed);
+		Rota legacy = RotaFixtures.build(locationCount, employeeCount, dayCount, seed);
+		restrict(current);
+		restrict(legacy);
+
+		InnerScoreDirector<Rota, HardSoftLongScore> currentDirector = scoreDirector(RotaConstraintProvider.class);
+		InnerScoreDirector<Rota, HardSoftLongScore> legacyDirector = scoreDirector(
+				LegacyRotaConstraintProvider.class);
+		try {
+			currentDirector.setWorkingSolution(current);
+			legacyDirector.setWorkingSolution(legacy);
+			assertSameScores("initial", legacyDirector, currentDirector);
+
+			Random random = new Random(seed);
+			List<ShiftAssignment> currentAssignments = current.getShiftAssignmentList();
+			List<ShiftAssignment> legacyAssignments = legacy.getShiftAssignmentList();
+			int changes = 0;
+			for (int move = 1; move <= MOVES; move++) {
+				int index = random.nextInt(currentAssignments.size());
+				// Unassigned now and then, otherwise any employee
+				int employee = random.nextInt(10) == 0 ? -1 : random.nextInt(employeeCount);
+				if (!currentAssignments.get(index).isPinned()) {
+					changeEmployee(currentDirector, currentAssignments.get(index), current, employee);
+					changeEmployee(legacyDirector, legacyAssignments.get(index), legacy, employee);
+					changes++;
+				}
+				if (move % CHECK_EVERY == 0) {
+					assertSameScores("after move " + move, legacyDirector, currentDirector);
+				}
+			}
+			assertTrue(changes > MOVES / 2, "too many pinned picks: " + changes);
+		} finally {
+			currentDirector.close();
+			legacyDirector.close();
+		}
+	}
+
+	/**
+	 * Restrictions and gendered shifts, so the constraints the plain fixture
+	 * never breaks are compared too.
+	 */
+	private static void restrict(Rota rota) {
+		List<Employee> employees = rota.getEmployeeList();
+		for (int i = 0; i < employees.size(); i++) {
+			Employee employee = employees.get(i);
+			if (i % 3 == 0) {
+				employee.setRestrictedDays(List.of(DayOfWeek.SATURDAY));
+			}
+			if (i % 4 == 1) {
+				employee.setRestrictedShifts(List.of(ShiftType.WAKING_NIGHT));
+			}
+			if (i % 5 == 2) {
+				employee.setRestrictedService(List.of("FIXTURE_LOCATION_0"));
+			}
+		}
+		for (ShiftAssignment sa : rota.getShiftAssignmentList()) {
+			ShiftTemplate template = sa.getShift().getShiftTemplate();
+			if (template.getShiftType() == ShiftType.WAKING_NIGHT && template.getDay() == DayOfWeek.FRIDAY) {
+				template.setGender(Gender.FEMALE);
+			}
+		}
+	}
+
+	private static void changeEmployee(InnerScoreDirector<Rota, HardSoftLongScore> scoreDirector,
+			ShiftAssignment assignment, Rota rota, int employeeIndex) {
+		Employee employee = employeeIndex < 0 ? null : rota.getEmployeeList().get(employeeIndex);
+		scoreDirector.beforeVariableChanged(assignment, "employee");
+		assignment.setEmployee(employee);
+		scoreDirector.afterVariableChanged(assignment, "employee");
+		scoreDirector.triggerVariableListeners();
+	}
+
+	private static void assertSameScores(String when, InnerScoreDirector<Rota, HardSoftLongScore> expected,
+			InnerScoreDirector<Rota, HardSoftLongScore> actual) {
+		HardSoftLongScore expectedScore = expected.calculateScore();
+		HardSoftLongScore actualScore = actual.calculateScore();
+		assertEquals(scoresByConstraint(expected), scoresByConstraint(actual), when);
+		assertEquals(expectedScore, actualScore, when);
+	}
+
+	private static Map<String, HardSoftLongScore> scoresByConstraint(
+			InnerScoreDirector<Rota, HardSoftLongScore> scoreDirector) {
+		Map<String, HardSoftLongScore> scores = new TreeMap<>();
+		for (ConstraintMatchTotal<HardSoftLongScore> total : scoreDirector.getConstraintMatchTotalMap().values()) {
+			scores.put(total.getConstraintName(), total.getScore());
+		}
+		return scores;
+	}
+
+	private static InnerScoreDirector<Rota, HardSoftLongScore> scoreDirector(
+			Class<? extends ConstraintProvider> constraintProviderClass) {
+		SolverConfig solverConfig = new SolverConfig().withSolutionClass(Rota.class)
+				.withEntityClasses(ShiftAssignment.class).withConstraintProviderClass(constraintProviderClass);
+		DefaultSolverFactory<Rota> solverFactory = (DefaultSolverFactory<Rota>) SolverFactory
+				.<Rota>create(solverConfig);
+		return solverFactory.<HardSoftLongScore>getScoreDirectorFactory().buildScoreDirector(false, true);
+	}
+}
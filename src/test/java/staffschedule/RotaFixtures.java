@@ -0,0 +1,111 @@
+package staffschedule;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.midco.rota.model.Employee;
+import com.midco.rota.model.Rota;
+import com.midco.rota.model.Shift;
+import com.midco.rota.model.ShiftAssignment;
+import com.midco.rota.model.ShiftTemplate;
+import com.midco.rota.util.ContractType;
+import com.midco.rota.util.Gender;
+import com.midco.rota.util.ShiftType;
+
+/**
+ * Small in-memory rotas for tests that need no database, along the lines of
+ * the benchmark SyntheticRotaFactory: every location runs DAY, WAKING_NIGHT
+ * and SLEEP_IN each day, and each employee prefers one or two locations.
+ */
+final class RotaFixtures {
+
+	// Monday, so week boundaries line up with ISO weeks
+	static final LocalDate START_DATE = LocalDate.of(2025, 1, 6);
+
+	private RotaFixtures() {
+	}
+
+	static Rota build(int locationCount, int employeeCount, int dayCount, long seed) {
+		Random random = new Random(seed);
+
+		List<String> locations = new ArrayList<>(locationCount);
+		for (int i = 0; i < locationCount; i++) {
+			locations.add("FIXTURE_LOCATION_" + i);
+		}
+
+		List<Employee> employees = new ArrayList<>(employeeCount);
+		for (int i = 0; i < employeeCount; i++) {
+			employees.add(employee(i + 1, locations, random));
+		}
+
+		List<ShiftAssignment> assignments = new ArrayList<>();
+		long shiftId = 1;
+		long assignmentId = 1;
+		int templateId = 1;
+		for (String location : locations) {
+			for (int d = 0; d < dayCount; d++) {
+				LocalDate date = START_DATE.plusDays(d);
+				for (ShiftType type : List.of(ShiftType.DAY, ShiftType.WAKING_NIGHT, ShiftType.SLEEP_IN)) {
+					int empCount = type == ShiftType.DAY ? 2 : 1;
+					ShiftTemplate template = template(templateId++, location, date.getDayOfWeek(), type, empCount);
+					Shift shift = new Shift(date, template, d / 7 + 1);
+					shift.setId(shiftId++);
+					for (int slot = 0; slot < empCount; slot++) {
+						ShiftAssignment sa = new ShiftAssignment(shift);
+						sa.setId(assignmentId++);
+						if (type == ShiftType.SLEEP_IN) {
+							// Pinned by shift type, so it needs its employee up front
+							sa.setEmployee(employees.get(random.nextInt(employees.size())));
+						}
+						assignments.add(sa);
+					}
+				}
+			}
+		}
+
+		Rota rota = new Rota(employees, assignments);
+		rota.setId(seed);
+		rota.setPlanningId(seed);
+		return rota;
+	}
+
+	static Employee employee(int id, List<String> locations, Random random) {
+		Employee emp = new Employee();
+		emp.setId(id);
+		emp.setFirstName("First" + id);
+		emp.setLastName("Last" + id);
+		emp.setGender(random.nextBoolean() ? Gender.MALE : Gender.FEMALE);
+		emp.setContractType(random.nextInt(4) == 0 ? ContractType.ZERO_HOURS : ContractType.PERMANENT);
+		emp.setMinHrs(BigDecimal.valueOf(emp.getContractType() == ContractType.ZERO_HOURS ? 0 : 16));
+		emp.setMaxHrs(BigDecimal.valueOf(40));
+		emp.setPreferredRegion("FIXTURE");
+		emp.setActive(true);
+
+		String primary = locations.get(random.nextInt(locations.size()));
+		String secondary = locations.get(random.nextInt(locations.size()));
+		emp.setPreferredService(primary.equals(secondary) ? List.of(primary + ":100")
+				: List.of(primary + ":70", secondary + ":30"));
+
+		DayOfWeek[] days = DayOfWeek.values();
+		emp.setPreferredDays(List.of(days[random.nextInt(7)]));
+		emp.setPreferredShifts(List.of(random.nextBoolean() ? ShiftType.DAY : ShiftType.WAKING_NIGHT));
+		emp.setDaysOn(20);
+		emp.setDaysOff(8);
+		return emp;
+	}
+
+	static ShiftTemplate template(int id, String location, DayOfWeek day, ShiftType type, int empCount) {
+		LocalTime start = type == ShiftType.DAY ? LocalTime.of(8, 0) : LocalTime.of(20, 0);
+		LocalTime end = type == ShiftType.DAY ? LocalTime.of(16, 0) : LocalTime.of(8, 0);
+		ShiftTemplate template = new ShiftTemplate(location, "FIXTURE", day, start, end, Gender.ANY, List.of(),
+				empCount, 1);
+		template.setId(id);
+		template.setShiftType(type);
+		return template;
+	}
+}
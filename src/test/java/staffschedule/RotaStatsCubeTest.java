@@ -0,0 +1,172 @@
+package staffschedule;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.Test;
+
+import com.midco.rota.model.Employee;
+import com.midco.rota.model.EmployeeShiftStatDTO;
+import com.midco.rota.model.PaycycleStatsDTO;
+import com.midco.rota.model.Rota;
+import com.midco.rota.model.ServiceStatsDTO;
+import com.midco.rota.model.Shift;
+import com.midco.rota.model.ShiftAssignment;
+import com.midco.rota.model.ShiftSummaryDTO;
+import com.midco.rota.model.ShiftTypeStatsDTO;
+import com.midco.rota.model.WeekStatsDTO;
+import com.midco.rota.model.WeeklyShiftStatDTO;
+import com.midco.rota.util.RotaStatsCube;
+import com.midco.rota.util.ShiftType;
+
+/**
+ * A cube kept up to date with reassign/addAssignment must give the same
+ * summaries as one built from the final assignments.
+ */
+class RotaStatsCubeTest {
+
+	private static final String REGION = "FIXTURE";
+	private static final LocalDate START = RotaFixtures.START_DATE;
+	private static final int DAYS = 14;
+	private static final LocalDate END = START.plusDays(DAYS - 1);
+
+	@Test
+	void incrementalUpdatesMatchRebuild() {
+		Random random = new Random(3);
+		Rota rota = RotaFixtures.build(3, 8, DAYS, 3L);
+		List<Employee> employees = rota.getEmployeeList();
+		List<ShiftAssignment> assignments = new ArrayList<>(rota.getShiftAssignmentList());
+		for (ShiftAssignment sa : assignments) {
+			if (sa.getEmployee() == null && random.nextBoolean()) {
+				sa.setEmployee(employees.get(random.nextInt(employees.size())));
+			}
+		}
+
+		RotaStatsCube cube = RotaStatsCube.build(REGION, START, END, employees, assignments);
+
+		long nextShiftId = 10_000;
+		int templateId = 10_000;
+		int sleepInReassigned = 0;
+		for (int step = 0; step < 500; step++) {
+			int op = random.nextInt(10);
+			if (op < 7) {
+				// Move one assignment, to nobody now and then
+				ShiftAssignment sa = assignments.get(random.nextInt(assignments.size()));
+				Employee to = random.nextInt(5) == 0 ? null : employees.get(random.nextInt(employees.size()));
+				assertTrue(cube.reassign(sa.getShift().getId(), employeeId(sa.getEmployee()), employeeId(to)));
+				if (sa.getShift().getShiftTemplate().getShiftType() == ShiftType.SLEEP_IN) {
+					sleepInReassigned++;
+				}
+				sa.setEmployee(to);
+			} else if (op < 9) {
+				// Another assignment row on an existing shift
+				Shift shift = assignments.get(random.nextInt(assignments.size())).getShift();
+				ShiftAssignment sa = new ShiftAssignment(shift);
+				sa.setEmployee(random.nextBoolean() ? employees.get(random.nextInt(employees.size())) : null);
+				cube.addAssignment(shift, employeeId(sa.getEmployee()));
+				assignments.add(sa);
+			} else {
+				// A shift the cube hasn't seen, possibly at a new location
+				ShiftType type = List.of(ShiftType.DAY, ShiftType.WAKING_NIGHT, ShiftType.SLEEP_IN)
+						.get(random.nextInt(3));
+				LocalDate date = START.plusDays(random.nextInt(DAYS));
+				String location = "FIXTURE_LOCATION_" + random.nextInt(5);
+				Shift shift = new Shift(date,
+						RotaFixtures.template(templateId++, location, date.getDayOfWeek(), type, 2), 1);
+				shift.setId(nextShiftId++);
+				ShiftAssignment sa = new ShiftAssignment(shift);
+				sa.setEmployee(employees.get(random.nextInt(employees.size())));
+				cube.addAssignment(shift, employeeId(sa.getEmployee()));
+				assignments.add(sa);
+			}
+		}
+		assertTrue(sleepInReassigned > 0, "SLEEP_IN reassignments should be exercised");
+		assertFalse(cube.reassign(-1L, null, employees.get(0).getId()));
+
+		RotaStatsCube rebuilt = RotaStatsCube.build(REGION, START, END, employees, assignments);
+		assertEquals(describeServices(rebuilt.toServiceSummary()), describeServices(cube.toServiceSummary()));
+		assertEquals(describeEmployees(rebuilt.toEmployeeSummary()), describeEmployees(cube.toEmployeeSummary()));
+	}
+
+	@Test
+	void sleepInAndMultiEmployeeShiftsAreCountedPerAssignment() {
+		Rota rota = RotaFixtures.build(1, 2, 1, 9L);
+		Employee first = rota.getEmployeeList().get(0);
+		Employee second = rota.getEmployeeList().get(1);
+		List<ShiftAssignment> assignments = rota.getShiftAssignmentList();
+
+		RotaStatsCube cube = RotaStatsCube.build(REGION, START, START, rota.getEmployeeList(), assignments);
+		for (ShiftAssignment sa : assignments) {
+			if (sa.getShift().getShiftTemplate().getShiftType() == ShiftType.DAY) {
+				Employee to = sa == assignments.get(0) ? first : second;
+				cube.reassign(sa.getShift().getId(), null, to.getId());
+				sa.setEmployee(to);
+			}
+		}
+
+		List<String> services = describeServices(cube.toServiceSummary());
+		// Two DAY slots of 8h, one row each, both allocated. No SLEEP_IN rows.
+		assertTrue(services.stream().anyMatch(line -> line.startsWith("FIXTURE FIXTURE_LOCATION_0 week1 DAY ")
+				&& line.contains(" allocated=16 ") && line.endsWith(" shifts=2 allocations=2")), services::toString);
+		assertTrue(services.stream().noneMatch(line -> line.contains("SLEEP_IN")), services::toString);
+		assertEquals(describeServices(
+				RotaStatsCube.build(REGION, START, START, rota.getEmployeeList(), assignments).toServiceSummary()),
+				services);
+	}
+
+	private static Integer employeeId(Employee employee) {
+		return employee != null ? employee.getId() : null;
+	}
+
+	/**
+	 * One line per shift type cell, BigDecimals without trailing zeros so 0
+	 * and 0.00 compare equal.
+	 */
+	private static List<String> describeServices(List<PaycycleStatsDTO> summary) {
+		List<String> lines = new ArrayList<>();
+		for (PaycycleStatsDTO region : summary) {
+			lines.add(region.region + " " + region.period + " " + region.periodId);
+			for (ServiceStatsDTO service : region.services) {
+				for (WeekStatsDTO week : service.weeks) {
+					lines.add(region.region + " " + service.location + " week" + week.weekNumber + " " + week.start
+							+ ".." + week.end);
+					for (ShiftTypeStatsDTO stats : week.shiftStats) {
+						lines.add(region.region + " " + service.location + " week" + week.weekNumber + " "
+								+ stats.shiftType + " total=" + plain(stats.totalHours) + " allocated="
+								+ plain(stats.allocatedHours) + " unallocated=" + plain(stats.unallocatedHours)
+								+ " shifts=" + stats.shiftCount + " allocations=" + stats.allocationCount);
+					}
+				}
+			}
+		}
+		return lines;
+	}
+
+	private static List<String> describeEmployees(List<EmployeeShiftStatDTO> summary) {
+		List<String> lines = new ArrayList<>();
+		for (EmployeeShiftStatDTO employee : summary) {
+			lines.add(employee.name + " " + employee.contractType + " " + employee.region + " " + employee.rateCode);
+			for (WeeklyShiftStatDTO week : employee.weeklyStats) {
+				lines.add(employee.name + " week" + week.weekNumber + " " + week.weekStart + ".." + week.weekEnd);
+				for (Map.Entry<ShiftType, ShiftSummaryDTO> entry : new TreeMap<>(week.shiftSummary).entrySet()) {
+					lines.add(employee.name + " week" + week.weekNumber + " " + entry.getKey() + " count="
+							+ entry.getValue().count + " hours=" + plain(entry.getValue().hours));
+				}
+			}
+		}
+		return lines;
+	}
+
+	private static String plain(BigDecimal value) {
+		return value.stripTrailingZeros().toPlainString();
+	}
+}
@@ -0,0 +1,328 @@
+package staffschedule;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.midco.rota.model.ScheduleVersion;
+import com.midco.rota.model.ShiftAssignmentVersion;
+import com.midco.rota.repository.RotaJdbcRepository;
+import com.midco.rota.repository.ScheduleVersionRepository;
+import com.midco.rota.repository.ShiftAssignmentVersionRepository;
+import com.midco.rota.service.ScheduleVersionStore;
+
+/**
+ * ScheduleVersionStore against in-memory repositories: snapshots and deltas
+ * must read back as the full state that was saved.
+ */
+class ScheduleVersionStoreTest {
+
+	private static final long ROTA_ID = 7L;
+	private static final int SHIFTS = 20;
+
+	private final List<ScheduleVersion> versions = new ArrayList<>();
+	private final List<ShiftAssignmentVersion> rows = new ArrayList<>();
+	private final Map<Long, Integer> rowsWritten = new HashMap<>();
+	private final List<Collection<Long>> loadedVersionIds = new ArrayList<>();
+
+	private ScheduleVersionStore store;
+
+	@BeforeEach
+	void setUp() {
+		ScheduleVersionRepository versionRepository = mock(ScheduleVersionRepository.class);
+		when(versionRepository.findByRotaIdOrderByVersionNumberDesc(anyLong())).thenAnswer(invocation -> {
+			Long rotaId = invocation.getArgument(0);
+			return versions.stream().filter(v -> v.getRotaId().equals(rotaId))
+					.sorted(Comparator.comparing(ScheduleVersion::getVersionNumber).reversed()).toList();
+		});
+
+		ShiftAssignmentVersionRepository assignmentVersionRepository = mock(ShiftAssignmentVersionRepository.class);
+		when(assignmentVersionRepository.findByVersionIdIn(anyCollection())).thenAnswer(invocation -> {
+			Collection<Long> ids = invocation.getArgument(0);
+			loadedVersionIds.add(ids);
+			return rows.stream().filter(row -> ids.contains(row.getVersionId())).toList();
+		});
+		when(assignmentVersionRepository.countRowsByVersionIds(anyCollection())).thenAnswer(invocation -> {
+			Collection<Long> ids = invocation.getArgument(0);
+			List<Object[]> counts = new ArrayList<>();
+			for (Long id : ids) {
+				long count = rows.stream().filter(row -> row.getVersionId().equals(id)).count();
+				if (count > 0) {
+					counts.add(new Object[] { id, count });
+				}
+			}
+			return counts;
+		});
+
+		RotaJdbcRepository rotaJdbcRepository = mock(RotaJdbcRepository.class);
+		when(rotaJdbcRepository.insertAssignmentVersions(anyLong(), anyLong(), any())).thenAnswer(invocation -> {
+			Long versionId = invocation.getArgument(0);
+			Long rotaId = invocation.getArgument(1);
+			Map<Long, List<Integer>> employeesByShiftId = invocation.getArgument(2);
+			int written = 0;
+			for (Map.Entry<Long, List<Integer>> entry : employeesByShiftId.entrySet()) {
+				for (Integer employeeId : entry.getValue()) {
+					rows.add(new ShiftAssignmentVersion(versionId, entry.getKey(), employeeId, rotaId));
+					written++;
+				}
+			}
+			rowsWritten.put(versionId, written);
+			return written;
+		});
+
+		store = new ScheduleVersionStore(versionRepository, assignmentVersionRepository, rotaJdbcRepository);
+		ReflectionTestUtils.setField(store, "snapshotInterval", 10);
+	}
+
+	@Test
+	void foldsSnapshotAndDeltaChain() {
+		Map<Long, List<Integer>> v1State = baseState();
+		ScheduleVersion v1 = saveVersion(v1State);
+
+		Map<Long, List<Integer>> v2State = copy(v1State);
+		v2State.put(3L, List.of(103));
+		ScheduleVersion v2 = saveVersion(v2State);
+
+		Map<Long, List<Integer>> v3State = copy(v2State);
+		v3State.put(5L, List.of(105));
+		v3State.put(3L, List.of(203));
+		ScheduleVersion v3 = saveVersion(v3State);
+
+		assertEquals(total(v1State), rowsWritten.get(v1.getId()));
+		assertEquals(1, rowsWritten.get(v2.getId()));
+		assertEquals(2, rowsWritten.get(v3.getId()));
+
+		assertState(v1State, store.loadState(v1));
+		assertState(v2State, store.loadState(v2));
+		assertState(v3State, store.loadState(v3));
+	}
+
+	@Test
+	void readsFromTheNearestSnapshotOnly() {
+		ReflectionTestUtils.setField(store, "snapshotInterval", 3);
+
+		Map<Long, List<Integer>> state = baseState();
+		List<ScheduleVersion> saved = new ArrayList<>();
+		for (int n = 1; n <= 5; n++) {
+			state = copy(state);
+			state.put(n + 2L, List.of(300 + n));
+			saved.add(saveVersion(state));
+		}
+
+		// Versions 1 and 4 are snapshots, the others deltas
+		assertEquals(total(state), rowsWritten.get(saved.get(0).getId()));
+		assertEquals(1, rowsWritten.get(saved.get(1).getId()));
+		assertEquals(total(state), rowsWritten.get(saved.get(3).getId()));
+		assertEquals(1, rowsWritten.get(saved.get(4).getId()));
+
+		loadedVersionIds.clear();
+		assertState(state, store.loadState(saved.get(4)));
+		assertEquals(Set.of(saved.get(3).getId(), saved.get(4).getId()), new HashSet<>(loadedVersionIds.get(0)));
+	}
+
+	@Test
+	void removedShiftForcesSnapshot() {
+		Map<Long, List<Integer>> v1State = baseState();
+		saveVersion(v1State);
+
+		Map<Long, List<Integer>> v2State = copy(v1State);
+		v2State.remove(4L);
+		ScheduleVersion v2 = saveVersion(v2State);
+
+		assertEquals(total(v2State), rowsWritten.get(v2.getId()));
+		Map<Long, List<ShiftAssignmentVersion>> loaded = store.loadState(v2);
+		assertFalse(loaded.containsKey(4L));
+		assertState(v2State, loaded);
+	}
+
+	@Test
+	void largeDeltaFallsBackToSnapshot() {
+		Map<Long, List<Integer>> v1State = baseState();
+		saveVersion(v1State);
+
+		Map<Long, List<Integer>> v2State = copy(v1State);
+		for (long shiftId = 1; shiftId <= SHIFTS; shiftId++) {
+			List<Integer> employees = new ArrayList<>();
+			for (Integer employeeId : v1State.get(shiftId)) {
+				employees.add(employeeId == null ? 500 : employeeId + 1000);
+			}
+			v2State.put(shiftId, employees);
+		}
+		ScheduleVersion v2 = saveVersion(v2State);
+
+		assertEquals(total(v2State), rowsWritten.get(v2.getId()));
+		assertEquals(total(v2State), v2.getTotalAssignments());
+		assertState(v2State, store.loadState(v2));
+	}
+
+	@Test
+	void deltaCarriesEveryAssignmentOfAMultiEmployeeShift() {
+		Map<Long, List<Integer>> v1State = baseState();
+		saveVersion(v1State);
+
+		// Same employees in another slot order is no change
+		Map<Long, List<Integer>> v2State = copy(v1State);
+		v2State.put(2L, reversed(v1State.get(2L)));
+		ScheduleVersion v2 = saveVersion(v2State);
+		assertEquals(0, rowsWritten.get(v2.getId()));
+
+		// One of three employees replaced, one slot left empty
+		Map<Long, List<Integer>> v3State = copy(v2State);
+		v3State.put(2L, Arrays.asList(v1State.get(2L).get(0), 900, null));
+		ScheduleVersion v3 = saveVersion(v3State);
+
+		assertEquals(3, rowsWritten.get(v3.getId()));
+		assertState(v1State, store.loadState(v2));
+		assertState(v3State, store.loadState(v3));
+		assertEquals(3, store.loadState(v3).get(2L).size());
+		assertEquals(total(v3State), store.loadAssignments(v3).size());
+		assertTrue(ScheduleVersionStore.sameEmployees(v3State.get(2L), store.loadState(v3).get(2L)));
+		assertFalse(ScheduleVersionStore.sameEmployees(v1State.get(2L), store.loadState(v3).get(2L)));
+	}
+
+	@Test
+	void comparesVersionsAcrossDeltas() {
+		Map<Long, List<Integer>> v1State = baseState();
+		ScheduleVersion v1 = saveVersion(v1State);
+
+		Map<Long, List<Integer>> v2State = copy(v1State);
+		v2State.put(6L, List.of(106));
+		ScheduleVersion v2 = saveVersion(v2State);
+
+		Map<Long, List<Integer>> v3State = copy(v2State);
+		v3State.put(2L, List.of(102, 202, 302));
+		ScheduleVersion v3 = saveVersion(v3State);
+
+		ScheduleVersionStore.VersionPair pair = store.loadPair(v1, v3);
+		assertState(v1State, pair.stateA());
+		assertState(v3State, pair.stateB());
+		assertEquals(Set.of(6L, 2L), pair.candidateShiftIds());
+
+		// Either order, stateA belongs to the first argument
+		ScheduleVersionStore.VersionPair reversedPair = store.loadPair(v3, v2);
+		assertState(v3State, reversedPair.stateA());
+		assertState(v2State, reversedPair.stateB());
+		assertEquals(Set.of(2L), reversedPair.candidateShiftIds());
+	}
+
+	@Test
+	void snapshotInBetweenMakesEveryShiftACandidate() {
+		ReflectionTestUtils.setField(store, "snapshotInterval", 2);
+
+		Map<Long, List<Integer>> v1State = baseState();
+		ScheduleVersion v1 = saveVersion(v1State);
+		Map<Long, List<Integer>> v2State = copy(v1State);
+		v2State.put(1L, List.of(101));
+		saveVersion(v2State);
+		Map<Long, List<Integer>> v3State = copy(v2State);
+		v3State.put(8L, List.of(108));
+		ScheduleVersion v3 = saveVersion(v3State);
+
+		ScheduleVersionStore.VersionPair pair = store.loadPair(v1, v3);
+		assertState(v1State, pair.stateA());
+		assertState(v3State, pair.stateB());
+		assertEquals(v3State.keySet(), pair.candidateShiftIds());
+	}
+
+	@Test
+	void rollbackAfterDeltaRestoresTarget() {
+		Map<Long, List<Integer>> v1State = baseState();
+		ScheduleVersion v1 = saveVersion(v1State);
+
+		Map<Long, List<Integer>> v2State = copy(v1State);
+		v2State.put(9L, List.of(109));
+		v2State.put(2L, List.of(102, 202, 302));
+		ScheduleVersion v2 = saveVersion(v2State);
+
+		// As ScheduleVersionService.rollbackToVersion: target and current in one pass,
+		// the target state saved as a new version on top of the current one
+		ScheduleVersionStore.VersionPair pair = store.loadPair(v1, v2);
+		ScheduleVersion v3 = newVersion();
+		store.save(v3, ScheduleVersionStore.employeeIds(pair.stateA()), pair.stateB());
+
+		assertEquals(4, rowsWritten.get(v3.getId()));
+		assertState(v1State, store.loadState(v3));
+
+		ScheduleVersionStore.VersionPair afterRollback = store.loadPair(v2, v3);
+		assertEquals(Set.of(9L, 2L), afterRollback.candidateShiftIds());
+		assertState(v1State, afterRollback.stateB());
+	}
+
+	/**
+	 * SHIFTS shifts of one employee each, except shift 2 with three and shift
+	 * 10 left unassigned.
+	 */
+	private static Map<Long, List<Integer>> baseState() {
+		Map<Long, List<Integer>> state = new LinkedHashMap<>();
+		for (long shiftId = 1; shiftId <= SHIFTS; shiftId++) {
+			state.put(shiftId, List.of((int) shiftId));
+		}
+		state.put(2L, List.of(21, 22, 23));
+		state.put(10L, Arrays.asList((Integer) null));
+		return state;
+	}
+
+	/**
+	 * Saves the state as the next version, with the previous state loaded
+	 * back the way ScheduleVersionService.createVersion does.
+	 */
+	private ScheduleVersion saveVersion(Map<Long, List<Integer>> state) {
+		ScheduleVersion previous = versions.isEmpty() ? null : versions.get(versions.size() - 1);
+		Map<Long, List<ShiftAssignmentVersion>> previousState = previous != null ? store.loadState(previous) : null;
+		ScheduleVersion version = newVersion();
+		store.save(version, state, previousState);
+		return version;
+	}
+
+	private ScheduleVersion newVersion() {
+		ScheduleVersion version = new ScheduleVersion();
+		version.setId(100L + versions.size());
+		version.setRotaId(ROTA_ID);
+		version.setVersionNumber(versions.size() + 1);
+		versions.add(version);
+		return version;
+	}
+
+	private static void assertState(Map<Long, List<Integer>> expected, Map<Long, List<ShiftAssignmentVersion>> actual) {
+		assertEquals(expected.keySet(), actual.keySet());
+		expected.forEach((shiftId, employeeIds) -> assertTrue(
+				ScheduleVersionStore.sameEmployees(employeeIds, actual.get(shiftId)),
+				() -> "shift " + shiftId + ": expected " + employeeIds + " but was "
+						+ ScheduleVersionStore.employeeIds(actual.get(shiftId))));
+	}
+
+	private static Map<Long, List<Integer>> copy(Map<Long, List<Integer>> state) {
+		return new LinkedHashMap<>(state);
+	}
+
+	private static int total(Map<Long, List<Integer>> state) {
+		return state.values().stream().mapToInt(List::size).sum();
+	}
+
+	private static List<Integer> reversed(List<Integer> employeeIds) {
+		List<Integer> reversed = new ArrayList<>(employeeIds);
+		Collections.reverse(reversed);
+		return reversed;
+	}
+}